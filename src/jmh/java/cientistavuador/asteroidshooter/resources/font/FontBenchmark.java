@@ -0,0 +1,93 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.resources.font;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Font.getIndexOfUnicode lookups per microsecond.
+ *
+ * @author Cien
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FontBenchmark {
+
+    public static final int LOOKUPS = 1024;
+
+    //what the game actually draws
+    public static final String ASCII_HEAVY = "Score:\n12345\nHighest Score:\n20000 (BEAT MY RECORD!)\nW - Move Up\tSpace - Shoot";
+    //latin, greek, cyrillic, cjk and code points outside of the basic multilingual plane
+    public static final String MIXED_SCRIPT = "Pontuação αβγδ Привет 日本語 🚀🌟 ÀÉÎÕÜ 𝔸𝔹 ok";
+
+    @Param({"Tektur-Regular.zip", "Roboto-Bold.zip"})
+    public String fontName;
+
+    @Param({"ascii", "mixed"})
+    public String text;
+
+    private Font font;
+    private final int[] codePoints = new int[LOOKUPS];
+
+    @Setup
+    public void setup() {
+        this.font = BenchmarkFonts.load(this.fontName);
+        int[] source = (this.text.equals("ascii") ? ASCII_HEAVY : MIXED_SCRIPT).codePoints().toArray();
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.codePoints[i] = source[i % source.length];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int getIndexOfUnicode() {
+        Font f = this.font;
+        int[] points = this.codePoints;
+        int sum = 0;
+        for (int i = 0; i < points.length; i++) {
+            sum += f.getIndexOfUnicode(points[i]);
+        }
+        return sum;
+    }
+
+}
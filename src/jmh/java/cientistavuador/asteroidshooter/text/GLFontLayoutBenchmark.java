@@ -0,0 +1,110 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.text;
+
+import cientistavuador.asteroidshooter.resources.font.BenchmarkFonts;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * GLFontRenderer.lineSize and the glyph layout behind every text draw, the
+ * fonts have no textures so no OpenGL context is needed.
+ *
+ * @author Cien
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GLFontLayoutBenchmark {
+
+    public static final String LABEL = "CONTROLS";
+    public static final String PARAGRAPH
+            = """
+            W - Move Up
+            
+            S - Move Down
+            
+            A - Move Left
+            
+            D - Move Right
+            
+            R - Self Destruct
+            
+            Space - Shoot
+            
+            Mouse - Aim
+            
+            Esc - Pause
+            
+            F3 - Show/Hide Hitboxes
+            """;
+
+    private GLFontSpecification spec;
+    private final float[] cursor = new float[2];
+
+    @Setup
+    public void setup() {
+        GLFont font = new GLFont(BenchmarkFonts.load("Tektur-Regular.zip"), 0, 0, 0);
+        this.spec = new GLFontSpecification(font, 0.06f);
+    }
+
+    @Benchmark
+    public float lineSizeLabel() {
+        return GLFontLayout.lineSize(this.spec, LABEL);
+    }
+
+    @Benchmark
+    public float lineSizeParagraph() {
+        return GLFontLayout.lineSize(this.spec, PARAGRAPH);
+    }
+
+    @Benchmark
+    public void layoutParagraph(Blackhole blackhole) {
+        this.cursor[0] = 0f;
+        this.cursor[1] = 0f;
+        GLFontLayout.layout(0f, this.cursor, this.spec, PARAGRAPH, (unicodeIndex, pxRange, originX, originY, size, weight, layer, color) -> {
+            blackhole.consume(unicodeIndex);
+            blackhole.consume(pxRange);
+            blackhole.consume(originX);
+            blackhole.consume(originY);
+        });
+    }
+
+}
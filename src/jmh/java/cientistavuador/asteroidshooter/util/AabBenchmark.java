@@ -0,0 +1,74 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import cientistavuador.asteroidshooter.asteroid.Asteroid;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Aab intersection tests, run with "-prof gc" to check that
+ * gc.alloc.rate.norm stays at zero bytes per operation.
+ *
+ * @author Cien
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AabBenchmark {
+
+    private final Aab aab = new BenchmarkAab(0f, 0f, Asteroid.ASTEROID_WIDTH, Asteroid.ASTEROID_HEIGHT);
+    private final Aab overlapping = new BenchmarkAab(0.05f, 0.05f, Asteroid.ASTEROID_WIDTH, Asteroid.ASTEROID_HEIGHT);
+    private final Aab disjoint = new BenchmarkAab(1f, 1f, Asteroid.ASTEROID_WIDTH, Asteroid.ASTEROID_HEIGHT);
+
+    @Benchmark
+    public boolean testAab2DOverlapping() {
+        return this.aab.testAab2D(this.overlapping);
+    }
+
+    @Benchmark
+    public boolean testAab2DDisjoint() {
+        return this.aab.testAab2D(this.disjoint);
+    }
+
+    @Benchmark
+    public boolean testAab3DOverlapping() {
+        return this.aab.testAab3D(this.overlapping);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import cientistavuador.asteroidshooter.asteroid.Asteroid;
+import cientistavuador.asteroidshooter.asteroid.AsteroidController;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One asteroid collision pass through the broadphase, the grid is rebuilt and
+ * every asteroid queries it once, like AsteroidController does every tick.
+ * <p>
+ * The pairTests counter is the amount of narrow phase tests the grid ran,
+ * divide it by the amount of operations and compare it with the
+ * n * (n - 1) tests of the brute force loop.
+ *
+ * @author Cien
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AabGridBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long pairTests;
+        public long hits;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            this.pairTests = 0;
+            this.hits = 0;
+        }
+    }
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int asteroids;
+
+    private final AabGrid<BenchmarkAab> grid = new AabGrid<>(
+            -AsteroidController.GRID_BOUNDS, -AsteroidController.GRID_BOUNDS,
+            AsteroidController.GRID_BOUNDS, AsteroidController.GRID_BOUNDS,
+            AsteroidController.GRID_CELL_SIZE
+    );
+    private final List<BenchmarkAab> boxes = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1234);
+        this.boxes.clear();
+        for (int i = 0; i < this.asteroids; i++) {
+            this.boxes.add(new BenchmarkAab(
+                    (float) random.nextDouble(-AsteroidController.GRID_BOUNDS, AsteroidController.GRID_BOUNDS),
+                    (float) random.nextDouble(-AsteroidController.GRID_BOUNDS, AsteroidController.GRID_BOUNDS),
+                    Asteroid.ASTEROID_WIDTH,
+                    Asteroid.ASTEROID_HEIGHT
+            ));
+        }
+    }
+
+    @Benchmark
+    public int collisionPass(Counters counters) {
+        this.grid.resetNumberOfTests();
+        this.grid.rebuild(this.boxes);
+
+        int hits = 0;
+        for (int i = 0; i < this.boxes.size(); i++) {
+            BenchmarkAab box = this.boxes.get(i);
+            if (this.grid.queryFirst(box, box) != null) {
+                hits++;
+            }
+        }
+
+        counters.pairTests += this.grid.getNumberOfTests();
+        counters.hits += hits;
+        return hits;
+    }
+
+}
@@ -30,19 +30,27 @@ import cientistavuador.asteroidshooter.asteroid.AsteroidController;
 import cientistavuador.asteroidshooter.background.Background;
 import cientistavuador.asteroidshooter.camera.OrthoCamera;
 import cientistavuador.asteroidshooter.debug.AabRender;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.menus.AudioButton;
 import cientistavuador.asteroidshooter.menus.ControlsMenu;
 import cientistavuador.asteroidshooter.menus.MainMenu;
 import cientistavuador.asteroidshooter.menus.Score;
 import cientistavuador.asteroidshooter.menus.SpaceshipLivesRender;
+import cientistavuador.asteroidshooter.replay.InputRecorder;
+import cientistavuador.asteroidshooter.replay.ReplayInput;
+import cientistavuador.asteroidshooter.replay.StateHash;
 import cientistavuador.asteroidshooter.shader.GeometryProgram;
 import cientistavuador.asteroidshooter.sound.Sounds;
+import cientistavuador.asteroidshooter.sound.VoicePool;
+import cientistavuador.asteroidshooter.spaceship.LaserShot;
 import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipInput;
 import cientistavuador.asteroidshooter.ubo.CameraUBO;
 import cientistavuador.asteroidshooter.ubo.UBOBindingPoints;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
 import cientistavuador.asteroidshooter.util.Cursors;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
 import org.joml.Matrix4f;
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.openal.AL11.*;
@@ -69,16 +77,17 @@ public class Game {
     private final Score score = new Score();
     private final SpaceshipLivesRender livesRender = new SpaceshipLivesRender();
 
-    private final int clickAudioSource;
-
     private AsteroidController asteroids = null;
     private SpaceshipController spaceship = null;
+    private final Matrix4f cameraMatrix = new Matrix4f();
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final ReplayInput input = new ReplayInput();
+    private InputRecorder recorder = null;
 
     private boolean debugEnabled = false;
 
     private Game() {
-        this.clickAudioSource = alGenSources();
-        alSourcei(this.clickAudioSource, AL_BUFFER, Sounds.CLICK.getAudioBuffer());
+
     }
 
     public void start() {
@@ -100,10 +109,21 @@ public class Game {
         glUseProgram(0);
     }
 
+    public void update() {
+        if (this.spaceship != null) {
+            int keys = ReplayInput.poll(SpaceshipInput.GLFW_INPUT);
+            this.input.setKeys(keys);
+            if (this.recorder != null) {
+                this.recorder.tick(keys, Main.WIDTH, Main.HEIGHT);
+            }
+
+            this.spaceship.update(this.asteroids);
+            this.asteroids.update(this.spaceship);
+        }
+    }
+
     public void loop() {
-        GeometryProgram.INSTANCE.use();
-        GeometryProgram.INSTANCE.updateLightsUniforms();
-        glUseProgram(0);
+        GeometryProgram.INSTANCE.updateLights(this.camera.getPosition());
 
         alListener3f(AL_POSITION, (float) this.camera.getPosition().x(), (float) this.camera.getPosition().y(), (float) this.camera.getPosition().z());
         try (MemoryStack stack = MemoryStack.stackPush()) {
@@ -117,17 +137,22 @@ public class Game {
 
         this.camera.getUBO().updateUBO();
 
-        Matrix4f cameraMatrix = new Matrix4f(camera.getProjectionView());
+        Matrix4f cameraMatrix = this.cameraMatrix.set(camera.getProjectionView());
 
         //background
         this.background.loop();
 
         if (this.spaceship != null) {
-            this.spaceship.loop(cameraMatrix, this.asteroids);
-            this.asteroids.loop(cameraMatrix, this.spaceship);
+            this.spaceship.render(cameraMatrix);
+            this.asteroids.render(cameraMatrix);
         }
 
         if (this.spaceship != null && this.spaceship.isGameOver()) {
+            if (this.recorder != null) {
+                this.recorder.close(StateHash.hash(this.spaceship, this.asteroids));
+                System.out.println("Recorded " + this.recorder.getTicks() + " ticks to '" + this.recorder.getFile() + "'");
+                this.recorder = null;
+            }
             this.score.onGameOver();
             this.spaceship = null;
             this.asteroids = null;
@@ -137,10 +162,7 @@ public class Game {
             this.controlsMenu.setEnabled(false);
 
             if (this.audioButton.isAudioEnabled()) {
-                int gameOverAudio = alGenSources();
-                alSourcei(gameOverAudio, AL_BUFFER, Sounds.GAME_OVER.getAudioBuffer());
-                alSourcePlay(gameOverAudio);
-                ALSourceUtil.deleteWhenStopped(gameOverAudio, null);
+                VoicePool.play(Sounds.GAME_OVER, VoicePool.Priority.HIGH);
             }
         }
 
@@ -157,8 +179,20 @@ public class Game {
 
         if (this.mainMenu.playPressedSignal()) {
             if (this.spaceship == null) {
-                this.spaceship = new SpaceshipController(this.score);
-                this.asteroids = new AsteroidController(this.score);
+                long spaceshipSeed = this.seeds.nextLong();
+                long asteroidsSeed = this.seeds.nextLong();
+
+                this.spaceship = new SpaceshipController(this.score, spaceshipSeed);
+                this.asteroids = new AsteroidController(this.score, asteroidsSeed);
+
+                this.spaceship.setInput(this.input);
+
+                Path recordDirectory = InputRecorder.getRecordDirectory();
+                if (recordDirectory != null) {
+                    Path file = recordDirectory.resolve("session-" + System.currentTimeMillis() + InputRecorder.EXTENSION);
+                    int flags = (LaserShot.SWEPT_COLLISION ? InputRecorder.FLAG_SWEPT_COLLISION : 0);
+                    this.recorder = InputRecorder.create(file, Main.TICK_RATE, spaceshipSeed, asteroidsSeed, flags);
+                }
 
                 this.spaceship.setAudioEnabled(this.audioButton.isAudioEnabled());
                 this.asteroids.setAudioEnabled(this.audioButton.isAudioEnabled());
@@ -172,6 +206,9 @@ public class Game {
 
             this.asteroids.setFrozen(false);
             this.spaceship.setFrozen(false);
+            if (this.recorder != null) {
+                this.recorder.setFrozen(false);
+            }
 
             buttonPressed = true;
         }
@@ -206,14 +243,15 @@ public class Game {
         }
 
         if (buttonPressed && this.audioButton.isAudioEnabled()) {
-            if (alGetSourcei(this.clickAudioSource, AL_SOURCE_STATE) == AL_PLAYING) {
-                alSourceStop(this.clickAudioSource);
-            }
-            alSourcePlay(this.clickAudioSource);
+            //limited to one voice, a new click restarts the previous one
+            VoicePool.play(Sounds.CLICK, VoicePool.Priority.HIGH);
         }
 
+        RenderQueue.INSTANCE.flush();
+
         AabRender.renderQueue(camera);
         Main.WINDOW_TITLE += " (DrawCalls: " + Main.NUMBER_OF_DRAWCALLS + ", Vertices: " + Main.NUMBER_OF_VERTICES + ")";
+        Main.WINDOW_TITLE += " (StateChanges: " + RenderQueue.INSTANCE.getStateChanges() + ", Skipped: " + RenderQueue.INSTANCE.getSkippedStateChanges() + ")";
 
         Cursors.updateCursor();
     }
@@ -221,6 +259,9 @@ public class Game {
     public void mouseCursorMoved(double x, double y) {
         if (this.spaceship != null) {
             this.spaceship.mouseCursorMoved(x, y);
+            if (this.recorder != null) {
+                this.recorder.cursorMoved(x, y);
+            }
         }
     }
 
@@ -262,6 +303,9 @@ public class Game {
                 this.audioButton.setEnabled(true);
                 this.asteroids.setFrozen(true);
                 this.spaceship.setFrozen(true);
+                if (this.recorder != null) {
+                    this.recorder.setFrozen(true);
+                }
             }
         }
     }
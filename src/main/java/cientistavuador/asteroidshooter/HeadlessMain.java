@@ -0,0 +1,217 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter;
+
+import cientistavuador.asteroidshooter.asteroid.AsteroidController;
+import cientistavuador.asteroidshooter.menus.Score;
+import cientistavuador.asteroidshooter.replay.StateHash;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipInput;
+import cientistavuador.asteroidshooter.util.ParallelUpdate;
+import static org.lwjgl.glfw.GLFW.*;
+
+/**
+ * Runs the game simulation without a OpenGL context or a audio device, a bot
+ * plays the game as fast as possible and the ticks per second are reported at
+ * the end.
+ * <p>
+ * Usage: HeadlessMain [ticks] [minimum amount of asteroids] [tick rate]
+ * [update threads or "scaling"]
+ * <p>
+ * With "scaling" the same run is repeated from 1 up to all available cores and
+ * the speedup over a single update thread is reported, every run uses the same
+ * seeds so all of them must end in the same state.
+ *
+ * @author Cien
+ */
+public class HeadlessMain {
+
+    public static final int DEFAULT_TICKS = 60 * 60 * 5;
+    public static final int BOT_MOVE_TICKS = 60;
+    public static final long SEED = 0x5EED;
+
+    private static class BotInput implements SpaceshipInput {
+
+        private static final int[] MOVEMENT_KEYS = {
+            GLFW_KEY_W, GLFW_KEY_D, GLFW_KEY_S, GLFW_KEY_A
+        };
+
+        private long tick = 0;
+
+        public void setTick(long tick) {
+            this.tick = tick;
+        }
+
+        @Override
+        public boolean isKeyPressed(int key) {
+            if (key == GLFW_KEY_SPACE) {
+                return true;
+            }
+            int movementKey = MOVEMENT_KEYS[(int) ((this.tick / BOT_MOVE_TICKS) % MOVEMENT_KEYS.length)];
+            return key == movementKey;
+        }
+    }
+
+    private static int games = 0;
+    private static long asteroidTests = 0;
+    private static long asteroidsSum = 0;
+    private static Score score = null;
+    private static long stateHash = 0;
+
+    private static double run(int ticks, int minAsteroids) {
+        score = new Score();
+        score.setAudioEnabled(false);
+        BotInput input = new BotInput();
+
+        SpaceshipController spaceship = null;
+        AsteroidController asteroids = null;
+
+        games = 0;
+        asteroidTests = 0;
+        asteroidsSum = 0;
+
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            if (spaceship == null || spaceship.isGameOver()) {
+                if (asteroids != null) {
+                    asteroidTests += asteroids.getAsteroidsGrid().getNumberOfTests();
+                    score.onGameOver();
+                }
+                spaceship = new SpaceshipController(score, SEED + (games * 2));
+                asteroids = new AsteroidController(score, SEED + (games * 2) + 1);
+                spaceship.setAudioEnabled(false);
+                asteroids.setAudioEnabled(false);
+                spaceship.setInput(input);
+                games++;
+            }
+
+            input.setTick(tick);
+            double aim = tick * 0.05;
+            spaceship.mouseCursorMoved(
+                    (Main.WIDTH * 0.5) + (Math.cos(aim) * Main.WIDTH * 0.5),
+                    (Main.HEIGHT * 0.5) + (Math.sin(aim) * Main.HEIGHT * 0.5)
+            );
+
+            if (spaceship.isSpaceshipAlive()) {
+                while (asteroids.getAsteroids().size() < minAsteroids) {
+                    asteroids.spawnAsteroid(spaceship.getSpaceship(), false);
+                }
+            }
+
+            Main.FRAME_COUNTER.markStart("update");
+            spaceship.update(asteroids);
+            asteroids.update(spaceship);
+            Main.FRAME_COUNTER.markEnd("update");
+
+            asteroidsSum += asteroids.getAsteroids().size();
+        }
+        long time = System.nanoTime() - start;
+        asteroidTests += asteroids.getAsteroidsGrid().getNumberOfTests();
+        stateHash = StateHash.hash(spaceship, asteroids);
+
+        return time / 1E9d;
+    }
+
+    private static void scaling(int ticks, int minAsteroids) {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Running " + ticks + " headless ticks at " + Main.TICK_RATE + " ticks per second with 1 to " + maxThreads + " update threads, minimum asteroids: " + minAsteroids);
+
+        //warmup
+        ParallelUpdate.setThreads(maxThreads);
+        run(ticks, minAsteroids);
+
+        double baseline = 0.0;
+        long baselineHash = 0;
+        int threads = 1;
+        while (true) {
+            ParallelUpdate.setThreads(threads);
+            double seconds = run(ticks, minAsteroids);
+            if (threads == 1) {
+                baseline = seconds;
+                baselineHash = stateHash;
+            }
+            System.out.println(
+                    "Threads: " + threads
+                    + ", ticks per second: " + String.format("%.1f", ticks / seconds)
+                    + ", average tick time: " + String.format("%.4f", (seconds * 1000.0) / ticks) + "ms"
+                    + ", speedup: " + String.format("%.2f", baseline / seconds) + "x"
+                    + ", state hash: " + Long.toHexString(stateHash)
+            );
+            if (stateHash != baselineHash) {
+                System.out.println("Warning: State differs from the single threaded run!");
+            }
+            if (threads == maxThreads) {
+                break;
+            }
+            threads = Math.min(threads * 2, maxThreads);
+        }
+    }
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int ticks = DEFAULT_TICKS;
+        int minAsteroids = 0;
+        if (args.length >= 1) {
+            ticks = Integer.parseInt(args[0]);
+        }
+        if (args.length >= 2) {
+            minAsteroids = Integer.parseInt(args[1]);
+        }
+        if (args.length >= 3) {
+            Main.TICK_RATE = Integer.parseInt(args[2]);
+        }
+
+        Main.TPF = 1.0 / Main.TICK_RATE;
+        Main.TICK_ALPHA = 1f;
+
+        if (args.length >= 4) {
+            if (args[3].equals("scaling")) {
+                scaling(ticks, minAsteroids);
+                return;
+            }
+            ParallelUpdate.setThreads(Integer.parseInt(args[3]));
+        }
+
+        System.out.println("Running " + ticks + " headless ticks at " + Main.TICK_RATE + " ticks per second with " + ParallelUpdate.getThreads() + " update threads, minimum asteroids: " + minAsteroids);
+
+        double seconds = run(ticks, minAsteroids);
+
+        System.out.println("Finished " + ticks + " ticks in " + String.format("%.3f", seconds) + "s");
+        System.out.println("Ticks per second: " + String.format("%.1f", ticks / seconds));
+        System.out.println("Average tick time: " + String.format("%.4f", (seconds * 1000.0) / ticks) + "ms");
+        System.out.println("Average asteroids per tick: " + String.format("%.1f", asteroidsSum / ((double) ticks)));
+        System.out.println("Average asteroid aab tests per tick: " + String.format("%.1f", asteroidTests / ((double) ticks)));
+        System.out.println("Games played: " + games + ", highest score: " + score.getHighestScore());
+        System.out.println("State hash: " + Long.toHexString(stateHash));
+        Main.POOLS_COUNTER.print();
+        Main.FRAME_COUNTER.print();
+    }
+
+}
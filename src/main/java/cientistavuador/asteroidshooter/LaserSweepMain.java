@@ -0,0 +1,211 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter;
+
+import cientistavuador.asteroidshooter.asteroid.Asteroid;
+import cientistavuador.asteroidshooter.asteroid.AsteroidController;
+import cientistavuador.asteroidshooter.menus.Score;
+import cientistavuador.asteroidshooter.spaceship.LaserShot;
+import cientistavuador.asteroidshooter.spaceship.Spaceship;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipInput;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import org.joml.Vector3f;
+
+/**
+ * Plays the same scripted laser shots and asteroid trajectories at different
+ * tick rates and checks that every rate ends with the same set of hits, the
+ * hits of the old end position only test are printed for comparison.
+ * <p>
+ * Usage: LaserSweepMain [seed]
+ *
+ * @author Cien
+ */
+public class LaserSweepMain {
+
+    public static final int[] TICK_RATES = {10, 30, 60, 240};
+
+    //every event happens on a multiple of this, so all tick rates see them at the same time
+    public static final int STEP_RATE = 10;
+    public static final int STEPS = STEP_RATE * 30;
+
+    public static final float[] LANES = {-0.75f, -0.55f, -0.35f, 0.35f, 0.55f, 0.75f};
+    public static final int ASTEROID_SPAWN_STEPS = 10;
+    public static final float ASTEROID_DISTANCE = 1.4f;
+    public static final float ASTEROID_HEALTH = 1E9f;
+
+    private static class Shot {
+
+        final int step;
+        final Vector3f position = new Vector3f();
+        final Vector3f direction = new Vector3f();
+
+        Shot(int step, float x, float y, float angle) {
+            this.step = step;
+            this.position.set(x, y, 0f);
+            this.direction.set(0f, Math.signum(-y), 0f).rotateZ(angle);
+        }
+    }
+
+    private static List<Shot> createShots(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Shot> shots = new ArrayList<>();
+        for (int step = 0; step < STEPS; step++) {
+            float x = (float) ((random.nextDouble() * 1.8) - 0.9);
+            float y = (random.nextBoolean() ? 0.95f : -0.95f);
+            float angle = (float) ((random.nextDouble() - 0.5) * Math.toRadians(120.0));
+            shots.add(new Shot(step, x, y, angle));
+        }
+        return shots;
+    }
+
+    private static TreeSet<String> run(int tickRate, List<Shot> shots) {
+        Main.TICK_RATE = tickRate;
+        Main.TPF = 1.0 / tickRate;
+        Main.TICK_ALPHA = 1f;
+
+        Score score = new Score();
+        score.setAudioEnabled(false);
+        SpaceshipController spaceship = new SpaceshipController(score, 0);
+        AsteroidController asteroids = new AsteroidController(score, 0);
+        spaceship.setAudioEnabled(false);
+        asteroids.setAudioEnabled(false);
+        asteroids.setSpawningEnabled(false);
+        spaceship.setInput(SpaceshipInput.NO_INPUT);
+
+        //spawns the spaceship, which stays still in the center
+        spaceship.update(asteroids);
+
+        Map<Asteroid, Integer> asteroidIds = new IdentityHashMap<>();
+        Map<LaserShot, Integer> shotIds = new IdentityHashMap<>();
+        Vector3f initialPosition = new Vector3f();
+        Vector3f finalPosition = new Vector3f();
+        int asteroidsSpawned = 0;
+
+        TreeSet<String> hits = new TreeSet<>();
+
+        int ticksPerStep = tickRate / STEP_RATE;
+        int ticks = STEPS * ticksPerStep;
+        for (int tick = 0; tick < ticks; tick++) {
+            if ((tick % ticksPerStep) == 0) {
+                int step = tick / ticksPerStep;
+
+                for (int lane = 0; lane < LANES.length; lane++) {
+                    if (((step + lane) % ASTEROID_SPAWN_STEPS) != 0) {
+                        continue;
+                    }
+                    //asteroids move from the final position to the initial one
+                    float side = ((lane % 2) == 0 ? 1f : -1f);
+                    initialPosition.set(ASTEROID_DISTANCE * side, LANES[lane], 0f);
+                    finalPosition.set(-ASTEROID_DISTANCE * side, LANES[lane], 0f);
+                    Asteroid a = asteroids.spawnAsteroid(initialPosition, finalPosition, false);
+                    a.setHealth(ASTEROID_HEALTH);
+                    asteroidIds.put(a, asteroidsSpawned++);
+                }
+
+                Shot s = shots.get(step);
+                shotIds.put(spaceship.fireLaserShot(s.position, s.direction), step);
+            }
+
+            spaceship.update(asteroids);
+            asteroids.update(spaceship);
+
+            var iterator = shotIds.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                LaserShot shot = entry.getKey();
+                Asteroid hit = shot.getHitAsteroid();
+                if (hit != null) {
+                    hits.add("shot " + entry.getValue() + " -> asteroid " + asteroidIds.get(hit));
+                    iterator.remove();
+                } else if (!Spaceship.SCREEN_AAB.testAab2D(shot)) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        return hits;
+    }
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        long seed = 0;
+        if (args.length >= 1) {
+            seed = Long.parseLong(args[0]);
+        }
+
+        List<Shot> shots = createShots(seed);
+
+        System.out.println("Playing " + STEPS + " scripted shots (seed " + seed + ") at " + TICK_RATES.length + " tick rates");
+
+        LaserShot.SWEPT_COLLISION = false;
+        for (int tickRate : TICK_RATES) {
+            System.out.println("End position test at " + tickRate + " Hz: " + run(tickRate, shots).size() + " hits");
+        }
+
+        LaserShot.SWEPT_COLLISION = true;
+        TreeSet<String> reference = null;
+        int referenceRate = 0;
+        boolean failed = false;
+        for (int tickRate : TICK_RATES) {
+            TreeSet<String> hits = run(tickRate, shots);
+            System.out.println("Swept test at " + tickRate + " Hz: " + hits.size() + " hits");
+            if (reference == null) {
+                reference = hits;
+                referenceRate = tickRate;
+                continue;
+            }
+            if (!hits.equals(reference)) {
+                failed = true;
+                for (String hit : reference) {
+                    if (!hits.contains(hit)) {
+                        System.out.println("    missing at " + tickRate + " Hz: " + hit);
+                    }
+                }
+                for (String hit : hits) {
+                    if (!reference.contains(hit)) {
+                        System.out.println("    only at " + tickRate + " Hz: " + hit);
+                    }
+                }
+            }
+        }
+
+        if (failed) {
+            System.out.println("FAILED: swept hits differ from the " + referenceRate + " Hz run");
+            System.exit(1);
+        }
+        System.out.println("OK: all tick rates have the same " + reference.size() + " hits");
+    }
+
+}
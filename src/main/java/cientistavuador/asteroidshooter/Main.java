@@ -26,15 +26,19 @@
  */
 package cientistavuador.asteroidshooter;
 
+import cientistavuador.asteroidshooter.debug.DebugCounter;
 import cientistavuador.asteroidshooter.sound.SoundSystem;
 import cientistavuador.asteroidshooter.geometry.Geometries;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.sound.Sounds;
+import cientistavuador.asteroidshooter.sound.VoicePool;
 import cientistavuador.asteroidshooter.text.GLFonts;
 import cientistavuador.asteroidshooter.texture.Textures;
+import cientistavuador.asteroidshooter.ubo.FontTextUBO;
 import cientistavuador.asteroidshooter.ubo.UBOBindingPoints;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
 import cientistavuador.asteroidshooter.util.Aab;
 import cientistavuador.asteroidshooter.util.Cursors;
+import cientistavuador.asteroidshooter.util.ProgramCompiler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
@@ -66,7 +70,10 @@ public class Main {
     public static final boolean USE_MSAA = false;
     public static final boolean DEBUG_ENABLED = true;
     public static final boolean SPIKE_LAG_WARNINGS = false;
+    public static final boolean FRAME_COUNTER_REPORTS = false;
     public static final int MIN_UNIFORM_BUFFER_BINDINGS = UBOBindingPoints.MIN_NUMBER_OF_UBO_BINDING_POINTS;
+    public static final String TICK_RATE_PROPERTY = "asteroidshooter.tickrate";
+    public static final String MAX_TICKS_PER_FRAME_PROPERTY = "asteroidshooter.maxticks";
 
     static {
         org.lwjgl.system.Configuration.LIBRARY_PATH.set("natives");
@@ -113,7 +120,12 @@ public class Main {
     public static String WINDOW_TITLE = "CienCraft - FPS: 60";
     public static int WIDTH = 800;
     public static int HEIGHT = 600;
-    public static double TPF = 1 / 60d;
+    public static int TICK_RATE = 60;
+    public static int MAX_TICKS_PER_FRAME = 5;
+    public static double TPF = 1.0 / TICK_RATE;
+    public static double FRAME_TIME = 1 / 60d;
+    public static float TICK_ALPHA = 1f;
+    public static long TICK = 0;
     public static int FPS = 60;
     public static long WINDOW_POINTER = NULL;
     public static long FRAME = 0;
@@ -136,6 +148,8 @@ public class Main {
         }
     };
     public static final ConcurrentLinkedQueue<Runnable> MAIN_TASKS = new ConcurrentLinkedQueue<>();
+    public static final DebugCounter POOLS_COUNTER = new DebugCounter("POOLS");
+    public static final DebugCounter FRAME_COUNTER = new DebugCounter("FRAME");
     public static final Vector3f DEFAULT_CLEAR_COLOR = new Vector3f(0.2f, 0.4f, 0.6f);
     public static final String WINDOW_ICON = "cientistavuador/asteroidshooter/resources/image/spaceship_window_icon.png";
     private static GLDebugMessageCallback DEBUG_CALLBACK = null;
@@ -197,6 +211,18 @@ public class Main {
      * @param args the command line arguments
      */
     public static void main(String[] args) {
+        int tickRate = Integer.getInteger(TICK_RATE_PROPERTY, Main.TICK_RATE);
+        if (tickRate < 1) {
+            throw new IllegalArgumentException("Tick rate must be at least 1, found " + tickRate);
+        }
+        int maxTicksPerFrame = Integer.getInteger(MAX_TICKS_PER_FRAME_PROPERTY, Main.MAX_TICKS_PER_FRAME);
+        if (maxTicksPerFrame < 1) {
+            throw new IllegalArgumentException("Max ticks per frame must be at least 1, found " + maxTicksPerFrame);
+        }
+        Main.TICK_RATE = tickRate;
+        Main.MAX_TICKS_PER_FRAME = maxTicksPerFrame;
+        Main.TPF = 1.0 / Main.TICK_RATE;
+
         glfwSetErrorCallback((error, description) -> {
             GLFWErrorException exception = new GLFWErrorException("GLFW Error " + error + ": " + memASCIISafe(description));
             if (THROW_GL_GLFW_ERRORS) {
@@ -373,6 +399,7 @@ public class Main {
         Sounds.init(); //static initialize
         Cursors.init(); //static initialize
         Game.get(); //static initialize
+        ProgramCompiler.printStatistics();
 
         Main.checkGLError();
 
@@ -406,9 +433,15 @@ public class Main {
         long nextFpsUpdate = System.currentTimeMillis() + 1000;
         long nextTitleUpdate = System.currentTimeMillis() + 100;
         long timeFrameBegin = System.nanoTime();
+        long textUploadedBytes = FontTextUBO.DEFAULT.getUploadedBytes();
+        double tickAccumulator = 0.0;
+
+        if (FRAME_COUNTER_REPORTS) {
+            Main.FRAME_COUNTER.setTimerAction(Main.FRAME_COUNTER::print);
+        }
 
         while (!glfwWindowShouldClose(WINDOW_POINTER)) {
-            Main.TPF = (System.nanoTime() - timeFrameBegin) / 1E9d;
+            Main.FRAME_TIME = (System.nanoTime() - timeFrameBegin) / 1E9d;
             timeFrameBegin = System.nanoTime();
 
             Main.NUMBER_OF_DRAWCALLS = 0;
@@ -416,9 +449,9 @@ public class Main {
             Main.WINDOW_TITLE = "Asteroid Shooter - FPS: " + Main.FPS;
 
             if (SPIKE_LAG_WARNINGS) {
-                int tpfFps = (int) (1.0 / Main.TPF);
+                int tpfFps = (int) (1.0 / Main.FRAME_TIME);
                 if (tpfFps < 60 && ((Main.FPS - tpfFps) > 30)) {
-                    System.out.println("[Spike Lag Warning] From " + Main.FPS + " FPS to " + tpfFps + " FPS; current frame TPF: " + String.format("%.3f", Main.TPF) + "s");
+                    System.out.println("[Spike Lag Warning] From " + Main.FPS + " FPS to " + tpfFps + " FPS; current frame time: " + String.format("%.3f", Main.FRAME_TIME) + "s");
                 }
             }
 
@@ -441,20 +474,51 @@ public class Main {
             glfwPollEvents();
             glClear(GL_DEPTH_BUFFER_BIT | GL_COLOR_BUFFER_BIT | GL_STENCIL_BUFFER_BIT);
 
+            Main.FRAME_COUNTER.markStart("main tasks");
             Runnable r;
             while ((r = MAIN_TASKS.poll()) != null) {
                 r.run();
             }
+            Main.FRAME_COUNTER.markEnd("main tasks");
+
+            VoicePool.update();
+            VoicePool.report(Main.POOLS_COUNTER);
+
+            //fixed timestep simulation, the render interpolates between the last two ticks
+            Main.TPF = 1.0 / Main.TICK_RATE;
+            tickAccumulator += Main.FRAME_TIME;
+            int ticks = 0;
+            while (tickAccumulator >= Main.TPF) {
+                if (ticks >= Main.MAX_TICKS_PER_FRAME) {
+                    tickAccumulator %= Main.TPF;
+                    break;
+                }
+                Main.FRAME_COUNTER.markStart("update");
+                Game.get().update();
+                Main.FRAME_COUNTER.markEnd("update");
+                tickAccumulator -= Main.TPF;
+                ticks++;
+                Main.TICK++;
+            }
+            Main.TICK_ALPHA = (float) (tickAccumulator / Main.TPF);
 
-            ALSourceUtil.update();
-
+            Main.FRAME_COUNTER.markStart("render");
             Game.get().loop();
+            Main.FRAME_COUNTER.markEnd("render");
+
+            long currentTextUploadedBytes = FontTextUBO.DEFAULT.getUploadedBytes();
+            Main.FRAME_COUNTER.setValue("text uploaded bytes", currentTextUploadedBytes - textUploadedBytes);
+            textUploadedBytes = currentTextUploadedBytes;
+
+            RenderQueue.INSTANCE.report(Main.FRAME_COUNTER);
 
             glFlush();
 
             Main.checkGLError();
 
+            Main.FRAME_COUNTER.markStart("swap");
             glfwSwapBuffers(WINDOW_POINTER);
+            Main.FRAME_COUNTER.markEnd("swap");
 
             frames++;
             if (System.currentTimeMillis() >= nextFpsUpdate) {
@@ -468,8 +532,8 @@ public class Main {
                 glfwSetWindowTitle(WINDOW_POINTER, Main.WINDOW_TITLE);
             }
 
-            Main.ONE_SECOND_COUNTER += Main.TPF;
-            Main.ONE_MINUTE_COUNTER += Main.TPF;
+            Main.ONE_SECOND_COUNTER += Main.FRAME_TIME;
+            Main.ONE_MINUTE_COUNTER += Main.FRAME_TIME;
 
             if (Main.ONE_SECOND_COUNTER > 1.0) {
                 Main.ONE_SECOND_COUNTER = 0.0;
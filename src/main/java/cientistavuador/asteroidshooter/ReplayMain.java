@@ -0,0 +1,133 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter;
+
+import cientistavuador.asteroidshooter.asteroid.AsteroidController;
+import cientistavuador.asteroidshooter.menus.Score;
+import cientistavuador.asteroidshooter.replay.InputReplay;
+import cientistavuador.asteroidshooter.replay.ReplayInput;
+import cientistavuador.asteroidshooter.replay.StateHash;
+import cientistavuador.asteroidshooter.spaceship.LaserShot;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
+import cientistavuador.asteroidshooter.util.ParallelUpdate;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs a session recorded with the "asteroidshooter.record" property again
+ * without a OpenGL context or a audio device and checks that it ends in the
+ * same state, the slowest ticks are reported to help finding spikes.
+ * <p>
+ * Usage: ReplayMain [recording] [update threads]
+ *
+ * @author Cien
+ */
+public class ReplayMain {
+
+    public static final int SLOWEST_TICKS = 10;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayMain [recording] [update threads]");
+            return;
+        }
+        if (args.length >= 2) {
+            ParallelUpdate.setThreads(Integer.parseInt(args[1]));
+        }
+
+        Path file = Path.of(args[0]);
+        InputReplay replay = InputReplay.read(file);
+
+        Main.TICK_RATE = replay.getTickRate();
+        Main.TPF = 1.0 / Main.TICK_RATE;
+        Main.TICK_ALPHA = 1f;
+
+        //the collision mode changes the simulation, it must match the recording
+        LaserShot.SWEPT_COLLISION = replay.isSweptCollision();
+
+        System.out.println("Replaying '" + file + "' at " + Main.TICK_RATE + " ticks per second with " + ParallelUpdate.getThreads() + " update threads" + (LaserShot.SWEPT_COLLISION ? "" : " and unswept laser collision"));
+
+        Score score = new Score();
+        score.setAudioEnabled(false);
+        ReplayInput input = new ReplayInput();
+
+        SpaceshipController spaceship = new SpaceshipController(score, replay.getSpaceshipSeed());
+        AsteroidController asteroids = new AsteroidController(score, replay.getAsteroidsSeed());
+        spaceship.setAudioEnabled(false);
+        asteroids.setAudioEnabled(false);
+        spaceship.setInput(input);
+
+        long[] slowestTimes = new long[SLOWEST_TICKS];
+        long[] slowestTicks = new long[SLOWEST_TICKS];
+
+        long start = System.nanoTime();
+        while (replay.next(input, spaceship, asteroids)) {
+            long tickStart = System.nanoTime();
+            spaceship.update(asteroids);
+            asteroids.update(spaceship);
+            long tickTime = System.nanoTime() - tickStart;
+
+            //sorted insert, slowest first
+            for (int i = 0; i < SLOWEST_TICKS; i++) {
+                if (tickTime > slowestTimes[i]) {
+                    System.arraycopy(slowestTimes, i, slowestTimes, i + 1, SLOWEST_TICKS - i - 1);
+                    System.arraycopy(slowestTicks, i, slowestTicks, i + 1, SLOWEST_TICKS - i - 1);
+                    slowestTimes[i] = tickTime;
+                    slowestTicks[i] = replay.getTick() - 1;
+                    break;
+                }
+            }
+        }
+        long time = System.nanoTime() - start;
+
+        long ticks = replay.getTick();
+        double seconds = time / 1E9d;
+        System.out.println("Finished " + ticks + " ticks in " + String.format("%.3f", seconds) + "s");
+        if (ticks > 0) {
+            System.out.println("Average tick time: " + String.format("%.4f", (seconds * 1000.0) / ticks) + "ms");
+        }
+        System.out.println("Slowest ticks:");
+        for (int i = 0; i < SLOWEST_TICKS && i < ticks; i++) {
+            System.out.println("    tick " + slowestTicks[i] + ": " + String.format("%.4f", slowestTimes[i] / 1E6d) + "ms");
+        }
+        System.out.println("Final score: " + score.getScore() + ", game over: " + spaceship.isGameOver());
+
+        long stateHash = StateHash.hash(spaceship, asteroids);
+        if (!replay.hasStateHash()) {
+            System.out.println("Recording has no final state (session was not finished), state hash: " + Long.toHexString(stateHash));
+        } else if (replay.getStateHash() == stateHash) {
+            System.out.println("Replay matches the recording, state hash: " + Long.toHexString(stateHash));
+        } else {
+            System.out.println("Replay DIFFERS from the recording, expected state hash " + Long.toHexString(replay.getStateHash()) + " but got " + Long.toHexString(stateHash));
+            System.exit(1);
+        }
+    }
+
+}
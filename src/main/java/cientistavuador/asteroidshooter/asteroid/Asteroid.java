@@ -27,15 +27,14 @@
 package cientistavuador.asteroidshooter.asteroid;
 
 import cientistavuador.asteroidshooter.Main;
-import cientistavuador.asteroidshooter.geometry.Geometries;
-import cientistavuador.asteroidshooter.shader.GeometryProgram;
+import cientistavuador.asteroidshooter.geometry.GeometryInstances;
 import cientistavuador.asteroidshooter.spaceship.LaserShot;
-import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
 import cientistavuador.asteroidshooter.util.Aab;
+import cientistavuador.asteroidshooter.util.Interpolation;
+import java.util.SplittableRandom;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector3fc;
-import static org.lwjgl.opengl.GL33C.*;
 
 /**
  *
@@ -56,30 +55,58 @@ public class Asteroid implements Aab {
     private final AsteroidController controller;
     private final Matrix4f model = new Matrix4f();
 
-    private final float rotationX = (float) Math.toRadians(Math.random() * 360f);
-    private final float rotationY = (float) Math.toRadians(Math.random() * 360f);
+    private float rotationX = 0f;
+    private float rotationY = 0f;
     private float rotationZ = 0f;
+    private float previousRotationZ = 0f;
 
     private final Vector3f initialPosition = new Vector3f();
     private final Vector3f finalPosition = new Vector3f();
     private float currentPosition = 0f;
 
     private final Vector3f position = new Vector3f();
+    private final Vector3f previousPosition = new Vector3f();
+    private boolean positionInitialized = false;
 
-    private final float initialHealth = (float) (ASTEROID_MIN_HEALTH + ((ASTEROID_MAX_HEALTH - ASTEROID_MIN_HEALTH) * Math.random()));
-    private float health = this.initialHealth;
+    private float initialHealth = 0f;
+    private float health = 0f;
 
     private boolean frozen = false;
     private float hitTime = 0.0f;
+    private Asteroid contact = null;
 
     protected float speed = ASTEROID_SPEED;
     protected float rotationSpeed = 1f;
 
-    protected Asteroid(AsteroidController controller, Vector3fc initialPosition, Vector3fc finalPosition) {
+    protected Asteroid(AsteroidController controller) {
+        this.controller = controller;
+    }
+
+    //called every time the asteroid is taken from the pool
+    protected void reset(Vector3fc initialPosition, Vector3fc finalPosition) {
+        SplittableRandom random = this.controller.getRandom();
+        this.rotationX = (float) Math.toRadians(random.nextDouble() * 360f);
+        this.rotationY = (float) Math.toRadians(random.nextDouble() * 360f);
+        this.rotationZ = 0f;
+        this.previousRotationZ = 0f;
+
         this.initialPosition.set(initialPosition);
         this.finalPosition.set(finalPosition);
+        this.currentPosition = 0f;
+
         this.position.set(initialPosition);
-        this.controller = controller;
+        this.previousPosition.set(initialPosition);
+        this.positionInitialized = false;
+
+        this.initialHealth = (float) (ASTEROID_MIN_HEALTH + ((ASTEROID_MAX_HEALTH - ASTEROID_MIN_HEALTH) * random.nextDouble()));
+        this.health = this.initialHealth;
+
+        this.frozen = false;
+        this.hitTime = 0f;
+        this.contact = null;
+
+        this.speed = ASTEROID_SPEED;
+        this.rotationSpeed = 1f;
     }
 
     public boolean isFrozen() {
@@ -138,6 +165,17 @@ public class Asteroid implements Aab {
         return speed;
     }
 
+    //units per second the asteroid is going to move in the next update
+    public Vector3f getVelocity(Vector3f velocity) {
+        if (this.frozen) {
+            return velocity.zero();
+        }
+        return velocity
+                .set(this.initialPosition)
+                .sub(this.finalPosition)
+                .mul(this.speed);
+    }
+
     public float getRotationSpeed() {
         return rotationSpeed;
     }
@@ -169,7 +207,10 @@ public class Asteroid implements Aab {
         this.controller.onAsteroidDestroyed(this, asteroid, false);
     }
 
-    public void loop(SpaceshipController spaceshipController) {
+    protected void updatePosition() {
+        this.previousPosition.set(this.position);
+        this.previousRotationZ = this.rotationZ;
+
         if (!this.frozen) {
             this.currentPosition += (float) (Main.TPF * this.speed);
 
@@ -182,24 +223,29 @@ public class Asteroid implements Aab {
             if (this.rotationZ > Math.PI * 2f) {
                 this.rotationZ = 0f;
             }
-            this.model
-                    .identity()
-                    .translate(this.position)
-                    .scale(ASTEROID_RENDER_SCALE)
-                    .rotateX(this.rotationX)
-                    .rotateY(this.rotationY)
-                    .rotateZ(this.rotationZ);
-
-            if (spaceshipController.isSpaceshipAlive() && spaceshipController.getSpaceship().testAab2D(this)) {
-                spaceshipController.getSpaceship().onAsteroidHit(this);
+
+            if (!this.positionInitialized) {
+                this.previousPosition.set(this.position);
+                this.positionInitialized = true;
             }
+        }
+    }
 
-            for (Asteroid s : this.controller.getAsteroids()) {
-                if (!s.equals(this) && s.testAab2D(this)) {
-                    this.onAsteroidHitByAnotherAsteroid(s);
-                    s.onAsteroidHitByAnotherAsteroid(this);
-                    break;
-                }
+    //only reads the grid, may run in parallel with other asteroids
+    protected void findContact() {
+        this.contact = null;
+        if (!this.frozen) {
+            this.contact = this.controller.getAsteroidsGrid().queryFirst(this, this);
+        }
+    }
+
+    public void update() {
+        if (!this.frozen) {
+            Asteroid s = this.contact;
+            this.contact = null;
+            if (s != null) {
+                this.onAsteroidHitByAnotherAsteroid(s);
+                s.onAsteroidHitByAnotherAsteroid(this);
             }
         }
 
@@ -207,18 +253,24 @@ public class Asteroid implements Aab {
         if (this.hitTime < 0f) {
             this.hitTime = 0f;
         }
-        float hitColor = this.hitTime / ASTEROID_HIT_TIME;
-        if (hitColor != 0) {
-            GeometryProgram.INSTANCE.setColor(1f, 1f - hitColor, 1f - hitColor, 1f);
-        }
-        GeometryProgram.INSTANCE.setModel(this.model);
-        glDrawElements(GL_TRIANGLES, Geometries.ASTEROID.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-        if (hitColor != 0) {
-            GeometryProgram.INSTANCE.setColor(1f, 1f, 1f, 1f);
-        }
+    }
+
+    public void render(GeometryInstances instances) {
+        float alpha = Main.TICK_ALPHA;
+        this.model
+                .identity()
+                .translate(
+                        Interpolation.lerp(this.previousPosition.x(), this.position.x(), alpha),
+                        Interpolation.lerp(this.previousPosition.y(), this.position.y(), alpha),
+                        Interpolation.lerp(this.previousPosition.z(), this.position.z(), alpha)
+                )
+                .scale(ASTEROID_RENDER_SCALE)
+                .rotateX(this.rotationX)
+                .rotateY(this.rotationY)
+                .rotateZ(Interpolation.lerpAngle(this.previousRotationZ, this.rotationZ, alpha));
 
-        Main.NUMBER_OF_DRAWCALLS++;
-        Main.NUMBER_OF_VERTICES += Geometries.ASTEROID.getAmountOfIndices();
+        float hitColor = this.hitTime / ASTEROID_HIT_TIME;
+        instances.add(this.model, 1f, 1f - hitColor, 1f - hitColor, 1f);
     }
 
     @Override
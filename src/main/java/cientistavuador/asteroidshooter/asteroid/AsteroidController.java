@@ -28,21 +28,27 @@ package cientistavuador.asteroidshooter.asteroid;
 
 import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.geometry.Geometries;
+import cientistavuador.asteroidshooter.geometry.GeometryInstances;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.menus.Score;
-import cientistavuador.asteroidshooter.shader.GeometryProgram;
+import cientistavuador.asteroidshooter.resources.audio.NativeAudio;
 import cientistavuador.asteroidshooter.sound.Sounds;
+import cientistavuador.asteroidshooter.sound.VoicePool;
 import cientistavuador.asteroidshooter.spaceship.LaserShot;
 import cientistavuador.asteroidshooter.spaceship.Spaceship;
 import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
 import cientistavuador.asteroidshooter.texture.Textures;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
 import cientistavuador.asteroidshooter.util.Aab;
+import cientistavuador.asteroidshooter.util.AabGrid;
+import cientistavuador.asteroidshooter.util.DebrisParticles;
+import cientistavuador.asteroidshooter.util.ObjectPool;
+import cientistavuador.asteroidshooter.util.ParallelUpdate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import static org.lwjgl.opengl.GL33C.*;
-import static org.lwjgl.openal.AL11.*;
+import org.joml.Vector3fc;
 
 /**
  *
@@ -52,8 +58,14 @@ public class AsteroidController {
 
     public static final int MIN_AMOUNT_OF_DEBRIS = 5;
     public static final int MAX_AMOUNT_OF_DEBRIS = 8;
+    public static final float DEBRIS_SPEED = 0.50f;
+    public static final float DEBRIS_RENDER_SCALE = 0.06f;
+    public static final float DEBRIS_FADE_TIME = 1.5f;
     public static final float ASTEROID_SPAWN_TIME = 0.25f;
 
+    public static final float GRID_BOUNDS = 1.5f;
+    public static final float GRID_CELL_SIZE = 0.125f;
+
     public static final Aab DEATH_ZONE = new Aab() {
 
         private final Vector3f min = new Vector3f(-0.45f, -0.45f, 0.0f);
@@ -70,22 +82,62 @@ public class AsteroidController {
         }
     };
 
+    private final SplittableRandom random;
     private final List<Asteroid> asteroids = new ArrayList<>();
-    private final List<AsteroidDebris> asteroidsDebris = new ArrayList<>();
+    private final DebrisParticles asteroidsDebris;
+    private final ObjectPool<Asteroid> asteroidsPool = new ObjectPool<>("Asteroids", () -> new Asteroid(this));
+    private final ObjectPool<DeathAsteroid> deathAsteroidsPool = new ObjectPool<>("Death Asteroids", () -> new DeathAsteroid(this));
+    private final Vector3f spawnInitialPosition = new Vector3f();
+    private final Vector3f spawnFinalPosition = new Vector3f();
+    private final Aab spawnAab = new Aab() {
+        @Override
+        public void getMin(Vector3f min) {
+            Vector3f p = AsteroidController.this.spawnInitialPosition;
+            min.set(p.x() - (Asteroid.ASTEROID_WIDTH / 2f), p.y() - (Asteroid.ASTEROID_HEIGHT / 2f), p.z());
+        }
+
+        @Override
+        public void getMax(Vector3f max) {
+            Vector3f p = AsteroidController.this.spawnInitialPosition;
+            max.set(p.x() + (Asteroid.ASTEROID_WIDTH / 2f), p.y() + (Asteroid.ASTEROID_HEIGHT / 2f), p.z());
+        }
+    };
+    private final AabGrid<Asteroid> asteroidsGrid = new AabGrid<>(-GRID_BOUNDS, -GRID_BOUNDS, GRID_BOUNDS, GRID_BOUNDS, GRID_CELL_SIZE);
+    private final ParallelUpdate.RangeTask updatePositionsTask = (start, end) -> {
+        for (int i = start; i < end; i++) {
+            this.asteroids.get(i).updatePosition();
+        }
+    };
+    private final ParallelUpdate.RangeTask findContactsTask = (start, end) -> {
+        for (int i = start; i < end; i++) {
+            this.asteroids.get(i).findContact();
+        }
+    };
+    private GeometryInstances asteroidsInstances = null;
+    private GeometryInstances asteroidsDebrisInstances = null;
     private boolean debugEnabled = false;
     private boolean audioEnabled = true;
     private boolean frozen = false;
+    private boolean spawningEnabled = true;
     private float asteroidSpawnCounter = 0f;
     private float deathAsteroidCounter = -10f;
+    private float maxAsteroidSpeed = 0f;
     private final Score score;
 
-    public AsteroidController(Score score) {
+    public AsteroidController(Score score, long seed) {
         this.score = score;
+        this.random = new SplittableRandom(seed);
+        this.asteroidsDebris = new DebrisParticles("Asteroid Debris", this.random, DEBRIS_SPEED, DEBRIS_RENDER_SCALE, DEBRIS_FADE_TIME);
     }
 
     public Score getScore() {
         return score;
     }
+
+    //only used from the serial part of the update
+    public SplittableRandom getRandom() {
+        return random;
+    }
     
     public boolean isFrozen() {
         return frozen;
@@ -96,9 +148,16 @@ public class AsteroidController {
         for (Asteroid s : this.asteroids) {
             s.setFrozen(frozen);
         }
-        for (AsteroidDebris s : this.asteroidsDebris) {
-            s.setFrozen(frozen);
-        }
+        this.asteroidsDebris.setFrozen(frozen);
+    }
+
+    public boolean isSpawningEnabled() {
+        return spawningEnabled;
+    }
+
+    //disables the timed spawning, used for scripted scenarios
+    public void setSpawningEnabled(boolean spawningEnabled) {
+        this.spawningEnabled = spawningEnabled;
     }
 
     public boolean isAudioEnabled() {
@@ -117,19 +176,40 @@ public class AsteroidController {
         this.debugEnabled = debugEnabled;
     }
 
+    //upper bound of the velocity length of every asteroid spawned so far
+    public float getMaxAsteroidSpeed() {
+        return maxAsteroidSpeed;
+    }
+
+    public Asteroid spawnAsteroid(Vector3fc initialPosition, Vector3fc finalPosition, boolean deathAsteroid) {
+        Asteroid asteroid;
+        if (deathAsteroid) {
+            asteroid = this.deathAsteroidsPool.obtain();
+        } else {
+            asteroid = this.asteroidsPool.obtain();
+        }
+        asteroid.reset(initialPosition, finalPosition);
+        asteroid.setFrozen(this.frozen);
+        this.asteroids.add(asteroid);
+        this.asteroidsGrid.add(asteroid);
+
+        float speed = initialPosition.distance(finalPosition) * asteroid.getSpeed();
+        this.maxAsteroidSpeed = Math.max(this.maxAsteroidSpeed, speed);
+
+        return asteroid;
+    }
+
     public Asteroid spawnAsteroid(Spaceship ship, boolean deathAsteroid) {
         float distance = 1.4f;
         if (deathAsteroid) {
             distance = 5f;
         }
 
-        Asteroid asteroid = null;
-
-        Vector3f initialPosition = new Vector3f();
-        Vector3f finalPosition = new Vector3f();
+        Vector3f initialPosition = this.spawnInitialPosition;
+        Vector3f finalPosition = this.spawnFinalPosition;
         for (int i = 0; i < 5; i++) {
             initialPosition
-                    .set((Math.random() * 2f) - 1f, (Math.random() * 2f) - 1f, 0)
+                    .set((this.random.nextDouble() * 2f) - 1f, (this.random.nextDouble() * 2f) - 1f, 0)
                     .normalize(distance);
 
             if (deathAsteroid) {
@@ -142,35 +222,16 @@ public class AsteroidController {
                         .set(initialPosition)
                         .negate()
                         .normalize()
-                        .rotateZ((float) ((Math.random() - 0.5) * Math.PI))
+                        .rotateZ((float) ((this.random.nextDouble() - 0.5) * Math.PI))
                         .mul(distance);
             }
 
-            if (deathAsteroid) {
-                asteroid = new DeathAsteroid(this, initialPosition, finalPosition);
-            } else {
-                asteroid = new Asteroid(this, initialPosition, finalPosition);
-            }
-
-            boolean collision = false;
-            for (Asteroid other : this.asteroids) {
-                if (asteroid.testAab2D(other)) {
-                    collision = true;
-                    break;
-                }
-            }
-            if (!collision) {
+            if (!this.asteroidsGrid.testAny(this.spawnAab, null)) {
                 break;
             }
         }
 
-        if (asteroid == null) {
-            throw new NullPointerException("Impossible NPE.");
-        }
-
-        asteroid.setFrozen(this.frozen);
-        this.asteroids.add(asteroid);
-        return asteroid;
+        return spawnAsteroid(initialPosition, finalPosition, deathAsteroid);
     }
     
     public void onAsteroidDestroyed(Asteroid asteroid, Object cause, boolean criticalLaserHit) {
@@ -189,34 +250,31 @@ public class AsteroidController {
             debrisMultiplier = 2;
         }
         
-        int audioBuffer = Sounds.ROCK_HIT.getAudioBuffer();
-        if (deathAsteroid || cause instanceof LaserShot) {
-            audioBuffer = Sounds.EXPLOSION.getAudioBuffer();
+        NativeAudio audio = null;
+        if (this.audioEnabled) {
+            audio = Sounds.ROCK_HIT;
+            if (deathAsteroid || cause instanceof LaserShot) {
+                audio = Sounds.EXPLOSION;
+            }
         }
         
-        createAsteroidExplosion(debrisMultiplier, audioBuffer, pitch, asteroid.getPosition().x(), asteroid.getPosition().y(), asteroid.getPosition().z());
+        createAsteroidExplosion(debrisMultiplier, audio, pitch, asteroid.getPosition().x(), asteroid.getPosition().y(), asteroid.getPosition().z());
         if (cause instanceof LaserShot) {
             this.score.onAsteroidDestroyedBySpaceship(asteroid, criticalLaserHit);
         }
     }
 
-    public void createAsteroidExplosion(int debrisMultiplier, int audioBuffer, float pitch, float posX, float posY, float posZ) {
-        if (this.audioEnabled && audioBuffer != 0) {
-            int explosionAudio = alGenSources();
-            alSourcei(explosionAudio, AL_BUFFER, audioBuffer);
-            alSourcef(explosionAudio, AL_PITCH, pitch);
-            alSource3f(explosionAudio, AL_POSITION, posX, posY, posZ);
-            alSourcePlay(explosionAudio);
-            ALSourceUtil.deleteWhenStopped(explosionAudio, null);
+    public void createAsteroidExplosion(int debrisMultiplier, NativeAudio audio, float pitch, float posX, float posY, float posZ) {
+        if (this.audioEnabled && audio != null) {
+            VoicePool.play(audio, VoicePool.Priority.NORMAL, pitch, posX, posY, posZ, null);
         }
 
-        int amountOfDebris = (int) Math.floor(MIN_AMOUNT_OF_DEBRIS + ((MAX_AMOUNT_OF_DEBRIS - MIN_AMOUNT_OF_DEBRIS) * Math.random()));
+        int amountOfDebris = (int) Math.floor(MIN_AMOUNT_OF_DEBRIS + ((MAX_AMOUNT_OF_DEBRIS - MIN_AMOUNT_OF_DEBRIS) * this.random.nextDouble()));
 
         amountOfDebris *= debrisMultiplier;
 
         for (int i = 0; i < amountOfDebris; i++) {
-            AsteroidDebris debris = new AsteroidDebris(this, posX, posY, posZ);
-            this.asteroidsDebris.add(debris);
+            this.asteroidsDebris.add(posX, posY, posZ, 0);
         }
     }
     
@@ -224,8 +282,16 @@ public class AsteroidController {
         return asteroids;
     }
 
-    public void loop(Matrix4f projectionView, SpaceshipController controller) {
-        if (!this.frozen) {
+    public AabGrid<Asteroid> getAsteroidsGrid() {
+        return asteroidsGrid;
+    }
+
+    public DebrisParticles getAsteroidsDebris() {
+        return asteroidsDebris;
+    }
+
+    public void update(SpaceshipController controller) {
+        if (!this.frozen && this.spawningEnabled) {
             boolean spaceshipAlive = controller.isSpaceshipAlive();
             Spaceship spaceship = controller.getSpaceship();
             
@@ -239,7 +305,7 @@ public class AsteroidController {
                 this.deathAsteroidCounter += Main.TPF;
                 if (this.deathAsteroidCounter >= 2f) {
                     this.deathAsteroidCounter = 0f;
-                    if (Math.random() <= 0.1f) {
+                    if (this.random.nextDouble() <= 0.1f) {
                         spaceship.onDeathAsteroidIncoming(spawnAsteroid(spaceship, true));
                     }
                 }
@@ -248,44 +314,75 @@ public class AsteroidController {
             }
         }
 
+        int kept = 0;
+        for (int i = 0; i < this.asteroids.size(); i++) {
+            Asteroid a = this.asteroids.get(i);
+            if (a.shouldBeRemoved()) {
+                if (a instanceof DeathAsteroid d) {
+                    this.deathAsteroidsPool.free(d);
+                } else {
+                    this.asteroidsPool.free(a);
+                }
+                continue;
+            }
+            this.asteroids.set(kept, a);
+            kept++;
+        }
+        while (this.asteroids.size() > kept) {
+            this.asteroids.remove(this.asteroids.size() - 1);
+        }
+
+        ParallelUpdate.forEach(this.asteroids.size(), this.updatePositionsTask);
+        this.asteroidsGrid.rebuild(this.asteroids);
+
+        if (!this.frozen && controller.isSpaceshipAlive()) {
+            controller.getSpaceship().checkAsteroidsCollision(this);
+        }
+
+        //contacts are found in parallel but resolved in list order
+        ParallelUpdate.forEach(this.asteroids.size(), this.findContactsTask);
+        for (int i = 0; i < this.asteroids.size(); i++) {
+            this.asteroids.get(i).update();
+        }
+
+        this.asteroidsDebris.update();
+
+        this.asteroidsPool.report(Main.POOLS_COUNTER);
+        this.deathAsteroidsPool.report(Main.POOLS_COUNTER);
+        this.asteroidsDebris.report(Main.POOLS_COUNTER);
+    }
+
+    public void render(Matrix4f projectionView) {
         if (isDebugEnabled()) {
             DEATH_ZONE.queueAabRender();
         }
 
-        GeometryProgram.INSTANCE.use();
-        GeometryProgram.INSTANCE.setProjectionView(projectionView);
-        GeometryProgram.INSTANCE.setTextureUnit(0);
-        GeometryProgram.INSTANCE.setColor(1f, 1f, 1f, 1f);
-        GeometryProgram.INSTANCE.setLightingEnabled(true);
-
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, Textures.STONE);
+        if (this.asteroidsInstances == null) {
+            this.asteroidsInstances = GeometryInstances.create(Geometries.ASTEROID);
+            this.asteroidsDebrisInstances = GeometryInstances.create(Geometries.ASTEROID);
+        }
 
-        glBindVertexArray(Geometries.ASTEROID.getVAO());
-        
-        Asteroid[] copy = this.asteroids.toArray(Asteroid[]::new);
-        for (Asteroid a : copy) {
-            if (a.shouldBeRemoved()) {
-                this.asteroids.remove(a);
-                continue;
-            }
-            a.loop(controller);
+        this.asteroidsInstances.clear();
+        for (int i = 0; i < this.asteroids.size(); i++) {
+            Asteroid a = this.asteroids.get(i);
+            a.render(this.asteroidsInstances);
             if (isDebugEnabled()) {
                 a.queueAabRender();
             }
         }
-
-        AsteroidDebris[] debrisCopy = this.asteroidsDebris.toArray(AsteroidDebris[]::new);
-        for (AsteroidDebris a : debrisCopy) {
-            if (a.shouldBeRemoved()) {
-                this.asteroidsDebris.remove(a);
-                continue;
-            }
-            a.loop();
-        }
-
-        glBindVertexArray(0);
-        glUseProgram(0);
+        RenderQueue.INSTANCE.geometryInstances(
+                RenderQueue.Pass.OPAQUE, this.asteroidsInstances,
+                Textures.STONE, Textures.STONE_LAYER, true,
+                projectionView
+        );
+
+        this.asteroidsDebrisInstances.clear();
+        this.asteroidsDebris.render(this.asteroidsDebrisInstances);
+        RenderQueue.INSTANCE.geometryInstances(
+                RenderQueue.Pass.BLENDED, this.asteroidsDebrisInstances,
+                Textures.STONE, Textures.STONE_LAYER, true,
+                projectionView
+        );
     }
 
 }
@@ -37,8 +37,13 @@ public class DeathAsteroid extends Asteroid {
     public static final float DEATH_ASTEROID_SPEED_MULTIPLIER = 0.6f;
     public static final float DEATH_ASTEROID_ROTATION_SPEED_MULTIPLIER = 16f;
     
-    public DeathAsteroid(AsteroidController controller, Vector3fc initialPosition, Vector3fc finalPosition) {
-        super(controller, initialPosition, finalPosition);
+    public DeathAsteroid(AsteroidController controller) {
+        super(controller);
+    }
+
+    @Override
+    protected void reset(Vector3fc initialPosition, Vector3fc finalPosition) {
+        super.reset(initialPosition, finalPosition);
         this.speed = this.speed * DEATH_ASTEROID_SPEED_MULTIPLIER;
         this.rotationSpeed = this.rotationSpeed * DEATH_ASTEROID_ROTATION_SPEED_MULTIPLIER;
     }
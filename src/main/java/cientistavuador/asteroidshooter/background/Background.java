@@ -28,9 +28,8 @@ package cientistavuador.asteroidshooter.background;
 
 import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.geometry.Geometries;
-import cientistavuador.asteroidshooter.shader.BackgroundProgram;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.texture.Textures;
-import static org.lwjgl.opengl.GL33C.*;
 
 /**
  *
@@ -57,17 +56,11 @@ public class Background {
             }
         }
         
-        glUseProgram(BackgroundProgram.SHADER_PROGRAM);
-        BackgroundProgram.sendUniforms(scaleX, scaleY, Textures.PLANET_BACKGROUND);
-        glBindVertexArray(Geometries.BACKGROUND.getVAO());
-        
-        glDrawElements(GL_TRIANGLES, Geometries.BACKGROUND.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        Main.NUMBER_OF_DRAWCALLS++;
-        Main.NUMBER_OF_VERTICES += Geometries.BACKGROUND.getAmountOfIndices();
-
-        glBindVertexArray(0);
-        glUseProgram(0);
+        RenderQueue.INSTANCE.background(
+                Geometries.BACKGROUND,
+                Textures.PLANET_BACKGROUND, Textures.PLANET_BACKGROUND_LAYER,
+                scaleX, scaleY
+        );
     }
 
 }
@@ -41,7 +41,8 @@ public class DebugCharacter {
             """
             #version 330 core
             
-            uniform sampler2D atlasBounds;
+            uniform sampler2DArray atlasBounds;
+            uniform int layer;
             uniform int unicodeIndex;
             uniform float size;
             uniform vec2 translation;
@@ -50,16 +51,18 @@ public class DebugCharacter {
             layout (location = 1) in int bottomTop; //0-1
             
             out vec2 texCoords;
+            flat out int atlasLayer;
             
             void main() {
                 int atlasBoundsSize = textureSize(atlasBounds, 0).x;
-                ivec2 atlasBoundsPixel = ivec2((unicodeIndex * 2) % atlasBoundsSize, (unicodeIndex * 2) / atlasBoundsSize);
+                ivec3 atlasBoundsPixel = ivec3((unicodeIndex * 2) % atlasBoundsSize, (unicodeIndex * 2) / atlasBoundsSize, layer);
                 
                 vec4 planeBounds = texelFetch(atlasBounds, atlasBoundsPixel, 0);
-                vec4 atlasBounds = texelFetch(atlasBounds, atlasBoundsPixel + ivec2(1, 0), 0);
+                vec4 atlasBounds = texelFetch(atlasBounds, atlasBoundsPixel + ivec3(1, 0, 0), 0);
                 
                 gl_Position = vec4((planeBounds[leftRight] * size) + translation.x, (planeBounds[2 + bottomTop] * size) + translation.y, 0.0, 1.0);
                 texCoords = vec2(atlasBounds[leftRight], atlasBounds[2 + bottomTop]);
+                atlasLayer = layer;
             }
             """;
     
@@ -67,9 +70,10 @@ public class DebugCharacter {
             """
             #version 330 core
             
-            uniform sampler2D atlas;
+            uniform sampler2DArray atlas;
             
             in vec2 texCoords;
+            flat in int atlasLayer;
             
             layout (location = 0) out vec4 fragColor;
             
@@ -78,7 +82,7 @@ public class DebugCharacter {
             }
             
             void main() {
-                vec3 sdfColor = texture(atlas, texCoords).rgb;
+                vec3 sdfColor = texture(atlas, vec3(texCoords, atlasLayer)).rgb;
                 float distance = median(sdfColor.r, sdfColor.g, sdfColor.b);
                 if (distance < 0.5) {
                     discard;
@@ -90,6 +94,7 @@ public class DebugCharacter {
     private static final int SHADER_PROGRAM = ProgramCompiler.compile(VERTEX_SHADER, FRAGMENT_SHADER);
     private static final int ATLAS_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "atlas");
     private static final int ATLAS_BOUNDS_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "atlasBounds");
+    private static final int LAYER_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "layer");
     private static final int UNICODE_INDEX_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "unicodeIndex");
     private static final int SIZE_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "size");
     private static final int TRANSLATION_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "translation");
@@ -142,13 +147,14 @@ public class DebugCharacter {
         glBindVertexArray(VAO);
         
         glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, this.font.getAtlasTexture());
+        glBindTexture(GL_TEXTURE_2D_ARRAY, this.font.getAtlasTexture());
         
         glActiveTexture(GL_TEXTURE1);
-        glBindTexture(GL_TEXTURE_2D, this.font.getAtlasBoundsTexture());
+        glBindTexture(GL_TEXTURE_2D_ARRAY, this.font.getAtlasBoundsTexture());
         
         glUniform1i(ATLAS_LOCATION, 0);
         glUniform1i(ATLAS_BOUNDS_LOCATION, 1);
+        glUniform1i(LAYER_LOCATION, this.font.getLayer());
         glUniform1i(UNICODE_INDEX_LOCATION, this.font.getIndexOfUnicode(unicode));
         glUniform1f(SIZE_LOCATION, size);
         glUniform2f(TRANSLATION_LOCATION, x, y);
@@ -28,7 +28,6 @@ package cientistavuador.asteroidshooter.debug;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -70,11 +69,17 @@ public class DebugCounter {
         
         private long start;
         private long end;
-        private long[] measurements = new long[4];
-        private int measurementsIndex = 0;
         
-        public Counter(String name) {
+        //fixed memory, swapped instead of copied when read or when the window rolls
+        private LatencyHistogram sinceRead = new LatencyHistogram();
+        private LatencyHistogram read = new LatencyHistogram();
+        private LatencyHistogram currentWindow = new LatencyHistogram();
+        private LatencyHistogram lastWindow = new LatencyHistogram();
+        private long windowEnd;
+        
+        public Counter(String name, long windowDuration) {
             this.name = name;
+            this.windowEnd = System.nanoTime() + windowDuration;
         }
 
         public String getName() {
@@ -89,40 +94,77 @@ public class DebugCounter {
             this.end = System.nanoTime();
         }
         
-        public void pushMeasurement() {
-            if (measurementsIndex >= this.measurements.length) {
-                this.measurements = Arrays.copyOf(this.measurements, this.measurements.length * 2);
+        private void rollWindow(long now, long windowDuration) {
+            if (now < this.windowEnd) {
+                return;
             }
+            LatencyHistogram finished = this.currentWindow;
+            this.currentWindow = this.lastWindow;
+            this.lastWindow = finished;
+            this.currentWindow.clear();
+            if (now >= this.windowEnd + windowDuration) {
+                //a whole window passed without measurements
+                this.lastWindow.clear();
+            }
+            this.windowEnd = now + windowDuration;
+        }
+        
+        public void pushMeasurement(long windowDuration) {
+            rollWindow(this.end, windowDuration);
             
-            this.measurements[measurementsIndex] = this.end - this.start;
-            measurementsIndex++;
+            long measurement = this.end - this.start;
+            this.sinceRead.record(measurement);
+            this.currentWindow.record(measurement);
         }
         
+        public LatencyHistogram readAndReset() {
+            LatencyHistogram result = this.sinceRead;
+            this.sinceRead = this.read;
+            this.read = result;
+            this.sinceRead.clear();
+            return result;
+        }
         
-        public int numberOfMeasurements() {
-            return this.measurementsIndex;
+        public LatencyHistogram getLastWindow(long windowDuration) {
+            rollWindow(System.nanoTime(), windowDuration);
+            return this.lastWindow;
         }
+    }
+    
+    private static class Value {
+        private final String name;
         
-        public long calculateAverage() {
-            if (this.measurementsIndex == 0) {
-                return 0;
-            }
-            
-            return sumMeasurements() / this.measurementsIndex;
+        private long value = 0;
+        private long max = 0;
+        
+        public Value(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        public long getMax() {
+            return max;
         }
         
-        public long sumMeasurements() {
-            long sum = 0;
-            for (int i = 0; i < this.measurementsIndex; i++) {
-                sum += this.measurements[i];
-            }
-            return sum;
+        public void setValue(long value) {
+            this.value = value;
+            this.max = Math.max(this.max, value);
         }
     }
     
     private final List<Counter> countersList = new ArrayList<>();
     private final HashMap<String, Counter> counters = new HashMap<>();
+    private final List<Value> valuesList = new ArrayList<>();
+    private final HashMap<String, Value> values = new HashMap<>();
     private long timerActionInterval = 3000;
+    private long windowDuration = 1000;
     private long nextTimerAction = (System.nanoTime()/1_000_000L) + this.timerActionInterval;
     private Runnable timerAction = null;
 
@@ -160,6 +202,17 @@ public class DebugCounter {
         this.timerActionInterval = timerActionInterval;
     }
     
+    public long getWindowDuration() {
+        return windowDuration;
+    }
+
+    public void setWindowDuration(long windowDuration) {
+        if (windowDuration <= 0) {
+            throw new IllegalArgumentException("Window duration must be positive.");
+        }
+        this.windowDuration = windowDuration;
+    }
+    
     public String getName() {
         return name;
     }
@@ -167,13 +220,33 @@ public class DebugCounter {
     public void clear() {
         this.countersList.clear();
         this.counters.clear();
+        this.valuesList.clear();
+        this.values.clear();
+    }
+    
+    public void setValue(String valueName, long value) {
+        Value v = this.values.get(valueName);
+        if (v == null) {
+            v = new Value(valueName);
+            this.values.put(valueName, v);
+            this.valuesList.add(v);
+        }
+        v.setValue(value);
+    }
+    
+    public long getValue(String valueName) {
+        Value v = this.values.get(valueName);
+        if (v == null) {
+            throw new IllegalArgumentException("No value with name '"+valueName+"' found.");
+        }
+        return v.getValue();
     }
     
     public void markStart(String counterName) {
         checkTimer();
         Counter counter = counters.get(counterName);
         if (counter == null) {
-            counter = new Counter(counterName);
+            counter = new Counter(counterName, this.windowDuration * 1_000_000L);
             this.counters.put(counterName, counter);
             this.countersList.add(counter);
         }
@@ -191,10 +264,28 @@ public class DebugCounter {
             throw new IllegalArgumentException("No counter with name '"+counterName+"' found.");
         }
         counter.markEnd();
-        counter.pushMeasurement();
+        counter.pushMeasurement(this.windowDuration * 1_000_000L);
         checkTimer();
     }
     
+    private Counter getCounter(String counterName) {
+        Counter counter = counters.get(counterName);
+        if (counter == null) {
+            throw new IllegalArgumentException("No counter with name '"+counterName+"' found.");
+        }
+        return counter;
+    }
+    
+    //measurements since the last read, the returned histogram is only valid until the next read
+    public LatencyHistogram readAndReset(String counterName) {
+        return getCounter(counterName).readAndReset();
+    }
+    
+    //last complete rolling window of windowDuration milliseconds
+    public LatencyHistogram getLastWindow(String counterName) {
+        return getCounter(counterName).getLastWindow(this.windowDuration * 1_000_000L);
+    }
+    
     private float nsToMs(long ns) {
         return ns / 1E6f;
     }
@@ -206,29 +297,51 @@ public class DebugCounter {
     public void print(PrintStream out) {
         out.println("===Debug Counter ("+this.name+")===");
         try {
-            if (this.countersList.isEmpty()) {
+            if (this.countersList.isEmpty() && this.valuesList.isEmpty()) {
                 out.println("This counter is empty.");
                 return;
             }
             
+            for (Value value:valuesList) {
+                out.println(value.getName()+" - "+value.getValue()+" (max: "+value.getMax()+")");
+            }
+            if (this.countersList.isEmpty()) {
+                return;
+            }
+            if (!this.valuesList.isEmpty()) {
+                out.println("=======");
+            }
+            
+            LatencyHistogram[] histograms = new LatencyHistogram[this.countersList.size()];
             long total = 0;
-            for (Counter counter:countersList) {
-                total += counter.sumMeasurements();
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = this.countersList.get(i).readAndReset();
+                total += histograms[i].getSum();
             }
             
-            for (Counter counter:countersList) {
+            for (int i = 0; i < histograms.length; i++) {
+                Counter counter = this.countersList.get(i);
+                LatencyHistogram h = histograms[i];
                 out.println(
                         new StringBuilder()
                                 .append(counter.getName())
                                 .append(" - ")
-                                .append(counter.numberOfMeasurements())
+                                .append(h.getCount())
                                 .append(" measurements in ")
-                                .append(format(nsToMs(counter.sumMeasurements())))
+                                .append(format(nsToMs(h.getSum())))
                                 .append("ms ")
                                 .append("(average: ")
-                                .append(format(nsToMs(counter.calculateAverage())))
+                                .append(format(nsToMs(h.getAverage())))
+                                .append("ms; p50: ")
+                                .append(format(nsToMs(h.getPercentile(50.0))))
+                                .append("ms; p95: ")
+                                .append(format(nsToMs(h.getPercentile(95.0))))
+                                .append("ms; p99: ")
+                                .append(format(nsToMs(h.getPercentile(99.0))))
+                                .append("ms; max: ")
+                                .append(format(nsToMs(h.getMax())))
                                 .append("ms; ")
-                                .append(format((nsToMs(counter.sumMeasurements())/nsToMs(total)) * 100f))
+                                .append(format((nsToMs(h.getSum())/nsToMs(total)) * 100f))
                                 .append("...% of total)")
                                 .toString()
                 );
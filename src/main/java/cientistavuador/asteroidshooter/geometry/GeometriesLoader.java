@@ -27,7 +27,7 @@
 package cientistavuador.asteroidshooter.geometry;
 
 import cientistavuador.asteroidshooter.resources.mesh.MeshData;
-import cientistavuador.asteroidshooter.resources.mesh.MeshResources;
+import cientistavuador.asteroidshooter.resources.mesh.MeshCache;
 import java.util.ArrayDeque;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -52,6 +52,8 @@ public class GeometriesLoader {
         if (DEBUG_OUTPUT) {
             System.out.println("Loading geometries...");
         }
+        
+        long loadStart = System.nanoTime();
 
         ArrayDeque<Future<MeshData>> futureDatas = new ArrayDeque<>();
         MeshData[] datas = new MeshData[names.length];
@@ -62,9 +64,9 @@ public class GeometriesLoader {
                 System.out.println("Loading geometry '" + names[index] + "' with index " + index);
             }
             futureDatas.add(CompletableFuture.supplyAsync(() -> {
-                MeshData e = MeshResources.load(names[index]);
+                MeshData e = MeshCache.load(names[index]);
                 if (DEBUG_OUTPUT) {
-                    System.out.println("Finished loading geometry '" + names[index] + "' with index " + index + ": " + (e.getVertices().length / MeshData.SIZE) + " vertices, " + e.getIndices().length + " indices.");
+                    System.out.println("Finished loading geometry '" + names[index] + "' with index " + index + ": " + e.getAmountOfVertices() + " vertices, " + e.getAmountOfIndices() + " indices.");
                 }
                 return e;
             }));
@@ -92,7 +94,7 @@ public class GeometriesLoader {
         }
 
         if (DEBUG_OUTPUT) {
-            System.out.println("Finished loading geometries.");
+            System.out.println("Finished loading geometries in " + String.format("%.3f", (System.nanoTime() - loadStart) / 1E6d) + "ms.");
         }
         return datas;
     }
@@ -0,0 +1,159 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.geometry;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.resources.mesh.MeshData;
+import cientistavuador.asteroidshooter.util.ObjectCleaner;
+import java.nio.FloatBuffer;
+import org.joml.Matrix4fc;
+import static org.lwjgl.opengl.GL33C.*;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Per-instance model matrices and colors for drawing many copies of a mesh
+ * with a single instanced draw call, the layout matches the instance
+ * attributes of the GeometryProgram.
+ *
+ * @author Cien
+ */
+public class GeometryInstances {
+
+    //model (mat4), color (vec4)
+    public static final int INSTANCE_SIZE = 16 + 4;
+    public static final int INITIAL_CAPACITY = 64;
+
+    private static class InstancesState {
+
+        private final int vao;
+        private final int vbo;
+        private FloatBuffer data;
+
+        public InstancesState(int vao, int vbo, FloatBuffer data) {
+            this.vao = vao;
+            this.vbo = vbo;
+            this.data = data;
+        }
+    }
+
+    public static GeometryInstances create(MeshData mesh) {
+        int vao = glGenVertexArrays();
+        glBindVertexArray(vao);
+
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, mesh.getEBO());
+
+        glBindBuffer(GL_ARRAY_BUFFER, mesh.getVBO());
+        MeshData.vertexAttributes();
+
+        int vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, INITIAL_CAPACITY * INSTANCE_SIZE * Float.BYTES, GL_STREAM_DRAW);
+
+        //model
+        for (int i = 0; i < 4; i++) {
+            glEnableVertexAttribArray(3 + i);
+            glVertexAttribPointer(3 + i, 4, GL_FLOAT, false, INSTANCE_SIZE * Float.BYTES, (i * 4) * Float.BYTES);
+            glVertexAttribDivisor(3 + i, 1);
+        }
+
+        //color
+        glEnableVertexAttribArray(7);
+        glVertexAttribPointer(7, 4, GL_FLOAT, false, INSTANCE_SIZE * Float.BYTES, 16 * Float.BYTES);
+        glVertexAttribDivisor(7, 1);
+
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindVertexArray(0);
+
+        InstancesState state = new InstancesState(vao, vbo, MemoryUtil.memAllocFloat(INITIAL_CAPACITY * INSTANCE_SIZE));
+        GeometryInstances instances = new GeometryInstances(mesh, state);
+        ObjectCleaner.get().register(instances, () -> {
+            MemoryUtil.memFree(state.data);
+            Main.MAIN_TASKS.add(() -> {
+                glDeleteVertexArrays(state.vao);
+                glDeleteBuffers(state.vbo);
+            });
+        });
+        return instances;
+    }
+
+    private final MeshData mesh;
+    private final InstancesState state;
+    private int amountOfInstances = 0;
+
+    private GeometryInstances(MeshData mesh, InstancesState state) {
+        this.mesh = mesh;
+        this.state = state;
+    }
+
+    public MeshData getMesh() {
+        return mesh;
+    }
+
+    public int getVAO() {
+        return this.state.vao;
+    }
+
+    public int getAmountOfInstances() {
+        return amountOfInstances;
+    }
+
+    public void clear() {
+        this.amountOfInstances = 0;
+    }
+
+    public void add(Matrix4fc model, float r, float g, float b, float a) {
+        FloatBuffer data = this.state.data;
+        int offset = this.amountOfInstances * INSTANCE_SIZE;
+        if (offset + INSTANCE_SIZE > data.capacity()) {
+            data = MemoryUtil.memRealloc(data, data.capacity() * 2);
+            this.state.data = data;
+        }
+
+        model.get(offset, data);
+        data
+                .put(offset + 16, r)
+                .put(offset + 17, g)
+                .put(offset + 18, b)
+                .put(offset + 19, a);
+
+        this.amountOfInstances++;
+    }
+
+    //uploads the instances for the next instanced draw of getVAO()
+    public void upload() {
+        FloatBuffer data = this.state.data;
+        data.position(0).limit(this.amountOfInstances * INSTANCE_SIZE);
+
+        //respecifying the whole store orphans the buffer used by the previous draw
+        glBindBuffer(GL_ARRAY_BUFFER, this.state.vbo);
+        glBufferData(GL_ARRAY_BUFFER, data, GL_STREAM_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        data.clear();
+    }
+
+}
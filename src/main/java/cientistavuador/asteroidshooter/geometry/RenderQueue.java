@@ -0,0 +1,560 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.geometry;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.debug.DebugCounter;
+import cientistavuador.asteroidshooter.resources.mesh.MeshData;
+import cientistavuador.asteroidshooter.shader.BackgroundProgram;
+import cientistavuador.asteroidshooter.shader.GUIProgram;
+import cientistavuador.asteroidshooter.shader.GeometryProgram;
+import cientistavuador.asteroidshooter.text.GLFontRenderer;
+import cientistavuador.asteroidshooter.text.TextRun;
+import cientistavuador.asteroidshooter.ubo.FontTextUBO;
+import cientistavuador.asteroidshooter.ubo.UBOBindingPoints;
+import java.util.Arrays;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import static org.lwjgl.opengl.GL33C.*;
+
+/**
+ * Frame level queue of draw packets (program, mesh, texture, uniforms, pass
+ * and blend mode), the packets are sorted by a state key and drawn on flush with only
+ * the state that actually changed being sent to the driver.
+ * <p>
+ * Passes are drawn in order. Inside of the background, opaque and gui passes
+ * the packets are sorted by program, texture, layer, mesh and lighting; the
+ * blended and text passes keep the submission order. Every pass has a blend
+ * mode, the background and opaque passes are drawn with blending disabled;
+ * the alpha blending Main sets up is restored at the end of a flush.
+ * <p>
+ * Game flushes the queue once per frame, only the debug aabs are drawn after
+ * it. Matrices passed as the projection view and text runs are kept by
+ * reference and must not change until the flush, models are copied.
+ *
+ * @author Cien
+ */
+public class RenderQueue {
+
+    public static final RenderQueue INSTANCE = new RenderQueue();
+
+    public static final int INITIAL_CAPACITY = 64;
+
+    public static enum Blend {
+        NONE, ALPHA
+    }
+
+    public static enum Pass {
+        BACKGROUND(true, Blend.NONE),
+        OPAQUE(true, Blend.NONE),
+        BLENDED(false, Blend.ALPHA),
+        GUI(true, Blend.ALPHA),
+        TEXT(false, Blend.ALPHA);
+
+        private final boolean sorted;
+        private final Blend blend;
+
+        private Pass(boolean sorted, Blend blend) {
+            this.sorted = sorted;
+            this.blend = blend;
+        }
+
+        public boolean isSorted() {
+            return sorted;
+        }
+
+        public Blend getBlend() {
+            return blend;
+        }
+    }
+
+    private static final int PROGRAM_BACKGROUND = 0;
+    private static final int PROGRAM_GEOMETRY = 1;
+    private static final int PROGRAM_GUI = 2;
+    private static final int PROGRAM_TEXT = 3;
+    private static final int AMOUNT_OF_PROGRAMS = 4;
+
+    //pass (3 bits), blend (1), program (2), texture (12), layer (8), vao (10), lighting (1), sequence (26)
+    private static final int SEQUENCE_BITS = 26;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static long stateKey(Pass pass, int program, int texture, int layer, int vao, boolean lighting) {
+        long key = ((long) pass.ordinal()) << 60;
+        key |= ((long) pass.getBlend().ordinal()) << 59;
+        if (!pass.isSorted()) {
+            return key;
+        }
+        //truncated ids only make the order worse, the state is still compared in full
+        key |= ((long) program) << 57;
+        key |= ((long) (texture & 0xFFF)) << 45;
+        key |= ((long) (layer & 0xFF)) << 37;
+        key |= ((long) (vao & 0x3FF)) << 27;
+        key |= (lighting ? 1L : 0L) << SEQUENCE_BITS;
+        return key;
+    }
+
+    private static final int TEXT_BLOCK_BYTES = FontTextUBO.SIZE * FontTextUBO.NUMBER_OF_COMPONENTS * Integer.BYTES;
+
+    private int capacity = INITIAL_CAPACITY;
+    private int size = 0;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] programs = new int[INITIAL_CAPACITY];
+    private Blend[] blends = new Blend[INITIAL_CAPACITY];
+    private int[] vaos = new int[INITIAL_CAPACITY];
+    private int[] textures = new int[INITIAL_CAPACITY];
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private int[] amountOfIndices = new int[INITIAL_CAPACITY];
+    private boolean[] lightings = new boolean[INITIAL_CAPACITY];
+    //color for geometry, scale for the background, offset for text
+    private float[] colors = new float[INITIAL_CAPACITY * 4];
+    private float[] models = new float[INITIAL_CAPACITY * 16];
+    private Matrix4f[] projectionViews = new Matrix4f[INITIAL_CAPACITY];
+    private GeometryInstances[] instances = new GeometryInstances[INITIAL_CAPACITY];
+    private TextRun[] texts = new TextRun[INITIAL_CAPACITY];
+
+    private final Matrix4f model = new Matrix4f();
+
+    //current state, only valid inside of a flush
+    private Blend currentBlend;
+    private int currentProgram;
+    private int currentVao;
+    private int currentActiveTexture;
+    private final int[] currentTextures = new int[2];
+    private final boolean[] textureUnitSet = new boolean[AMOUNT_OF_PROGRAMS];
+    private final Matrix4f[] currentProjectionViews = new Matrix4f[AMOUNT_OF_PROGRAMS];
+    private final int[] currentLayers = new int[AMOUNT_OF_PROGRAMS];
+    private int currentInstanced;
+    private int currentLighting;
+    private final float[] currentColor = new float[4];
+    private final float[] currentScale = new float[2];
+    private final float[] currentTextOffset = new float[2];
+    private int currentTextBuffer;
+    private int currentTextBlock;
+    private int currentTextInstanceOffset;
+
+    private long drawCalls = 0;
+    private long stateChanges = 0;
+    private long skippedStateChanges = 0;
+
+    private RenderQueue() {
+
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getDrawCalls() {
+        return drawCalls;
+    }
+
+    public long getStateChanges() {
+        return stateChanges;
+    }
+
+    public long getSkippedStateChanges() {
+        return skippedStateChanges;
+    }
+
+    private void grow() {
+        this.capacity *= 2;
+        this.keys = Arrays.copyOf(this.keys, this.capacity);
+        this.programs = Arrays.copyOf(this.programs, this.capacity);
+        this.blends = Arrays.copyOf(this.blends, this.capacity);
+        this.vaos = Arrays.copyOf(this.vaos, this.capacity);
+        this.textures = Arrays.copyOf(this.textures, this.capacity);
+        this.layers = Arrays.copyOf(this.layers, this.capacity);
+        this.amountOfIndices = Arrays.copyOf(this.amountOfIndices, this.capacity);
+        this.lightings = Arrays.copyOf(this.lightings, this.capacity);
+        this.colors = Arrays.copyOf(this.colors, this.capacity * 4);
+        this.models = Arrays.copyOf(this.models, this.capacity * 16);
+        this.projectionViews = Arrays.copyOf(this.projectionViews, this.capacity);
+        this.instances = Arrays.copyOf(this.instances, this.capacity);
+        this.texts = Arrays.copyOf(this.texts, this.capacity);
+    }
+
+    private int push(Pass pass, int program, int vao, int texture, int layer, int indices, boolean lighting, Matrix4f projectionView) {
+        if (this.size == this.capacity) {
+            grow();
+        }
+        int i = this.size;
+        this.keys[i] = stateKey(pass, program, texture, layer, vao, lighting) | i;
+        this.programs[i] = program;
+        this.blends[i] = pass.getBlend();
+        this.vaos[i] = vao;
+        this.textures[i] = texture;
+        this.layers[i] = layer;
+        this.amountOfIndices[i] = indices;
+        this.lightings[i] = lighting;
+        this.projectionViews[i] = projectionView;
+        this.instances[i] = null;
+        this.texts[i] = null;
+        this.size++;
+        return i;
+    }
+
+    public void background(MeshData mesh, int texture, int layer, float scaleX, float scaleY) {
+        int i = push(Pass.BACKGROUND, PROGRAM_BACKGROUND, mesh.getVAO(), texture, layer, mesh.getAmountOfIndices(), false, null);
+        this.colors[(i * 4) + 0] = scaleX;
+        this.colors[(i * 4) + 1] = scaleY;
+    }
+
+    public void geometry(
+            Pass pass, MeshData mesh, int texture, int layer, boolean lighting,
+            Matrix4f projectionView, Matrix4fc model,
+            float r, float g, float b, float a
+    ) {
+        int i = push(pass, PROGRAM_GEOMETRY, mesh.getVAO(), texture, layer, mesh.getAmountOfIndices(), lighting, projectionView);
+        this.colors[(i * 4) + 0] = r;
+        this.colors[(i * 4) + 1] = g;
+        this.colors[(i * 4) + 2] = b;
+        this.colors[(i * 4) + 3] = a;
+        model.get(this.models, i * 16);
+    }
+
+    //the instances must not be cleared until the flush
+    public void geometryInstances(
+            Pass pass, GeometryInstances instances, int texture, int layer, boolean lighting,
+            Matrix4f projectionView
+    ) {
+        if (instances.getAmountOfInstances() == 0) {
+            return;
+        }
+        MeshData mesh = instances.getMesh();
+        int i = push(pass, PROGRAM_GEOMETRY, instances.getVAO(), texture, layer, mesh.getAmountOfIndices(), lighting, projectionView);
+        this.colors[(i * 4) + 0] = 1f;
+        this.colors[(i * 4) + 1] = 1f;
+        this.colors[(i * 4) + 2] = 1f;
+        this.colors[(i * 4) + 3] = 1f;
+        this.instances[i] = instances;
+    }
+
+    public void gui(MeshData mesh, int texture, int layer, Matrix4f projectionView, Matrix4fc model) {
+        int i = push(Pass.GUI, PROGRAM_GUI, mesh.getVAO(), texture, layer, mesh.getAmountOfIndices(), false, projectionView);
+        model.get(this.models, i * 16);
+    }
+
+    //the run is laid out now, the glyphs are read from its ubo on flush
+    public void text(TextRun run, float x, float y) {
+        run.validate();
+        if (run.getLength() == 0) {
+            return;
+        }
+        int i = push(Pass.TEXT, PROGRAM_TEXT, GLFontRenderer.getVAO(), run.getBatchAtlasTexture(0), 0, 0, false, null);
+        this.colors[(i * 4) + 0] = x;
+        this.colors[(i * 4) + 1] = y;
+        this.texts[i] = run;
+    }
+
+    private boolean changed(boolean changed) {
+        if (changed) {
+            this.stateChanges++;
+        } else {
+            this.skippedStateChanges++;
+        }
+        return changed;
+    }
+
+    private void invalidate() {
+        this.currentBlend = null;
+        this.currentProgram = -1;
+        this.currentVao = -1;
+        this.currentActiveTexture = -1;
+        Arrays.fill(this.currentTextures, -1);
+        for (int i = 0; i < this.textureUnitSet.length; i++) {
+            this.textureUnitSet[i] = false;
+            this.currentProjectionViews[i] = null;
+            this.currentLayers[i] = -1;
+        }
+        this.currentInstanced = -1;
+        this.currentLighting = -1;
+        Arrays.fill(this.currentColor, Float.NaN);
+        Arrays.fill(this.currentScale, Float.NaN);
+        Arrays.fill(this.currentTextOffset, Float.NaN);
+        this.currentTextBuffer = -1;
+        this.currentTextBlock = -1;
+        this.currentTextInstanceOffset = -1;
+    }
+
+    private void setBlend(Blend blend) {
+        if (!changed(blend != this.currentBlend)) {
+            return;
+        }
+        this.currentBlend = blend;
+        switch (blend) {
+            case NONE ->
+                glDisable(GL_BLEND);
+            case ALPHA -> {
+                glEnable(GL_BLEND);
+                glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+            }
+        }
+    }
+
+    private void bindTexture(int unit, int texture) {
+        if (!changed(texture != this.currentTextures[unit])) {
+            return;
+        }
+        this.currentTextures[unit] = texture;
+        if (this.currentActiveTexture != unit) {
+            this.currentActiveTexture = unit;
+            glActiveTexture(GL_TEXTURE0 + unit);
+            this.stateChanges++;
+        }
+        glBindTexture(GL_TEXTURE_2D_ARRAY, texture);
+    }
+
+    private void useProgram(int program) {
+        if (!changed(program != this.currentProgram)) {
+            return;
+        }
+        this.currentProgram = program;
+        switch (program) {
+            case PROGRAM_BACKGROUND ->
+                glUseProgram(BackgroundProgram.SHADER_PROGRAM);
+            case PROGRAM_GEOMETRY ->
+                GeometryProgram.INSTANCE.use();
+            case PROGRAM_GUI ->
+                GUIProgram.INSTANCE.use();
+            case PROGRAM_TEXT ->
+                GLFontRenderer.use();
+        }
+        if (!this.textureUnitSet[program]) {
+            this.textureUnitSet[program] = true;
+            switch (program) {
+                case PROGRAM_BACKGROUND ->
+                    BackgroundProgram.setTextureUnit(0);
+                case PROGRAM_GEOMETRY ->
+                    GeometryProgram.INSTANCE.setTextureUnit(0);
+                case PROGRAM_GUI ->
+                    GUIProgram.INSTANCE.setTextureUnit(0);
+                case PROGRAM_TEXT ->
+                    GLFontRenderer.setTextRunUniforms();
+            }
+            this.stateChanges++;
+        }
+    }
+
+    private void setProjectionView(int program, Matrix4f projectionView) {
+        Matrix4f current = this.currentProjectionViews[program];
+        if (!changed(current != projectionView && (current == null || !current.equals(projectionView)))) {
+            return;
+        }
+        this.currentProjectionViews[program] = projectionView;
+        if (program == PROGRAM_GEOMETRY) {
+            GeometryProgram.INSTANCE.setProjectionView(projectionView);
+        } else {
+            GUIProgram.INSTANCE.setProjectionView(projectionView);
+        }
+    }
+
+    private void setLayer(int program, int layer) {
+        if (!changed(layer != this.currentLayers[program])) {
+            return;
+        }
+        this.currentLayers[program] = layer;
+        switch (program) {
+            case PROGRAM_BACKGROUND ->
+                BackgroundProgram.setTextureLayer(layer);
+            case PROGRAM_GEOMETRY ->
+                GeometryProgram.INSTANCE.setTextureLayer(layer);
+            case PROGRAM_GUI ->
+                GUIProgram.INSTANCE.setTextureLayer(layer);
+        }
+    }
+
+    private void setGeometryState(int i, boolean instanced) {
+        GeometryProgram program = GeometryProgram.INSTANCE;
+
+        int instancedValue = (instanced ? 1 : 0);
+        if (changed(instancedValue != this.currentInstanced)) {
+            this.currentInstanced = instancedValue;
+            program.setInstanced(instanced);
+        }
+
+        int lightingValue = (this.lightings[i] ? 1 : 0);
+        if (changed(lightingValue != this.currentLighting)) {
+            this.currentLighting = lightingValue;
+            program.setLightingEnabled(this.lightings[i]);
+        }
+
+        int c = i * 4;
+        float r = this.colors[c + 0];
+        float g = this.colors[c + 1];
+        float b = this.colors[c + 2];
+        float a = this.colors[c + 3];
+        float[] color = this.currentColor;
+        if (changed(color[0] != r || color[1] != g || color[2] != b || color[3] != a)) {
+            color[0] = r;
+            color[1] = g;
+            color[2] = b;
+            color[3] = a;
+            program.setColor(r, g, b, a);
+        }
+    }
+
+    private void drawText(int i) {
+        TextRun run = this.texts[i];
+
+        float x = this.colors[(i * 4) + 0];
+        float y = this.colors[(i * 4) + 1];
+        if (changed(x != this.currentTextOffset[0] || y != this.currentTextOffset[1])) {
+            this.currentTextOffset[0] = x;
+            this.currentTextOffset[1] = y;
+            GLFontRenderer.setOffset(x, y);
+        }
+
+        for (int b = 0; b < run.getAmountOfBatches(); b++) {
+            int offset = run.getBatchOffset(b);
+            int end = offset + run.getBatchLength(b);
+
+            bindTexture(0, run.getBatchAtlasTexture(b));
+            bindTexture(1, run.getBatchAtlasBoundsTexture(b));
+
+            //the shader only sees FontTextUBO.SIZE glyphs at once, long runs are drawn block by block
+            while (offset < end) {
+                int block = offset / FontTextUBO.SIZE;
+                if (changed(run.getUBO() != this.currentTextBuffer || block != this.currentTextBlock)) {
+                    this.currentTextBuffer = run.getUBO();
+                    this.currentTextBlock = block;
+                    glBindBufferRange(GL_UNIFORM_BUFFER, UBOBindingPoints.TEXT_RUN, run.getUBO(), ((long) block) * TEXT_BLOCK_BYTES, TEXT_BLOCK_BYTES);
+                }
+                int blockOffset = offset % FontTextUBO.SIZE;
+                int amount = Math.min(end - offset, FontTextUBO.SIZE - blockOffset);
+
+                if (changed(blockOffset != this.currentTextInstanceOffset)) {
+                    this.currentTextInstanceOffset = blockOffset;
+                    GLFontRenderer.setInstanceOffset(blockOffset);
+                }
+
+                glDrawArraysInstanced(GL_TRIANGLES, 0, 6, amount);
+                Main.NUMBER_OF_DRAWCALLS++;
+                Main.NUMBER_OF_VERTICES += 6 * amount;
+                this.drawCalls++;
+
+                offset += amount;
+            }
+        }
+    }
+
+    public void flush() {
+        if (this.size == 0) {
+            return;
+        }
+
+        Arrays.sort(this.keys, 0, this.size);
+
+        invalidate();
+
+        for (int k = 0; k < this.size; k++) {
+            int i = (int) (this.keys[k] & SEQUENCE_MASK);
+            int program = this.programs[i];
+            GeometryInstances packetInstances = this.instances[i];
+
+            setBlend(this.blends[i]);
+            useProgram(program);
+
+            if (changed(this.vaos[i] != this.currentVao)) {
+                this.currentVao = this.vaos[i];
+                glBindVertexArray(this.currentVao);
+            }
+
+            if (program == PROGRAM_TEXT) {
+                drawText(i);
+                this.texts[i] = null;
+                continue;
+            }
+
+            bindTexture(0, this.textures[i]);
+
+            setLayer(program, this.layers[i]);
+
+            switch (program) {
+                case PROGRAM_BACKGROUND -> {
+                    float scaleX = this.colors[(i * 4) + 0];
+                    float scaleY = this.colors[(i * 4) + 1];
+                    if (changed(scaleX != this.currentScale[0] || scaleY != this.currentScale[1])) {
+                        this.currentScale[0] = scaleX;
+                        this.currentScale[1] = scaleY;
+                        BackgroundProgram.setScale(scaleX, scaleY);
+                    }
+                }
+                case PROGRAM_GEOMETRY -> {
+                    setProjectionView(program, this.projectionViews[i]);
+                    setGeometryState(i, packetInstances != null);
+                    //per draw data, not counted as state
+                    if (packetInstances == null) {
+                        GeometryProgram.INSTANCE.setModel(this.model.set(this.models, i * 16));
+                    }
+                }
+                case PROGRAM_GUI -> {
+                    setProjectionView(program, this.projectionViews[i]);
+                    GUIProgram.INSTANCE.setModel(this.model.set(this.models, i * 16));
+                }
+            }
+
+            int indices = this.amountOfIndices[i];
+            if (packetInstances != null) {
+                int amount = packetInstances.getAmountOfInstances();
+                packetInstances.upload();
+                glDrawElementsInstanced(GL_TRIANGLES, indices, GL_UNSIGNED_INT, 0, amount);
+                Main.NUMBER_OF_VERTICES += indices * amount;
+            } else {
+                glDrawElements(GL_TRIANGLES, indices, GL_UNSIGNED_INT, 0);
+                Main.NUMBER_OF_VERTICES += indices;
+            }
+            Main.NUMBER_OF_DRAWCALLS++;
+            this.drawCalls++;
+
+            this.projectionViews[i] = null;
+            this.instances[i] = null;
+        }
+
+        glBindVertexArray(0);
+        glUseProgram(0);
+        if (this.currentBlend != Blend.ALPHA) {
+            glEnable(GL_BLEND);
+            glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        }
+        if (this.currentActiveTexture != 0) {
+            glActiveTexture(GL_TEXTURE0);
+        }
+
+        this.size = 0;
+    }
+
+    public void report(DebugCounter counter) {
+        counter.setValue("render queue draw calls", this.drawCalls);
+        counter.setValue("render queue state changes", this.stateChanges);
+        counter.setValue("render queue skipped state changes", this.skippedStateChanges);
+        this.drawCalls = 0;
+        this.stateChanges = 0;
+        this.skippedStateChanges = 0;
+    }
+
+}
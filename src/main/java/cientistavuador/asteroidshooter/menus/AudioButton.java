@@ -28,13 +28,12 @@ package cientistavuador.asteroidshooter.menus;
 
 import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.geometry.Geometries;
-import cientistavuador.asteroidshooter.shader.GUIProgram;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.texture.Textures;
 import cientistavuador.asteroidshooter.util.Aab;
 import cientistavuador.asteroidshooter.util.Cursors;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import static org.lwjgl.opengl.GL33C.*;
 import static org.lwjgl.glfw.GLFW.*;
 
 /**
@@ -125,21 +124,12 @@ public class AudioButton {
             return;
         }
 
-        GUIProgram.INSTANCE.use();
-        GUIProgram.INSTANCE.setProjectionView(projectionView);
-        GUIProgram.INSTANCE.setModel(buttonModel);
-        GUIProgram.INSTANCE.setTextureUnit(0);
-
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, (this.audioEnabled ? Textures.AUDIO_ON : Textures.AUDIO_OFF));
-
-        glBindVertexArray(Geometries.GUI.getVAO());
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-        glBindVertexArray(0);
-        glUseProgram(0);
-
-        Main.NUMBER_OF_DRAWCALLS++;
-        Main.NUMBER_OF_VERTICES += Geometries.GUI.getAmountOfIndices();
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                (this.audioEnabled ? Textures.AUDIO_ON : Textures.AUDIO_OFF),
+                (this.audioEnabled ? Textures.AUDIO_ON_LAYER : Textures.AUDIO_OFF_LAYER),
+                projectionView, buttonModel
+        );
 
         if (this.debugEnabled) {
             buttonAab.queueAabRender();
@@ -156,21 +146,6 @@ public class AudioButton {
         }
 
         if (button == GLFW_MOUSE_BUTTON_LEFT && action == GLFW_PRESS) {
-            Aab mouse = new Aab() {
-                private final Vector3f min = new Vector3f(Main.MOUSE_X, Main.MOUSE_Y, 0f);
-                private final Vector3f max = min;
-
-                @Override
-                public void getMin(Vector3f min) {
-                    min.set(this.min);
-                }
-
-                @Override
-                public void getMax(Vector3f max) {
-                    max.set(this.max);
-                }
-            };
-
             if (isMouseHovering()) {
                 this.audioEnabled = !this.audioEnabled;
                 this.buttonSignal = true;
@@ -28,16 +28,17 @@ package cientistavuador.asteroidshooter.menus;
 
 import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.geometry.Geometries;
-import cientistavuador.asteroidshooter.shader.GUIProgram;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.text.GLFontRenderer;
+import cientistavuador.asteroidshooter.text.GLFontSpecification;
 import cientistavuador.asteroidshooter.text.GLFontSpecifications;
+import cientistavuador.asteroidshooter.text.TextRun;
 import cientistavuador.asteroidshooter.texture.Textures;
 import cientistavuador.asteroidshooter.util.Aab;
 import cientistavuador.asteroidshooter.util.Cursors;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import static org.lwjgl.glfw.GLFW.*;
-import static org.lwjgl.opengl.GL33C.*;
 
 /**
  *
@@ -100,6 +101,29 @@ public class ControlsMenu {
             F3 - Show/Hide Hitboxes
             """;
 
+    private static final float shadowXOffset = 0.005f;
+    private static final float shadowYOffset = -0.005f;
+
+    //shadows first, then the texts, all of them in a single draw
+    private static final String[] textsTexts = {
+        backText, controlsText,
+        backText, controlsText
+    };
+    private static final float[] textsPositions = {
+        -(backTextLineSize * 0.5f) + shadowXOffset, 0.79f + shadowYOffset,
+        -0.40f + shadowXOffset, 0.40f + shadowYOffset,
+        -(backTextLineSize * 0.5f), 0.79f,
+        -0.40f, 0.40f
+    };
+
+    private final GLFontSpecification[] textsSpecs = {
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE
+    };
+    private final TextRun textsRun = TextRun.create();
+
     private boolean enabled = true;
 
     private boolean debugEnabled = false;
@@ -148,37 +172,22 @@ public class ControlsMenu {
 
         boolean hoverBack = isMouseHoveringBackButton();
 
-        GUIProgram.INSTANCE.use();
-        GUIProgram.INSTANCE.setProjectionView(projectionView);
-        GUIProgram.INSTANCE.setTextureUnit(0);
-
-        glActiveTexture(GL_TEXTURE0);
-
-        glBindVertexArray(Geometries.GUI.getVAO());
-
-        GUIProgram.INSTANCE.setModel(ControlsMenu.controlsModel);
-        glBindTexture(GL_TEXTURE_2D, Textures.CONTROLS);
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        GUIProgram.INSTANCE.setModel(ControlsMenu.backModel);
-        glBindTexture(GL_TEXTURE_2D, (hoverBack ? Textures.BUTTON_HOVER : Textures.BUTTON));
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        Main.NUMBER_OF_DRAWCALLS += 2;
-        Main.NUMBER_OF_VERTICES += (Geometries.GUI.getAmountOfIndices() * 2);
-
-        glBindVertexArray(0);
-        glUseProgram(0);
-
-        float shadowXOffset = 0.005f;
-        float shadowYOffset = -0.005f;
-        GLFontRenderer.render(-(backTextLineSize * 0.5f) + shadowXOffset, 0.79f + shadowYOffset, GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK, backText);
-        GLFontRenderer.render(-(backTextLineSize * 0.5f), 0.79f, (hoverBack ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE), backText);
-
-        float textX = -0.40f;
-        float textY = 0.40f;
-        GLFontRenderer.render(textX + shadowXOffset, textY + shadowYOffset, GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK, controlsText);
-        GLFontRenderer.render(textX, textY, GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE, controlsText);
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                Textures.CONTROLS, Textures.CONTROLS_LAYER,
+                projectionView, ControlsMenu.controlsModel
+        );
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                (hoverBack ? Textures.BUTTON_HOVER : Textures.BUTTON),
+                (hoverBack ? Textures.BUTTON_HOVER_LAYER : Textures.BUTTON_LAYER),
+                projectionView, ControlsMenu.backModel
+        );
+
+        this.textsSpecs[2] = (hoverBack ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE);
+        this.textsRun.set(textsPositions, this.textsSpecs, textsTexts);
+
+        RenderQueue.INSTANCE.text(this.textsRun, 0f, 0f);
 
         if (this.debugEnabled) {
             backAab.queueAabRender();
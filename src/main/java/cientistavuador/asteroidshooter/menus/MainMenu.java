@@ -28,15 +28,16 @@ package cientistavuador.asteroidshooter.menus;
 
 import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.geometry.Geometries;
-import cientistavuador.asteroidshooter.shader.GUIProgram;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.text.GLFontRenderer;
+import cientistavuador.asteroidshooter.text.GLFontSpecification;
 import cientistavuador.asteroidshooter.text.GLFontSpecifications;
+import cientistavuador.asteroidshooter.text.TextRun;
 import cientistavuador.asteroidshooter.texture.Textures;
 import cientistavuador.asteroidshooter.util.Aab;
 import cientistavuador.asteroidshooter.util.Cursors;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import static org.lwjgl.opengl.GL33C.*;
 import static org.lwjgl.glfw.GLFW.*;
 
 /**
@@ -97,6 +98,33 @@ public class MainMenu {
     private static final String exitText = "EXIT";
     private static final float exitTextLineSize = GLFontRenderer.lineSize(GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE, exitText);
 
+    private static final float shadowXOffset = 0.005f;
+    private static final float shadowYOffset = -0.005f;
+
+    //shadows first, then the labels, all of them in a single draw
+    private static final String[] labelsTexts = {
+        playText, controlsText, exitText,
+        playText, controlsText, exitText
+    };
+    private static final float[] labelsPositions = {
+        -(playTextLineSize * 0.5f) + shadowXOffset, 0.19f + shadowYOffset,
+        -(controlsTextLineSize * 0.5f) + shadowXOffset, -0.051f + shadowYOffset,
+        -(exitTextLineSize * 0.5f) + shadowXOffset, -0.30f + shadowYOffset,
+        -(playTextLineSize * 0.5f), 0.19f,
+        -(controlsTextLineSize * 0.5f), -0.051f,
+        -(exitTextLineSize * 0.5f), -0.30f
+    };
+
+    private final GLFontSpecification[] labelsSpecs = {
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE,
+        GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE
+    };
+    private final TextRun labelsRun = TextRun.create();
+
     private boolean enabled = true;
 
     private boolean debugEnabled = false;
@@ -182,45 +210,36 @@ public class MainMenu {
         boolean hoverControls = isMouseHoveringControlsButton();
         boolean hoverExit = isMouseHoveringExitButton();
 
-        GUIProgram.INSTANCE.use();
-        GUIProgram.INSTANCE.setProjectionView(projectionView);
-        GUIProgram.INSTANCE.setTextureUnit(0);
-
-        glActiveTexture(GL_TEXTURE0);
-
-        glBindVertexArray(Geometries.GUI.getVAO());
-
-        GUIProgram.INSTANCE.setModel(MainMenu.titleModel);
-        glBindTexture(GL_TEXTURE_2D, Textures.TITLE);
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        GUIProgram.INSTANCE.setModel(MainMenu.playModel);
-        glBindTexture(GL_TEXTURE_2D, (hoverPlay ? Textures.BUTTON_HOVER : Textures.BUTTON));
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        GUIProgram.INSTANCE.setModel(MainMenu.controlsModel);
-        glBindTexture(GL_TEXTURE_2D, (hoverControls ? Textures.BUTTON_HOVER : Textures.BUTTON));
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        GUIProgram.INSTANCE.setModel(MainMenu.exitModel);
-        glBindTexture(GL_TEXTURE_2D, (hoverExit ? Textures.BUTTON_HOVER : Textures.BUTTON));
-        glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-        Main.NUMBER_OF_DRAWCALLS += 3;
-        Main.NUMBER_OF_VERTICES += (Geometries.GUI.getAmountOfIndices() * 3);
-
-        glBindVertexArray(0);
-        glUseProgram(0);
-
-        float shadowXOffset = 0.005f;
-        float shadowYOffset = -0.005f;
-        GLFontRenderer.render(-(playTextLineSize * 0.5f) + shadowXOffset, 0.19f + shadowYOffset, GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK, playText);
-        GLFontRenderer.render(-(controlsTextLineSize * 0.5f) + shadowXOffset, -0.051f + shadowYOffset, GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK, controlsText);
-        GLFontRenderer.render(-(exitTextLineSize * 0.5f) + shadowXOffset, -0.30f + shadowYOffset, GLFontSpecifications.TEKTUR_REGULAR_0_06_BLACK, exitText);
-
-        GLFontRenderer.render(-(playTextLineSize * 0.5f), 0.19f, (hoverPlay ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE), playText);
-        GLFontRenderer.render(-(controlsTextLineSize * 0.5f), -0.051f, (hoverControls ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE), controlsText);
-        GLFontRenderer.render(-(exitTextLineSize * 0.5f), -0.30f, (hoverExit ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE), exitText);
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                Textures.TITLE, Textures.TITLE_LAYER,
+                projectionView, MainMenu.titleModel
+        );
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                (hoverPlay ? Textures.BUTTON_HOVER : Textures.BUTTON),
+                (hoverPlay ? Textures.BUTTON_HOVER_LAYER : Textures.BUTTON_LAYER),
+                projectionView, MainMenu.playModel
+        );
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                (hoverControls ? Textures.BUTTON_HOVER : Textures.BUTTON),
+                (hoverControls ? Textures.BUTTON_HOVER_LAYER : Textures.BUTTON_LAYER),
+                projectionView, MainMenu.controlsModel
+        );
+        RenderQueue.INSTANCE.gui(
+                Geometries.GUI,
+                (hoverExit ? Textures.BUTTON_HOVER : Textures.BUTTON),
+                (hoverExit ? Textures.BUTTON_HOVER_LAYER : Textures.BUTTON_LAYER),
+                projectionView, MainMenu.exitModel
+        );
+
+        this.labelsSpecs[3] = (hoverPlay ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE);
+        this.labelsSpecs[4] = (hoverControls ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE);
+        this.labelsSpecs[5] = (hoverExit ? GLFontSpecifications.TEKTUR_REGULAR_0_06_GOLD : GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE);
+        this.labelsRun.set(labelsPositions, this.labelsSpecs, labelsTexts);
+
+        RenderQueue.INSTANCE.text(this.labelsRun, 0f, 0f);
 
         if (this.debugEnabled) {
             MainMenu.playAab.queueAabRender();
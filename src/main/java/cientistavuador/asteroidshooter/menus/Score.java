@@ -28,13 +28,13 @@ package cientistavuador.asteroidshooter.menus;
 
 import cientistavuador.asteroidshooter.asteroid.Asteroid;
 import cientistavuador.asteroidshooter.asteroid.DeathAsteroid;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.sound.Sounds;
-import cientistavuador.asteroidshooter.text.GLFontRenderer;
+import cientistavuador.asteroidshooter.sound.VoicePool;
 import cientistavuador.asteroidshooter.text.GLFontSpecification;
 import cientistavuador.asteroidshooter.text.GLFontSpecifications;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
+import cientistavuador.asteroidshooter.text.TextRun;
 import org.joml.Matrix4f;
-import static org.lwjgl.openal.AL11.*;
 
 /**
  *
@@ -45,10 +45,32 @@ public class Score {
     public static final int DEFAULT_HIGHEST_SCORE = 20000;
     public static final int BASE_SCORE = 100;
 
-    public static final GLFontSpecification SCORE_FONT = GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE.withSize(0.08f);
-    public static final GLFontSpecification HIGHEST_SCORE_FONT = GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE.withSize(0.04f);
-    public static final GLFontSpecification SCORE_FONT_BLACK = SCORE_FONT.withColor(0f, 0f, 0f, 1f);
-    public static final GLFontSpecification HIGHEST_SCORE_FONT_BLACK = HIGHEST_SCORE_FONT.withColor(0f, 0f, 0f, 1f);
+    public static class Fonts {
+
+        public static final GLFontSpecification SCORE_FONT = GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE.withSize(0.08f);
+        public static final GLFontSpecification HIGHEST_SCORE_FONT = GLFontSpecifications.TEKTUR_REGULAR_0_06_BLUISH_WHITE.withSize(0.04f);
+        public static final GLFontSpecification SCORE_FONT_BLACK = SCORE_FONT.withColor(0f, 0f, 0f, 1f);
+        public static final GLFontSpecification HIGHEST_SCORE_FONT_BLACK = HIGHEST_SCORE_FONT.withColor(0f, 0f, 0f, 1f);
+
+        //the score text is two lines tall
+        public static final float HIGHEST_SCORE_Y_OFFSET = -(SCORE_FONT.getSize() * 2f);
+        public static final float[] POSITIONS = {
+            -0.985f, -0.005f,
+            -0.985f, -0.005f + HIGHEST_SCORE_Y_OFFSET,
+            -0.99f, 0.0f,
+            -0.99f, HIGHEST_SCORE_Y_OFFSET
+        };
+        public static final GLFontSpecification[] SPECIFICATIONS = {
+            SCORE_FONT_BLACK,
+            HIGHEST_SCORE_FONT_BLACK,
+            SCORE_FONT,
+            HIGHEST_SCORE_FONT
+        };
+
+        private Fonts() {
+
+        }
+    }
 
     private int score = 0;
     private int highestScore = DEFAULT_HIGHEST_SCORE;
@@ -56,6 +78,12 @@ public class Score {
     private boolean scoreBeaten = false;
     private boolean audioEnabled = true;
 
+    //created on the first loop, the score is also used without a window
+    private TextRun run = null;
+    private int runScore = -1;
+    private int runHighestScore = -1;
+    private boolean runDefaultScoreBeaten = false;
+
     public Score() {
 
     }
@@ -100,34 +128,35 @@ public class Score {
                 this.scoreBeaten = true;
 
                 if (this.audioEnabled) {
-                    int whistle = alGenSources();
-                    alSourcei(whistle, AL_BUFFER, Sounds.PARTY_WHISTLE.getAudioBuffer());
-                    alSourcePlay(whistle);
-                    ALSourceUtil.deleteWhenStopped(whistle, null);
+                    VoicePool.play(Sounds.PARTY_WHISTLE, VoicePool.Priority.HIGH);
                 }
             }
         }
     }
 
     public void loop(Matrix4f projectionView) {
-        String[] text = {
-            "Score:\n" + this.score + "\n",
-            "Highest Score:\n" + this.highestScore + (this.defaultScoreBeaten ? "" : " (BEAT MY RECORD!)") + "\n"
-        };
-        GLFontRenderer.render(-0.985f, -0.005f,
-                new GLFontSpecification[]{
-                    SCORE_FONT_BLACK,
-                    HIGHEST_SCORE_FONT_BLACK
-                },
-                text
-        );
-        GLFontRenderer.render(-0.99f, 0.0f,
-                new GLFontSpecification[]{
-                    SCORE_FONT,
-                    HIGHEST_SCORE_FONT
-                },
-                text
-        );
+        if (this.run == null) {
+            this.run = TextRun.create();
+        }
+        
+        if (this.runScore != this.score
+                || this.runHighestScore != this.highestScore
+                || this.runDefaultScoreBeaten != this.defaultScoreBeaten) {
+            this.runScore = this.score;
+            this.runHighestScore = this.highestScore;
+            this.runDefaultScoreBeaten = this.defaultScoreBeaten;
+            
+            String scoreText = "Score:\n" + this.score + "\n";
+            String highestScoreText = "Highest Score:\n" + this.highestScore + (this.defaultScoreBeaten ? "" : " (BEAT MY RECORD!)") + "\n";
+            this.run.set(Fonts.POSITIONS, Fonts.SPECIFICATIONS, new String[]{
+                scoreText,
+                highestScoreText,
+                scoreText,
+                highestScoreText
+            });
+        }
+        
+        RenderQueue.INSTANCE.text(this.run, 0f, 0f);
     }
 
 }
@@ -26,12 +26,10 @@
  */
 package cientistavuador.asteroidshooter.menus;
 
-import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.geometry.Geometries;
-import cientistavuador.asteroidshooter.shader.GUIProgram;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.texture.Textures;
 import org.joml.Matrix4f;
-import static org.lwjgl.opengl.GL33C.*;
 
 /**
  *
@@ -49,25 +47,15 @@ public class SpaceshipLivesRender {
     
     public void loop(Matrix4f projectionView, int lives) {
         //spaceship lives
-        GUIProgram.INSTANCE.use();
-        GUIProgram.INSTANCE.setProjectionView(projectionView);
-        GUIProgram.INSTANCE.setTextureUnit(0);
-
-        glActiveTexture(GL_TEXTURE0);
-        glBindVertexArray(Geometries.GUI.getVAO());
-
         for (int i = 0; i < 3; i++) {
             setRenderMatrix(-1f + -0.1f + ((0.2f + 0.01f) * (i + 1)), 1f + -0.1f + -0.02f);
-            GUIProgram.INSTANCE.setModel(this.lifeRenderMatrix);
-            glBindTexture(GL_TEXTURE_2D, (lives <= i ? Textures.SPACESHIP_ICON_DESTROYED : Textures.SPACESHIP_ICON));
-            glDrawElements(GL_TRIANGLES, Geometries.GUI.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-
-            Main.NUMBER_OF_DRAWCALLS++;
-            Main.NUMBER_OF_VERTICES += Geometries.GUI.getAmountOfIndices();
+            RenderQueue.INSTANCE.gui(
+                    Geometries.GUI,
+                    (lives <= i ? Textures.SPACESHIP_ICON_DESTROYED : Textures.SPACESHIP_ICON),
+                    (lives <= i ? Textures.SPACESHIP_ICON_DESTROYED_LAYER : Textures.SPACESHIP_ICON_LAYER),
+                    projectionView, this.lifeRenderMatrix
+            );
         }
-
-        glBindVertexArray(0);
-        glUseProgram(0);
     }
     
     private void setRenderMatrix(float x, float y) {
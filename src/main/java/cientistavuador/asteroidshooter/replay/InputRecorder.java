@@ -0,0 +1,227 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records the input of a game session into a compact binary log that
+ * {@link InputReplay} can run again headless.
+ * <p>
+ * The log is a header (magic, version, tick rate, the seeds of both
+ * controllers and the simulation flags, see {@link #FLAG_SWEPT_COLLISION})
+ * followed by one byte per tick: the key mask in the low bits,
+ * {@link #TICK_CURSOR} when the cursor moved since the last tick (two floats
+ * follow) and {@link #TICK_EXTRA} when a byte with {@link #EXTRA_SIZE} (two
+ * ints follow), {@link #EXTRA_FROZEN} or {@link #EXTRA_END} (the final state
+ * hash follows) comes next.
+ * <p>
+ * Recording is enabled by setting the "asteroidshooter.record" system property
+ * to the directory the logs are written to.
+ *
+ * @author Cien
+ */
+public class InputRecorder {
+
+    public static final String RECORD_DIRECTORY_PROPERTY = "asteroidshooter.record";
+    public static final String EXTENSION = ".replay";
+
+    //"ASRP" in ascii
+    public static final int MAGIC = 0x41535250;
+    //version 2 added the flags, laser shots were not swept before it
+    public static final int VERSION = 2;
+
+    public static final int FLAG_SWEPT_COLLISION = 0x01;
+
+    public static final int TICK_CURSOR = 0x40;
+    public static final int TICK_EXTRA = 0x80;
+
+    public static final int EXTRA_SIZE = 0x01;
+    public static final int EXTRA_FROZEN = 0x02;
+    public static final int EXTRA_FROZEN_VALUE = 0x04;
+    public static final int EXTRA_END = 0x08;
+
+    public static Path getRecordDirectory() {
+        String directory = System.getProperty(RECORD_DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        return Path.of(directory);
+    }
+
+    public static InputRecorder create(Path file, int tickRate, long spaceshipSeed, long asteroidsSeed, int flags) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(tickRate);
+            out.writeLong(spaceshipSeed);
+            out.writeLong(asteroidsSeed);
+            out.writeInt(flags);
+            return new InputRecorder(file, out, tickRate);
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to create input recording '" + file + "'");
+            ex.printStackTrace(System.out);
+            return null;
+        }
+    }
+
+    private final Path file;
+    private final DataOutputStream out;
+    private final int flushTicks;
+
+    private boolean cursorMoved = false;
+    private float cursorX = 0f;
+    private float cursorY = 0f;
+    private int width = -1;
+    private int height = -1;
+    private boolean frozen = false;
+    private boolean frozenChanged = false;
+
+    private long ticks = 0;
+    private boolean closed = false;
+
+    private InputRecorder(Path file, DataOutputStream out, int flushTicks) {
+        this.file = file;
+        this.out = out;
+        this.flushTicks = Math.max(flushTicks, 1);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    //the spaceship stores the cursor as floats, only the last move before a tick matters
+    public void cursorMoved(double x, double y) {
+        this.cursorMoved = true;
+        this.cursorX = (float) x;
+        this.cursorY = (float) y;
+    }
+
+    public void setFrozen(boolean frozen) {
+        if (this.frozen != frozen) {
+            this.frozen = frozen;
+            this.frozenChanged = !this.frozenChanged;
+        }
+    }
+
+    private void failed(IOException ex) {
+        System.out.println("Warning: Failed to write input recording '" + this.file + "', recording stopped");
+        ex.printStackTrace(System.out);
+        this.closed = true;
+        try {
+            this.out.close();
+        } catch (IOException ignored) {
+
+        }
+    }
+
+    //called before every tick with the keys the tick is going to see
+    public void tick(int keys, int width, int height) {
+        if (this.closed) {
+            return;
+        }
+
+        int extra = 0;
+        if (width != this.width || height != this.height) {
+            extra |= EXTRA_SIZE;
+        }
+        if (this.frozenChanged) {
+            extra |= EXTRA_FROZEN;
+            if (this.frozen) {
+                extra |= EXTRA_FROZEN_VALUE;
+            }
+        }
+
+        int tick = keys & ReplayInput.KEYS_MASK;
+        if (this.cursorMoved) {
+            tick |= TICK_CURSOR;
+        }
+        if (extra != 0) {
+            tick |= TICK_EXTRA;
+        }
+
+        try {
+            this.out.writeByte(tick);
+            if (extra != 0) {
+                this.out.writeByte(extra);
+                if ((extra & EXTRA_SIZE) != 0) {
+                    this.out.writeInt(width);
+                    this.out.writeInt(height);
+                }
+            }
+            if (this.cursorMoved) {
+                this.out.writeFloat(this.cursorX);
+                this.out.writeFloat(this.cursorY);
+            }
+
+            this.ticks++;
+            if ((this.ticks % this.flushTicks) == 0) {
+                this.out.flush();
+            }
+        } catch (IOException ex) {
+            failed(ex);
+            return;
+        }
+
+        this.width = width;
+        this.height = height;
+        this.cursorMoved = false;
+        this.frozenChanged = false;
+    }
+
+    //the state hash lets the replay check that it ended in the same state
+    public void close(long stateHash) {
+        if (this.closed) {
+            return;
+        }
+        try {
+            this.out.writeByte(TICK_EXTRA);
+            this.out.writeByte(EXTRA_END);
+            this.out.writeLong(stateHash);
+            this.out.close();
+            this.closed = true;
+        } catch (IOException ex) {
+            failed(ex);
+        }
+    }
+
+}
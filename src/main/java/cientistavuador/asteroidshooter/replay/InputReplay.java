@@ -0,0 +1,171 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.replay;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.asteroid.AsteroidController;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static cientistavuador.asteroidshooter.replay.InputRecorder.*;
+
+/**
+ * Reads a log written by {@link InputRecorder} and feeds it back one tick at
+ * a time. A log cut short (the game was closed in the middle of a session)
+ * replays up to its last complete tick and has no state hash.
+ *
+ * @author Cien
+ */
+public class InputReplay {
+
+    //magic, version, tick rate, spaceship seed, asteroids seed, flags
+    public static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 4;
+
+    public static InputReplay read(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.capacity() < 8 || data.getInt(0) != MAGIC) {
+            throw new IOException("'" + file + "' is not a input recording.");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported input recording version " + data.getInt(4) + " in '" + file + "'");
+        }
+        if (data.capacity() < HEADER_SIZE) {
+            throw new IOException("'" + file + "' is not a input recording.");
+        }
+        return new InputReplay(data);
+    }
+
+    private final ByteBuffer data;
+    private final int tickRate;
+    private final long spaceshipSeed;
+    private final long asteroidsSeed;
+    private final int flags;
+
+    private long tick = 0;
+    private boolean ended = false;
+    private boolean stateHashPresent = false;
+    private long stateHash = 0;
+
+    private InputReplay(ByteBuffer data) {
+        this.data = data;
+        this.tickRate = data.getInt(8);
+        this.spaceshipSeed = data.getLong(12);
+        this.asteroidsSeed = data.getLong(20);
+        this.flags = data.getInt(28);
+        this.data.position(HEADER_SIZE);
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public long getSpaceshipSeed() {
+        return spaceshipSeed;
+    }
+
+    public long getAsteroidsSeed() {
+        return asteroidsSeed;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean isSweptCollision() {
+        return (this.flags & FLAG_SWEPT_COLLISION) != 0;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean hasStateHash() {
+        return stateHashPresent;
+    }
+
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    //applies the next tick input, returns false at the end of the log
+    public boolean next(ReplayInput input, SpaceshipController spaceship, AsteroidController asteroids) {
+        if (this.ended) {
+            return false;
+        }
+
+        int tickFlags;
+        int extra = 0;
+        int width = 0;
+        int height = 0;
+        float cursorX = 0f;
+        float cursorY = 0f;
+        try {
+            tickFlags = Byte.toUnsignedInt(this.data.get());
+            if ((tickFlags & TICK_EXTRA) != 0) {
+                extra = Byte.toUnsignedInt(this.data.get());
+                if ((extra & EXTRA_END) != 0) {
+                    this.stateHash = this.data.getLong();
+                    this.stateHashPresent = true;
+                    this.ended = true;
+                    return false;
+                }
+                if ((extra & EXTRA_SIZE) != 0) {
+                    width = this.data.getInt();
+                    height = this.data.getInt();
+                }
+            }
+            if ((tickFlags & TICK_CURSOR) != 0) {
+                cursorX = this.data.getFloat();
+                cursorY = this.data.getFloat();
+            }
+        } catch (BufferUnderflowException ex) {
+            this.ended = true;
+            return false;
+        }
+
+        if ((extra & EXTRA_SIZE) != 0) {
+            Main.WIDTH = width;
+            Main.HEIGHT = height;
+        }
+        if ((extra & EXTRA_FROZEN) != 0) {
+            boolean frozen = (extra & EXTRA_FROZEN_VALUE) != 0;
+            spaceship.setFrozen(frozen);
+            asteroids.setFrozen(frozen);
+        }
+        if ((tickFlags & TICK_CURSOR) != 0) {
+            spaceship.mouseCursorMoved(cursorX, cursorY);
+        }
+        input.setKeys(tickFlags);
+
+        this.tick++;
+        return true;
+    }
+
+}
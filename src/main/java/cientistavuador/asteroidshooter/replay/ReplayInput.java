@@ -0,0 +1,80 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.replay;
+
+import cientistavuador.asteroidshooter.spaceship.SpaceshipInput;
+import static org.lwjgl.glfw.GLFW.*;
+
+/**
+ * Spaceship input backed by a bit mask of the gameplay keys, the keys are
+ * sampled once before every tick so the tick sees exactly what gets recorded.
+ *
+ * @author Cien
+ */
+public class ReplayInput implements SpaceshipInput {
+
+    //bit i of the mask is KEYS[i]
+    public static final int[] KEYS = {
+        GLFW_KEY_W, GLFW_KEY_A, GLFW_KEY_S, GLFW_KEY_D, GLFW_KEY_SPACE, GLFW_KEY_R
+    };
+    public static final int KEYS_MASK = (1 << KEYS.length) - 1;
+
+    public static int poll(SpaceshipInput source) {
+        int keys = 0;
+        for (int i = 0; i < KEYS.length; i++) {
+            if (source.isKeyPressed(KEYS[i])) {
+                keys |= (1 << i);
+            }
+        }
+        return keys;
+    }
+
+    private int keys = 0;
+
+    public ReplayInput() {
+
+    }
+
+    public int getKeys() {
+        return keys;
+    }
+
+    public void setKeys(int keys) {
+        this.keys = keys & KEYS_MASK;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i] == key) {
+                return (this.keys & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+}
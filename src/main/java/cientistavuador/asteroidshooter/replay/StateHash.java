@@ -0,0 +1,91 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.replay;
+
+import cientistavuador.asteroidshooter.asteroid.Asteroid;
+import cientistavuador.asteroidshooter.asteroid.AsteroidController;
+import cientistavuador.asteroidshooter.spaceship.LaserShot;
+import cientistavuador.asteroidshooter.spaceship.SpaceshipController;
+import java.util.List;
+import org.joml.Vector3fc;
+
+/**
+ * Hash of the simulation state, two runs with the same seeds and inputs must
+ * end with the same hash.
+ *
+ * @author Cien
+ */
+public class StateHash {
+
+    private static final long PRIME = 0x100000001B3L;
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * PRIME;
+    }
+
+    private static long mix(long hash, Vector3fc v) {
+        hash = mix(hash, Float.floatToRawIntBits(v.x()));
+        hash = mix(hash, Float.floatToRawIntBits(v.y()));
+        return mix(hash, Float.floatToRawIntBits(v.z()));
+    }
+
+    public static long hash(SpaceshipController spaceship, AsteroidController asteroids) {
+        long hash = 0xCBF29CE484222325L;
+
+        hash = mix(hash, spaceship.getScore().getScore());
+        hash = mix(hash, spaceship.getLives());
+        hash = mix(hash, spaceship.isGameOver() ? 1 : 0);
+        hash = mix(hash, spaceship.isSpaceshipAlive() ? 1 : 0);
+        if (spaceship.isSpaceshipAlive()) {
+            hash = mix(hash, spaceship.getSpaceship().getPosition());
+        }
+
+        List<LaserShot> shots = spaceship.getLaserShots();
+        hash = mix(hash, shots.size());
+        for (int i = 0; i < shots.size(); i++) {
+            hash = mix(hash, shots.get(i).getPosition());
+        }
+
+        List<Asteroid> list = asteroids.getAsteroids();
+        hash = mix(hash, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            Asteroid a = list.get(i);
+            hash = mix(hash, a.getPosition());
+            hash = mix(hash, Float.floatToRawIntBits(a.getHealth()));
+        }
+
+        hash = mix(hash, spaceship.getSpaceshipDebris().size());
+        hash = mix(hash, asteroids.getAsteroidsDebris().size());
+
+        return hash;
+    }
+
+    private StateHash() {
+
+    }
+
+}
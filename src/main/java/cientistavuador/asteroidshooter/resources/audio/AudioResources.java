@@ -45,6 +45,11 @@ import static org.lwjgl.system.MemoryUtil.memFree;
 public class AudioResources {
     
     public static NativeAudio load(String name) {
+        return load(name, Integer.MAX_VALUE);
+    }
+    
+    //files larger than the threshold are kept compressed and streamed while playing
+    public static NativeAudio load(String name, int streamingThreshold) {
         URL url = AudioResources.getAudioURL(name);
 
         if (url == null) {
@@ -58,6 +63,7 @@ public class AudioResources {
             InputStream in = conn.getInputStream();
 
             ByteBuffer audioFile = memAlloc(conn.getContentLength());
+            boolean streamed = false;
             try {
 
                 byte[] buffer = new byte[4096];
@@ -69,6 +75,12 @@ public class AudioResources {
 
                 audioFile.flip();
 
+                if (audioFile.capacity() > streamingThreshold) {
+                    NativeAudio audio = new NativeAudio(new AudioStream(name, audioFile));
+                    streamed = true;
+                    return audio;
+                }
+                
                 NativeAudio audio;
                 
                 try (MemoryStack stack = MemoryStack.stackPush()) {
@@ -85,7 +97,9 @@ public class AudioResources {
                 
                 return audio;
             } finally {
-                memFree(audioFile);
+                if (!streamed) {
+                    memFree(audioFile);
+                }
             }
 
         } catch (IOException ex) {
@@ -0,0 +1,113 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.resources.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+import org.lwjgl.stb.STBVorbisInfo;
+import static org.lwjgl.stb.STBVorbis.*;
+
+/**
+ * compressed vorbis file kept in memory and decoded on demand, must be
+ * manually freed
+ *
+ * @author Cien
+ */
+public class AudioStream {
+
+    private final String name;
+    private final ByteBuffer file;
+    private final int channels;
+    private final int sampleRate;
+    private final float duration;
+
+    private boolean freed = false;
+
+    protected AudioStream(String name, ByteBuffer file) {
+        this.name = name;
+        this.file = file;
+
+        long decoder = openDecoder();
+        try {
+            this.duration = stb_vorbis_stream_length_in_seconds(decoder);
+            try (STBVorbisInfo info = STBVorbisInfo.malloc()) {
+                stb_vorbis_get_info(decoder, info);
+                this.channels = info.channels();
+                this.sampleRate = info.sample_rate();
+            }
+        } finally {
+            stb_vorbis_close(decoder);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public float getDuration() {
+        return duration;
+    }
+
+    public int getFileSize() {
+        return this.file.capacity();
+    }
+
+    //every decoder reads from the same memory, must be closed with stb_vorbis_close
+    public long openDecoder() {
+        throwExceptionIfFreed();
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer error = stack.callocInt(1);
+            long decoder = stb_vorbis_open_memory(this.file, error, null);
+            if (decoder == MemoryUtil.NULL) {
+                throw new RuntimeException("Could not open '" + this.name + "', error " + error.get(0));
+            }
+            return decoder;
+        }
+    }
+
+    private void throwExceptionIfFreed() {
+        if (this.freed) {
+            throw new RuntimeException("Stream is already freed!");
+        }
+    }
+
+    public void free() {
+        throwExceptionIfFreed();
+        MemoryUtil.memFree(this.file);
+        this.freed = true;
+    }
+}
@@ -37,6 +37,7 @@ import static org.lwjgl.openal.AL11.*;
 public class NativeAudio {
     
     private final ShortBuffer data;
+    private final AudioStream stream;
     private final int channels;
     private final int sampleRate;
     private final float duration;
@@ -46,10 +47,29 @@ public class NativeAudio {
     
     protected NativeAudio(ShortBuffer data, int channels, int sampleRate) {
         this.data = data;
+        this.stream = null;
         this.channels = channels;
         this.sampleRate = sampleRate;
         this.duration = (data.capacity() / ((float)channels)) / sampleRate;
     }
+    
+    protected NativeAudio(AudioStream stream) {
+        this.data = null;
+        this.stream = stream;
+        this.channels = stream.getChannels();
+        this.sampleRate = stream.getSampleRate();
+        this.duration = stream.getDuration();
+    }
+    
+    //streamed audio has no decoded data or audio buffer, it is decoded while playing
+    public boolean isStreamed() {
+        return this.stream != null;
+    }
+
+    public AudioStream getStream() {
+        throwExceptionIfFreed();
+        return stream;
+    }
 
     public ShortBuffer getData() {
         throwExceptionIfFreed();
@@ -77,6 +97,9 @@ public class NativeAudio {
     
     public int getAudioBuffer() {
         throwExceptionIfFreed();
+        if (this.stream != null) {
+            throw new IllegalStateException("Streamed audio has no audio buffer.");
+        }
         if (this.audioBuffer == 0) {
             this.audioBuffer = alGenBuffers();
             if (this.channels == 1) {
@@ -104,7 +127,11 @@ public class NativeAudio {
     public void free() {
         throwExceptionIfFreed();
         deleteAudioBuffer();
-        MemoryUtil.memFree(this.data);
+        if (this.stream != null) {
+            this.stream.free();
+        } else {
+            MemoryUtil.memFree(this.data);
+        }
         this.freed = true;
     }
 }
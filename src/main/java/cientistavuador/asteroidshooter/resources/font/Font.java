@@ -27,8 +27,7 @@
 package cientistavuador.asteroidshooter.resources.font;
 
 import cientistavuador.asteroidshooter.resources.image.NativeImage;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * native image must be freed
@@ -40,18 +39,55 @@ public class Font {
     
     private final NativeImage atlasImage;
     private final FontCharacter[] characters;
-    private final Map<Integer, Integer> unicodeToIndexMap = new HashMap<>();
     private final int unknownCharacterIndex;
+    
+    //dense table up to the highest basic multilingual plane code point, -1 if missing
+    private final int[] bmpIndices;
+    
+    //open addressing table for code points outside of the dense table, -1 keys are empty
+    private final int[] otherKeys;
+    private final int[] otherIndices;
+    private final int otherMask;
 
     protected Font(String name, NativeImage atlasImage, FontCharacter[] characters, int unknownCharacterUnicode) {
         this.name = name;
         this.atlasImage = atlasImage;
         this.characters = characters;
         
+        int highestBmp = -1;
+        int amountOfOthers = 0;
+        for (FontCharacter c : this.characters) {
+            int unicode = c.getUnicode();
+            if (unicode >= 0 && unicode <= Character.MAX_VALUE) {
+                highestBmp = Math.max(highestBmp, unicode);
+            } else {
+                amountOfOthers++;
+            }
+        }
+        
+        this.bmpIndices = new int[highestBmp + 1];
+        Arrays.fill(this.bmpIndices, -1);
+        
+        int capacity = Integer.highestOneBit(Math.max(amountOfOthers * 2, 1) * 2 - 1);
+        this.otherKeys = new int[capacity];
+        this.otherIndices = new int[capacity];
+        this.otherMask = capacity - 1;
+        Arrays.fill(this.otherKeys, -1);
+        
         int unknownCharacterUnicodeIndex = 0;
         for (int i = 0; i < this.characters.length; i++) {
-            unicodeToIndexMap.put(this.characters[i].getUnicode(), i);
-            if (this.characters[i].getUnicode() == unknownCharacterUnicode) {
+            int unicode = this.characters[i].getUnicode();
+            if (unicode >= 0 && unicode <= Character.MAX_VALUE) {
+                this.bmpIndices[unicode] = i;
+            } else if (unicode != -1) {
+                int slot = hash(unicode) & this.otherMask;
+                while (this.otherKeys[slot] != -1 && this.otherKeys[slot] != unicode) {
+                    slot = (slot + 1) & this.otherMask;
+                }
+                this.otherKeys[slot] = unicode;
+                this.otherIndices[slot] = i;
+            }
+            if (unicode == unknownCharacterUnicode) {
                 unknownCharacterUnicodeIndex = i;
             }
         }
@@ -75,12 +111,32 @@ public class Font {
         return this.characters[index];
     }
     
+    private static int hash(int unicode) {
+        int h = unicode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
     public int getIndexOfUnicode(int unicode) {
-        Integer index = this.unicodeToIndexMap.get(unicode);
-        if (index == null) {
+        if (unicode >= 0 && unicode < this.bmpIndices.length) {
+            int index = this.bmpIndices[unicode];
+            if (index == -1) {
+                return this.unknownCharacterIndex;
+            }
+            return index;
+        }
+        if (unicode >= 0 && unicode <= Character.MAX_VALUE) {
             return this.unknownCharacterIndex;
         }
-        return index;
+        
+        int slot = hash(unicode) & this.otherMask;
+        int key;
+        while ((key = this.otherKeys[slot]) != -1) {
+            if (key == unicode) {
+                return this.otherIndices[slot];
+            }
+            slot = (slot + 1) & this.otherMask;
+        }
+        return this.unknownCharacterIndex;
     }
 
     public int getUnknownCharacterIndex() {
@@ -0,0 +1,259 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.resources.font;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random access reader for font zip packages, the central directory is read
+ * once into an index and each entry is inflated on its own, so different
+ * threads can read different entries at the same time. Packages on disk are
+ * memory mapped.
+ *
+ * @author Cien
+ */
+public class FontPackage {
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054B50;
+    private static final int CENTRAL_DIRECTORY_ENTRY = 0x02014B50;
+    private static final int LOCAL_FILE_HEADER = 0x04034B50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static class Entry {
+
+        private final String name;
+        private final int method;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        public Entry(String name, int method, int compressedSize, int size, int localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    public static FontPackage open(String name) {
+        URL url = FontResources.getFontURL(name);
+        if (url == null) {
+            throw new RuntimeException("Font '" + name + "' not found.");
+        }
+
+        try {
+            ByteBuffer data;
+            if (url.getProtocol().equals("file")) {
+                try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                byte[] bytes;
+                try (InputStream stream = url.openStream()) {
+                    bytes = stream.readAllBytes();
+                }
+                data = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            }
+            return new FontPackage(name, data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (URISyntaxException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private final String name;
+    private final ByteBuffer data;
+    private final Map<String, Entry> entries;
+
+    public FontPackage(String name, ByteBuffer data) {
+        this.name = name;
+        this.data = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.entries = Collections.unmodifiableMap(readCentralDirectory());
+    }
+
+    private RuntimeException corrupted(String reason) {
+        return new RuntimeException("Font package '" + this.name + "' is invalid or corrupted: " + reason);
+    }
+
+    private Map<String, Entry> readCentralDirectory() {
+        ByteBuffer d = this.data;
+
+        int end = -1;
+        int minimum = Math.max(0, d.capacity() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+        for (int i = d.capacity() - END_OF_CENTRAL_DIRECTORY_SIZE; i >= minimum; i--) {
+            if (d.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+                end = i;
+                break;
+            }
+        }
+        if (end == -1) {
+            throw corrupted("end of central directory not found");
+        }
+
+        int amountOfEntries = Short.toUnsignedInt(d.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(d.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(d.getInt(end + 16));
+        if (directoryOffset + directorySize > end) {
+            throw corrupted("central directory out of bounds");
+        }
+
+        Map<String, Entry> index = new HashMap<>(amountOfEntries * 2);
+        int offset = (int) directoryOffset;
+        for (int i = 0; i < amountOfEntries; i++) {
+            if (offset + 46 > end || d.getInt(offset) != CENTRAL_DIRECTORY_ENTRY) {
+                throw corrupted("central directory entry " + i + " is invalid");
+            }
+            int method = Short.toUnsignedInt(d.getShort(offset + 10));
+            long compressedSize = Integer.toUnsignedLong(d.getInt(offset + 20));
+            long size = Integer.toUnsignedLong(d.getInt(offset + 24));
+            int nameLength = Short.toUnsignedInt(d.getShort(offset + 28));
+            int extraLength = Short.toUnsignedInt(d.getShort(offset + 30));
+            int commentLength = Short.toUnsignedInt(d.getShort(offset + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(d.getInt(offset + 42));
+
+            if (compressedSize > Integer.MAX_VALUE || size > Integer.MAX_VALUE || localHeaderOffset >= directoryOffset) {
+                throw corrupted("zip64 entries are not supported");
+            }
+
+            byte[] nameBytes = new byte[nameLength];
+            d.get(offset + 46, nameBytes);
+            String entryName = new String(nameBytes, StandardCharsets.UTF_8);
+
+            index.put(entryName, new Entry(entryName, method, (int) compressedSize, (int) size, (int) localHeaderOffset));
+
+            offset += 46 + nameLength + extraLength + commentLength;
+        }
+
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<String> getEntryNames() {
+        return this.entries.keySet();
+    }
+
+    public boolean hasEntry(String entryName) {
+        return this.entries.containsKey(entryName);
+    }
+
+    public int getEntrySize(String entryName) {
+        return getIndexEntry(entryName).size;
+    }
+
+    private Entry getIndexEntry(String entryName) {
+        Entry e = this.entries.get(entryName);
+        if (e == null) {
+            throw new RuntimeException("Font entry '" + this.name + "/" + entryName + "' not found.");
+        }
+        return e;
+    }
+
+    /**
+     * Returns the uncompressed contents of a entry as a direct buffer, stored
+     * entries are slices of the package and are not copied. Safe to call from
+     * multiple threads.
+     *
+     * @param entryName the entry name
+     * @return a direct buffer
+     */
+    public ByteBuffer getEntry(String entryName) {
+        Entry e = getIndexEntry(entryName);
+        ByteBuffer d = this.data;
+
+        int local = e.localHeaderOffset;
+        if (local + 30 > d.capacity() || d.getInt(local) != LOCAL_FILE_HEADER) {
+            throw corrupted("local header of '" + e.name + "' is invalid");
+        }
+        int nameLength = Short.toUnsignedInt(d.getShort(local + 26));
+        int extraLength = Short.toUnsignedInt(d.getShort(local + 28));
+        int dataOffset = local + 30 + nameLength + extraLength;
+        if (((long) dataOffset) + e.compressedSize > d.capacity()) {
+            throw corrupted("data of '" + e.name + "' out of bounds");
+        }
+
+        ByteBuffer compressed = d.slice(dataOffset, e.compressedSize);
+
+        switch (e.method) {
+            case STORED -> {
+                return compressed;
+            }
+            case DEFLATED -> {
+                ByteBuffer output = ByteBuffer.allocateDirect(e.size);
+                Inflater inflater = new Inflater(true);
+                try {
+                    inflater.setInput(compressed);
+                    while (output.hasRemaining() && !inflater.finished()) {
+                        if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            break;
+                        }
+                    }
+                } catch (DataFormatException ex) {
+                    throw corrupted("data of '" + e.name + "' could not be inflated, " + ex.getMessage());
+                } finally {
+                    inflater.end();
+                }
+                if (output.hasRemaining()) {
+                    throw corrupted("data of '" + e.name + "' is truncated");
+                }
+                return output.flip();
+            }
+            default ->
+                throw corrupted("compression method " + e.method + " of '" + e.name + "' is not supported");
+        }
+    }
+
+    public String getEntryAsString(String entryName) {
+        return StandardCharsets.UTF_8.decode(getEntry(entryName)).toString();
+    }
+
+}
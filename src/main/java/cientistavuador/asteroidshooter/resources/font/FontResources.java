@@ -28,21 +28,13 @@ package cientistavuador.asteroidshooter.resources.font;
 
 import cientistavuador.asteroidshooter.resources.image.ImageResources;
 import cientistavuador.asteroidshooter.resources.image.NativeImage;
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UncheckedIOException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.regex.Pattern;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
  *
@@ -51,104 +43,28 @@ import java.util.zip.ZipInputStream;
 public class FontResources {
 
     public static Font load(String name) {
+        //central directory is read once, each task only inflates its own entry
+        FontPackage fontPackage = FontPackage.open(name);
+        
         Future<NativeImage> futureAtlasImage = CompletableFuture.supplyAsync(() -> {
-            InputStream fontStream = getFontStream(name);
-            if (fontStream == null) {
-                throw new RuntimeException("Font '" + name + "' not found.");
-            }
-            try {
-                try (ZipInputStream zipStream = new ZipInputStream(fontStream, StandardCharsets.UTF_8)) {
-                    ZipEntry e;
-                    while ((e = zipStream.getNextEntry()) != null) {
-                        if (e.getName().equals("atlas.png")) {
-                            return ImageResources.load(name+"/atlas.png", zipStream, (int) e.getSize(), 4);
-                        }
-                    }
-                    throw new RuntimeException("Font Atlas '" + name + "/atlas.png' not found.");
-                }
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
+            if (!fontPackage.hasEntry("atlas.png")) {
+                throw new RuntimeException("Font Atlas '" + name + "/atlas.png' not found.");
             }
+            return ImageResources.decode(name+"/atlas.png", fontPackage.getEntry("atlas.png"), 4);
         });
 
         Future<Integer> futureUnknownCharacter = CompletableFuture.supplyAsync(() -> {
-            InputStream fontStream = getFontStream(name);
-            if (fontStream == null) {
-                throw new RuntimeException("Font '" + name + "' not found.");
-            }
-            try {
-                try (ZipInputStream zipStream = new ZipInputStream(fontStream, StandardCharsets.UTF_8)) {
-                    ZipEntry e;
-                    while ((e = zipStream.getNextEntry()) != null) {
-                        if (e.getName().equals("unknown.txt")) {
-                            String unknownText;
-                            try (BufferedReader reader = new BufferedReader(new InputStreamReader(zipStream, StandardCharsets.UTF_8))) {
-                                unknownText = reader.readLine();
-                            }
-                            if (unknownText.length() == 0) {
-                                throw new RuntimeException("Font Unknown Character '" + name + "/unknown.txt' is empty.");
-                            }
-                            return unknownText.codePointAt(0);
-                        }
-                    }
-                    throw new RuntimeException("Font Unknown Character '" + name + "/unknown.txt' not found.");
-                }
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
+            if (!fontPackage.hasEntry("unknown.txt")) {
+                throw new RuntimeException("Font Unknown Character '" + name + "/unknown.txt' not found.");
             }
+            return parseUnknownCharacter(name, fontPackage.getEntryAsString("unknown.txt"));
         });
 
         Future<FontCharacter[]> futureFontCharacters = CompletableFuture.supplyAsync(() -> {
-            InputStream fontStream = getFontStream(name);
-            if (fontStream == null) {
-                throw new RuntimeException("Font '" + name + "' not found.");
-            }
-            try {
-                try (ZipInputStream zipStream = new ZipInputStream(fontStream, StandardCharsets.UTF_8)) {
-                    ZipEntry e;
-                    while ((e = zipStream.getNextEntry()) != null) {
-                        if (e.getName().equals("metrics.csv")) {
-                            List<String> lines = new ArrayList<>();
-                            try (BufferedReader reader = new BufferedReader(new InputStreamReader(zipStream, StandardCharsets.UTF_8))) {
-                                String s;
-                                while ((s = reader.readLine()) != null) {
-                                    lines.add(s);
-                                }
-                            }
-
-                            FontCharacter[] characters = new FontCharacter[lines.size()];
-
-                            int index = 0;
-                            for (String line : lines) {
-                                String[] split = line.split(Pattern.quote(","));
-
-                                if (split.length != 10) {
-                                    throw new RuntimeException("Font Metrics is invalid or corrupted.");
-                                }
-
-                                int unicodePoint = Integer.parseInt(split[0]);
-                                float advance = Float.parseFloat(split[1]);
-                                float planeBoundsLeft = Float.parseFloat(split[2]);
-                                float planeBoundsBottom = Float.parseFloat(split[3]);
-                                float planeBoundsRight = Float.parseFloat(split[4]);
-                                float planeBoundsTop = Float.parseFloat(split[5]);
-                                float atlasBoundsLeft = Float.parseFloat(split[6]);
-                                float atlasBoundsBottom = Float.parseFloat(split[7]);
-                                float atlasBoundsRight = Float.parseFloat(split[8]);
-                                float atlasBoundsTop = Float.parseFloat(split[9]);
-                                
-                                characters[index] = new FontCharacter(unicodePoint, advance, planeBoundsLeft, planeBoundsBottom, planeBoundsRight, planeBoundsTop, atlasBoundsLeft, atlasBoundsBottom, atlasBoundsRight, atlasBoundsTop);
-                                index++;
-                            }
-
-                            return characters;
-                        }
-                    }
-                    throw new RuntimeException("Font Metrics '" + name + "/metrics.csv' not found.");
-                }
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
+            if (!fontPackage.hasEntry("metrics.csv")) {
+                throw new RuntimeException("Font Metrics '" + name + "/metrics.csv' not found.");
             }
+            return parseMetrics(fontPackage.getEntryAsString("metrics.csv"));
         });
         
         NativeImage image;
@@ -177,6 +93,46 @@ public class FontResources {
         return new Font(name, image, characters, unknownCharacter);
     }
 
+    //the text parts of a font need no native code, benchmarks build fonts from them without an atlas
+    static int parseUnknownCharacter(String name, String unknown) {
+        String unknownText = unknown.lines().findFirst().orElse("");
+        if (unknownText.length() == 0) {
+            throw new RuntimeException("Font Unknown Character '" + name + "/unknown.txt' is empty.");
+        }
+        return unknownText.codePointAt(0);
+    }
+
+    static FontCharacter[] parseMetrics(String metrics) {
+        List<String> lines = metrics.lines().toList();
+
+        FontCharacter[] characters = new FontCharacter[lines.size()];
+
+        int index = 0;
+        for (String line : lines) {
+            String[] split = line.split(Pattern.quote(","));
+
+            if (split.length != 10) {
+                throw new RuntimeException("Font Metrics is invalid or corrupted.");
+            }
+
+            int unicodePoint = Integer.parseInt(split[0]);
+            float advance = Float.parseFloat(split[1]);
+            float planeBoundsLeft = Float.parseFloat(split[2]);
+            float planeBoundsBottom = Float.parseFloat(split[3]);
+            float planeBoundsRight = Float.parseFloat(split[4]);
+            float planeBoundsTop = Float.parseFloat(split[5]);
+            float atlasBoundsLeft = Float.parseFloat(split[6]);
+            float atlasBoundsBottom = Float.parseFloat(split[7]);
+            float atlasBoundsRight = Float.parseFloat(split[8]);
+            float atlasBoundsTop = Float.parseFloat(split[9]);
+
+            characters[index] = new FontCharacter(unicodePoint, advance, planeBoundsLeft, planeBoundsBottom, planeBoundsRight, planeBoundsTop, atlasBoundsLeft, atlasBoundsBottom, atlasBoundsRight, atlasBoundsTop);
+            index++;
+        }
+
+        return characters;
+    }
+
     public static InputStream getFontStream(String name) {
         return FontResources.class.getResourceAsStream(name);
     }
@@ -51,6 +51,30 @@ public class ImageResources {
      * @return a native image that must be manually freed
      */
     public static NativeImage load(String name, int desiredChannels) {
+        ByteBuffer imageFile = read(name);
+        try {
+            return decode(name, imageFile, desiredChannels);
+        } finally {
+            memFree(imageFile);
+        }
+    }
+
+    public static NativeImage load(String name, InputStream stream, int size, int desiredChannels) {
+        ByteBuffer imageFile = read(stream, size);
+        try {
+            return decode(name, imageFile, desiredChannels);
+        } finally {
+            memFree(imageFile);
+        }
+    }
+
+    /**
+     * Reads a image file into native memory
+     *
+     * @param name the resource name
+     * @return the file, must be freed with memFree
+     */
+    public static ByteBuffer read(String name) {
         URL url = ImageResources.getImageURL(name);
 
         if (url == null) {
@@ -62,66 +86,91 @@ public class ImageResources {
             conn.connect();
 
             try (InputStream in = conn.getInputStream()) {
-                return load(name, in, conn.getContentLength(), desiredChannels);
+                return read(in, conn.getContentLength());
             }
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
     }
 
-    public static NativeImage load(String name, InputStream stream, int size, int desiredChannels) {
+    private static ByteBuffer read(InputStream stream, int size) {
         ByteBuffer imageFile = memAlloc(size);
         try {
             byte[] buffer = new byte[4096];
 
-            try {
-                int r;
-                while ((r = stream.read(buffer)) != -1) {
-                    imageFile.put(buffer, 0, r);
-                }
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
+            int r;
+            while ((r = stream.read(buffer)) != -1) {
+                imageFile.put(buffer, 0, r);
             }
 
             imageFile.flip();
+            return imageFile;
+        } catch (IOException ex) {
+            memFree(imageFile);
+            throw new UncheckedIOException(ex);
+        }
+    }
 
-            NativeImage image;
-
-            try (MemoryStack stack = MemoryStack.stackPush()) {
-                IntBuffer widthBuffer = stack.callocInt(1);
-                IntBuffer heightBuffer = stack.callocInt(1);
-                IntBuffer channels = stack.callocInt(1);
-
-                stbi_set_flip_vertically_on_load_thread(1);
-
-                ByteBuffer imageData = stbi_load_from_memory(
-                        imageFile,
-                        widthBuffer,
-                        heightBuffer,
-                        channels,
-                        desiredChannels
-                );
-
-                if (imageData == null) {
-                    throw new NullPointerException("Failed to load '" + name + "': " + stbi_failure_reason());
-                }
-
-                int resultChannels = channels.get();
-                if (desiredChannels != 0) {
-                    resultChannels = desiredChannels;
-                }
-
-                image = new NativeImage(
-                        imageData,
-                        widthBuffer.get(),
-                        heightBuffer.get(),
-                        resultChannels
-                );
+    /**
+     * Reads the dimensions of a image file without decoding it
+     *
+     * @param name the resource name, used in error messages
+     * @param imageFile the image file
+     * @return width and height
+     */
+    public static int[] size(String name, ByteBuffer imageFile) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer widthBuffer = stack.callocInt(1);
+            IntBuffer heightBuffer = stack.callocInt(1);
+            IntBuffer channels = stack.callocInt(1);
+
+            if (!stbi_info_from_memory(imageFile, widthBuffer, heightBuffer, channels)) {
+                throw new NullPointerException("Failed to read '" + name + "': " + stbi_failure_reason());
             }
 
-            return image;
-        } finally {
-            memFree(imageFile);
+            return new int[]{widthBuffer.get(), heightBuffer.get()};
+        }
+    }
+
+    /**
+     * Decodes a image file, the file is not freed
+     *
+     * @param name the resource name, used in error messages
+     * @param imageFile the image file
+     * @param desiredChannels desired number of channels (0 1 2 3 4)
+     * @return a native image that must be manually freed
+     */
+    public static NativeImage decode(String name, ByteBuffer imageFile, int desiredChannels) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer widthBuffer = stack.callocInt(1);
+            IntBuffer heightBuffer = stack.callocInt(1);
+            IntBuffer channels = stack.callocInt(1);
+
+            stbi_set_flip_vertically_on_load_thread(1);
+
+            ByteBuffer imageData = stbi_load_from_memory(
+                    imageFile,
+                    widthBuffer,
+                    heightBuffer,
+                    channels,
+                    desiredChannels
+            );
+
+            if (imageData == null) {
+                throw new NullPointerException("Failed to load '" + name + "': " + stbi_failure_reason());
+            }
+
+            int resultChannels = channels.get();
+            if (desiredChannels != 0) {
+                resultChannels = desiredChannels;
+            }
+
+            return new NativeImage(
+                    imageData,
+                    widthBuffer.get(),
+                    heightBuffer.get(),
+                    resultChannels
+            );
         }
     }
 
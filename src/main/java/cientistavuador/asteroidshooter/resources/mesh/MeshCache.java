@@ -0,0 +1,201 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.resources.mesh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache for parsed obj meshes, a header followed by the interleaved
+ * vertices and the indices in native byte order. Cached files are memory
+ * mapped and used as they are; they are regenerated when the obj file
+ * changes or the checksum does not match.
+ *
+ * @author Cien
+ */
+public class MeshCache {
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "asteroidshooter.meshcache";
+    public static final String DEFAULT_CACHE_DIRECTORY = "cache/mesh";
+    public static final String EXTENSION = ".mesh";
+
+    //"MESH" in ascii, a different byte order reads as a different magic
+    public static final int MAGIC = 0x4D455348;
+    public static final int VERSION = 1;
+
+    //magic, version, source checksum, vertices components, indices, payload checksum
+    public static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 8;
+
+    public static boolean ENABLED = true;
+
+    public static Path getCacheDirectory() {
+        return Path.of(System.getProperty(CACHE_DIRECTORY_PROPERTY, DEFAULT_CACHE_DIRECTORY));
+    }
+
+    public static MeshData load(String name) {
+        byte[] source;
+        try (InputStream stream = MeshResources.class.getResourceAsStream(name)) {
+            if (stream == null) {
+                throw new IOException("'" + name + "' not found.");
+            }
+            source = stream.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        if (!ENABLED) {
+            return MeshResources.load(name, source);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        long sourceChecksum = crc.getValue();
+
+        Path file = getCacheDirectory().resolve(name + EXTENSION);
+
+        MeshData cached = read(file, sourceChecksum);
+        if (cached != null) {
+            return cached;
+        }
+
+        MeshData mesh = MeshResources.load(name, source);
+        try {
+            write(file, sourceChecksum, mesh);
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to write mesh cache '" + file + "'");
+            ex.printStackTrace(System.out);
+        }
+        return mesh;
+    }
+
+    private static MeshData read(Path file, long sourceChecksum) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to read mesh cache '" + file + "'");
+            ex.printStackTrace(System.out);
+            return null;
+        }
+        mapped.order(ByteOrder.nativeOrder());
+
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || mapped.getLong(8) != sourceChecksum) {
+            return null;
+        }
+
+        int verticesComponents = mapped.getInt(16);
+        int amountOfIndices = mapped.getInt(20);
+        long payloadChecksum = mapped.getLong(24);
+
+        long verticesSize = ((long) verticesComponents) * Float.BYTES;
+        long indicesSize = ((long) amountOfIndices) * Integer.BYTES;
+        if (verticesComponents < 0 || amountOfIndices < 0 || HEADER_SIZE + verticesSize + indicesSize != mapped.capacity()) {
+            return null;
+        }
+
+        ByteBuffer payload = mapped.slice(HEADER_SIZE, mapped.capacity() - HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (crc.getValue() != payloadChecksum) {
+            return null;
+        }
+
+        ByteBuffer vertices = mapped
+                .slice(HEADER_SIZE, (int) verticesSize)
+                .order(ByteOrder.nativeOrder());
+        ByteBuffer indices = mapped
+                .slice(HEADER_SIZE + (int) verticesSize, (int) indicesSize)
+                .order(ByteOrder.nativeOrder());
+
+        return new MeshData(vertices, indices);
+    }
+
+    private static void write(Path file, long sourceChecksum, MeshData mesh) throws IOException {
+        float[] vertices = mesh.getVertices();
+        int[] indices = mesh.getIndices();
+
+        int payloadSize = (vertices.length * Float.BYTES) + (indices.length * Integer.BYTES);
+        ByteBuffer data = ByteBuffer
+                .allocate(HEADER_SIZE + payloadSize)
+                .order(ByteOrder.nativeOrder());
+
+        data.position(HEADER_SIZE);
+        data.asFloatBuffer().put(vertices);
+        data.position(HEADER_SIZE + (vertices.length * Float.BYTES));
+        data.asIntBuffer().put(indices);
+
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), HEADER_SIZE, payloadSize);
+
+        data
+                .putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putLong(8, sourceChecksum)
+                .putInt(16, vertices.length)
+                .putInt(20, indices.length)
+                .putLong(24, crc.getValue());
+        data.position(0);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private MeshCache() {
+
+    }
+
+}
@@ -26,6 +26,7 @@
  */
 package cientistavuador.asteroidshooter.resources.mesh;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import static org.lwjgl.opengl.GL33C.*;
 
@@ -38,33 +39,77 @@ public class MeshData {
     public static final int SIZE = 3 + 2 + 3;
 
     //position (vec3), texture/uv (vec2), normal (vec3)
-    private final float[] vertices;
-    private final int[] indices;
+    private float[] vertices;
+    private int[] indices;
+    
+    //native order buffers, used instead of the arrays until uploaded
+    private ByteBuffer verticesBuffer;
+    private ByteBuffer indicesBuffer;
+    private final int amountOfVerticesComponents;
+    private final int amountOfIndices;
     private int vao = 0;
+    private int vbo = 0;
+    private int ebo = 0;
 
     public MeshData(float[] vertices, int[] indices) {
         this.vertices = vertices;
         this.indices = indices;
+        this.verticesBuffer = null;
+        this.indicesBuffer = null;
+        this.amountOfVerticesComponents = vertices.length;
+        this.amountOfIndices = indices.length;
+    }
+    
+    public MeshData(ByteBuffer vertices, ByteBuffer indices) {
+        this.vertices = null;
+        this.indices = null;
+        this.verticesBuffer = vertices;
+        this.indicesBuffer = indices;
+        this.amountOfVerticesComponents = vertices.capacity() / Float.BYTES;
+        this.amountOfIndices = indices.capacity() / Integer.BYTES;
     }
 
     public float[] getVertices() {
+        if (this.vertices == null) {
+            float[] array = new float[this.amountOfVerticesComponents];
+            if (this.verticesBuffer != null) {
+                this.verticesBuffer.asFloatBuffer().get(array);
+            } else {
+                //the buffer was released after the upload, read it back
+                glBindBuffer(GL_ARRAY_BUFFER, this.vbo);
+                glGetBufferSubData(GL_ARRAY_BUFFER, 0, array);
+                glBindBuffer(GL_ARRAY_BUFFER, 0);
+            }
+            this.vertices = array;
+        }
         return vertices;
     }
 
     public int getAmountOfVerticesComponents() {
-        return vertices.length;
+        return this.amountOfVerticesComponents;
     }
     
     public int getAmountOfVertices() {
-        return vertices.length / MeshData.SIZE;
+        return getAmountOfVerticesComponents() / MeshData.SIZE;
     }
     
     public int[] getIndices() {
+        if (this.indices == null) {
+            int[] array = new int[this.amountOfIndices];
+            if (this.indicesBuffer != null) {
+                this.indicesBuffer.asIntBuffer().get(array);
+            } else {
+                glBindBuffer(GL_ARRAY_BUFFER, this.ebo);
+                glGetBufferSubData(GL_ARRAY_BUFFER, 0, array);
+                glBindBuffer(GL_ARRAY_BUFFER, 0);
+            }
+            this.indices = array;
+        }
         return indices;
     }
 
     public int getAmountOfIndices() {
-        return indices.length;
+        return this.amountOfIndices;
     }
     
     public boolean hasVAO() {
@@ -73,36 +118,67 @@ public class MeshData {
 
     public int getVAO() {
         if (this.vao == 0) {
+            //read before new buffers replace the ones a released mesh is read back from
+            int[] indicesArray = (this.indicesBuffer == null ? getIndices() : null);
+            float[] verticesArray = (this.verticesBuffer == null ? getVertices() : null);
+
             this.vao = glGenVertexArrays();
             glBindVertexArray(this.vao);
             
-            int ebo = glGenBuffers();
-            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
-            glBufferData(GL_ELEMENT_ARRAY_BUFFER, getIndices(), GL_STATIC_DRAW);
-
-            int vbo = glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, vbo);
-            glBufferData(GL_ARRAY_BUFFER, getVertices(), GL_STATIC_DRAW);
-            
-            //position
-            glEnableVertexAttribArray(0);
-            glVertexAttribPointer(0, 3, GL_FLOAT, false, MeshData.SIZE * Float.BYTES, 0);
-
-            //texture
-            glEnableVertexAttribArray(1);
-            glVertexAttribPointer(1, 2, GL_FLOAT, false, MeshData.SIZE * Float.BYTES, (3 * Float.BYTES));
-
-            //normal
-            glEnableVertexAttribArray(2);
-            glVertexAttribPointer(2, 3, GL_FLOAT, false, MeshData.SIZE * Float.BYTES, ((3 + 2) * Float.BYTES));
+            this.ebo = glGenBuffers();
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.ebo);
+            if (this.indicesBuffer != null) {
+                glBufferData(GL_ELEMENT_ARRAY_BUFFER, this.indicesBuffer, GL_STATIC_DRAW);
+            } else {
+                glBufferData(GL_ELEMENT_ARRAY_BUFFER, indicesArray, GL_STATIC_DRAW);
+            }
+
+            this.vbo = glGenBuffers();
+            glBindBuffer(GL_ARRAY_BUFFER, this.vbo);
+            if (this.verticesBuffer != null) {
+                glBufferData(GL_ARRAY_BUFFER, this.verticesBuffer, GL_STATIC_DRAW);
+            } else {
+                glBufferData(GL_ARRAY_BUFFER, verticesArray, GL_STATIC_DRAW);
+            }
+
+            vertexAttributes();
 
             glBindBuffer(GL_ARRAY_BUFFER, 0);
 
             glBindVertexArray(0);
+
+            //the buffers may be mapped cache files, holding them keeps the files mapped (and locked on windows)
+            this.verticesBuffer = null;
+            this.indicesBuffer = null;
         }
         return this.vao;
     }
 
+    public int getVBO() {
+        getVAO();
+        return this.vbo;
+    }
+
+    public int getEBO() {
+        getVAO();
+        return this.ebo;
+    }
+
+    //configures the attributes 0, 1 and 2 of the bound vao from the bound array buffer
+    public static void vertexAttributes() {
+        //position
+        glEnableVertexAttribArray(0);
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, MeshData.SIZE * Float.BYTES, 0);
+
+        //texture
+        glEnableVertexAttribArray(1);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, MeshData.SIZE * Float.BYTES, (3 * Float.BYTES));
+
+        //normal
+        glEnableVertexAttribArray(2);
+        glVertexAttribPointer(2, 3, GL_FLOAT, false, MeshData.SIZE * Float.BYTES, ((3 + 2) * Float.BYTES));
+    }
+
     public void deleteVAO() {
         if (this.vao != 0) {
             glDeleteVertexArrays(this.vao);
@@ -113,8 +189,8 @@ public class MeshData {
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 97 * hash + Arrays.hashCode(this.vertices);
-        hash = 97 * hash + Arrays.hashCode(this.indices);
+        hash = 97 * hash + Arrays.hashCode(getVertices());
+        hash = 97 * hash + Arrays.hashCode(getIndices());
         return hash;
     }
 
@@ -130,10 +206,10 @@ public class MeshData {
             return false;
         }
         final MeshData other = (MeshData) obj;
-        if (!Arrays.equals(this.vertices, other.vertices)) {
+        if (!Arrays.equals(getVertices(), other.getVertices())) {
             return false;
         }
-        return Arrays.equals(this.indices, other.indices);
+        return Arrays.equals(getIndices(), other.getIndices());
     }
 
 }
@@ -27,6 +27,7 @@
 package cientistavuador.asteroidshooter.resources.mesh;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -45,7 +46,15 @@ public class MeshResources {
 
     public static MeshData load(String name) {
         try {
-            return new MeshResources(name).get();
+            return new MeshResources(name, null).get();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    public static MeshData load(String name, byte[] data) {
+        try {
+            return new MeshResources(name, data).get();
         } catch (IOException ex) {
             throw new UncheckedIOException(ex);
         }
@@ -53,6 +62,7 @@ public class MeshResources {
 
     //IO
     private final String name;
+    private final byte[] data;
     private int currentLine = 0;
 
     //parsing
@@ -74,12 +84,18 @@ public class MeshResources {
     private float[] vertices = new float[64];
     private int verticesIndex = 0;
 
-    private MeshResources(String name) {
+    private MeshResources(String name, byte[] data) {
         this.name = name;
+        this.data = data;
     }
 
     public MeshData get() throws IOException {
-        InputStream stream = MeshResources.class.getResourceAsStream(this.name);
+        InputStream stream;
+        if (this.data != null) {
+            stream = new ByteArrayInputStream(this.data);
+        } else {
+            stream = MeshResources.class.getResourceAsStream(this.name);
+        }
         if (stream == null) {
             throw new IOException("'"+this.name+"' not found.");
         }
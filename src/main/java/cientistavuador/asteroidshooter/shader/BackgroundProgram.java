@@ -56,26 +56,31 @@ public class BackgroundProgram {
             """
             #version 330 core
             
-            uniform sampler2D background;
+            uniform sampler2DArray background;
+            uniform int backgroundLayer;
             
             in vec2 uv;
             
             layout (location = 0) out vec4 colorOutput;
             
             void main() {
-                colorOutput = vec4(texture(background, uv).rgb, 1.0);
+                colorOutput = vec4(texture(background, vec3(uv, float(backgroundLayer))).rgb, 1.0);
             }
             """
     );
     
     public static final BetterUniformSetter UNIFORMS = new BetterUniformSetter(SHADER_PROGRAM);
     
-    public static void sendUniforms(float scaleX, float scaleY, int backgroundTexture) {
+    public static void setScale(float scaleX, float scaleY) {
         glUniform2f(UNIFORMS.locationOf("scale"), scaleX, scaleY);
-        
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, backgroundTexture);
-        glUniform1i(UNIFORMS.locationOf("background"), 0);
+    }
+    
+    public static void setTextureUnit(int unit) {
+        glUniform1i(UNIFORMS.locationOf("background"), unit);
+    }
+    
+    public static void setTextureLayer(int layer) {
+        glUniform1i(UNIFORMS.locationOf("backgroundLayer"), layer);
     }
     
     private BackgroundProgram() {
@@ -65,7 +65,8 @@ public class GUIProgram {
             """
             #version 330 core
             
-            uniform sampler2D tex;
+            uniform sampler2DArray tex;
+            uniform int textureLayer;
             
             in vec3 position;
             in vec2 uv;
@@ -74,7 +75,7 @@ public class GUIProgram {
             layout (location = 0) out vec4 colorOutput;
             
             void main() {
-                colorOutput = texture(tex, uv);
+                colorOutput = texture(tex, vec3(uv, float(textureLayer)));
             }
             """
     );
@@ -86,6 +87,7 @@ public class GUIProgram {
     private final Matrix4f projectionView = new Matrix4f();
     private final Matrix4f model = new Matrix4f();
     private int textureUnit = 0;
+    private int textureLayer = 0;
     
     private GUIProgram() {
         
@@ -106,6 +108,10 @@ public class GUIProgram {
     public int getTextureUnit() {
         return textureUnit;
     }
+
+    public int getTextureLayer() {
+        return textureLayer;
+    }
     
     public void setProjectionView(Matrix4f projectionView) {
         this.projectionView.set(projectionView);
@@ -122,4 +128,9 @@ public class GUIProgram {
         glUniform1i(UNIFORMS.locationOf("tex"), unit);
     }
     
+    public void setTextureLayer(int layer) {
+        this.textureLayer = layer;
+        glUniform1i(UNIFORMS.locationOf("textureLayer"), layer);
+    }
+    
 }
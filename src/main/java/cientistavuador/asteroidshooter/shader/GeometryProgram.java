@@ -26,15 +26,17 @@
  */
 package cientistavuador.asteroidshooter.shader;
 
+import cientistavuador.asteroidshooter.ubo.PointLightsUBO;
+import cientistavuador.asteroidshooter.ubo.UBOBindingPoints;
 import cientistavuador.asteroidshooter.util.BetterUniformSetter;
 import cientistavuador.asteroidshooter.util.ProgramCompiler;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import org.joml.Matrix3f;
 import org.joml.Matrix3fc;
 import org.joml.Matrix4f;
 import org.joml.Matrix4fc;
+import org.joml.Vector3dc;
 import org.joml.Vector3f;
 import org.joml.Vector3fc;
 import org.joml.Vector4f;
@@ -47,7 +49,13 @@ import static org.lwjgl.opengl.GL33C.*;
  */
 public class GeometryProgram {
     
-    public static final int MAX_AMOUNT_OF_LIGHTS = 8;
+    public static final int MAX_AMOUNT_OF_LIGHTS = 32;
+    public static final int DEFAULT_LIGHT_BUDGET = 16;
+    
+    public static enum LightPriority {
+        NEAREST,
+        BRIGHTEST
+    }
     
     public static class PointLight {
         
@@ -57,6 +65,13 @@ public class GeometryProgram {
         private final Vector3f ambient = new Vector3f(0.2f, 0.2f, 0.2f);
         private final Vector3f diffuse = new Vector3f(0.8f, 0.8f, 0.8f);
         
+        private int version = 0;
+        
+        private int registryIndex = -1;
+        private int slot = -1;
+        private int uploadedVersion = -1;
+        private long selectedFrame = -1;
+        
         public PointLight() {
             
         }
@@ -66,6 +81,9 @@ public class GeometryProgram {
         }
         
         public void setEnabled(boolean enabled) {
+            if (this.enabled != enabled) {
+                this.version++;
+            }
             this.enabled = enabled;
         }
         
@@ -74,6 +92,9 @@ public class GeometryProgram {
         }
         
         public void setPosition(float x, float y, float z) {
+            if (!this.position.equals(x, y, z)) {
+                this.version++;
+            }
             this.position.set(x, y, z);
         }
         
@@ -86,6 +107,9 @@ public class GeometryProgram {
         }
         
         public void setAmbient(float r, float g, float b) {
+            if (!this.ambient.equals(r, g, b)) {
+                this.version++;
+            }
             this.ambient.set(r, g, b);
         }
         
@@ -98,6 +122,9 @@ public class GeometryProgram {
         }
         
         public void setDiffuse(float r, float g, float b) {
+            if (!this.diffuse.equals(r, g, b)) {
+                this.version++;
+            }
             this.diffuse.set(r, g, b);
         }
         
@@ -105,87 +132,15 @@ public class GeometryProgram {
             setDiffuse(diffuse.x(), diffuse.y(), diffuse.z());
         }
         
-    }
-    
-    private static class PointLightUniforms extends PointLight {
-        
-        private final int index;
-        
-        private final int enabledLocation;
-        private final int positionLocation;
-        private final int ambientLocation;
-        private final int diffuseLocation;
-        
-        private boolean enabledRequiresUpdate = false;
-        private boolean positionRequiresUpdate = false;
-        private boolean ambientRequiresUpdate = false;
-        private boolean diffuseRequiresUpdate = false;
-        
-        public PointLightUniforms(int index) {
-            this.index = index;
-            this.enabledLocation = glGetUniformLocation(SHADER_PROGRAM, "lights["+index+"].enabled");
-            this.positionLocation = glGetUniformLocation(SHADER_PROGRAM, "lights["+index+"].position");
-            this.ambientLocation = glGetUniformLocation(SHADER_PROGRAM, "lights["+index+"].ambient");
-            this.diffuseLocation = glGetUniformLocation(SHADER_PROGRAM, "lights["+index+"].diffuse");
-        }
-
-        public int getIndex() {
-            return index;
+        public float getBrightness() {
+            return this.ambient.x() + this.ambient.y() + this.ambient.z()
+                    + this.diffuse.x() + this.diffuse.y() + this.diffuse.z();
         }
         
-        @Override
-        public void setEnabled(boolean enabled) {
-            if (isEnabled() != enabled) {
-                this.enabledRequiresUpdate = true;
-            }
-            super.setEnabled(enabled);
-        }
-
-        @Override
-        public void setPosition(float x, float y, float z) {
-            if (!getPosition().equals(x, y, z)) {
-                this.positionRequiresUpdate = true;
-            }
-            super.setPosition(x, y, z);
+        public boolean isRegistered() {
+            return this.registryIndex != -1;
         }
         
-        @Override
-        public void setAmbient(float r, float g, float b) {
-            if (!getAmbient().equals(r, g, b)) {
-                this.ambientRequiresUpdate = true;
-            }
-            super.setAmbient(r, g, b);
-        }
-        
-        @Override
-        public void setDiffuse(float r, float g, float b) {
-            if (!getDiffuse().equals(r, g, b)) {
-                this.diffuseRequiresUpdate = true;
-            }
-            super.setDiffuse(r, g, b);
-        }
-        
-        public void updateUniforms() {
-            if (this.enabledRequiresUpdate) {
-                glUniform1i(this.enabledLocation, (isEnabled() ? 1 : 0));
-                this.enabledRequiresUpdate = false;
-            }
-            if (this.positionRequiresUpdate) {
-                Vector3fc position = getPosition();
-                glUniform3f(this.positionLocation, position.x(), position.y(), position.z());
-                this.positionRequiresUpdate = false;
-            }
-            if (this.ambientRequiresUpdate) {
-                Vector3fc ambient = getAmbient();
-                glUniform3f(this.ambientLocation, ambient.x(), ambient.y(), ambient.z());
-                this.positionRequiresUpdate = false;
-            }
-            if (this.diffuseRequiresUpdate) {
-                Vector3fc diffuse = getDiffuse();
-                glUniform3f(this.diffuseLocation, diffuse.x(), diffuse.y(), diffuse.z());
-                this.diffuseRequiresUpdate = false;
-            }
-        }
     }
     
     public static final int SHADER_PROGRAM = ProgramCompiler.compile(
@@ -195,21 +150,35 @@ public class GeometryProgram {
             uniform mat4 projectionView;
             uniform mat4 model;
             uniform mat3 normalModel;
+            uniform bool instanced;
             
             layout (location = 0) in vec3 vertexPosition;
             layout (location = 1) in vec2 vertexUv;
             layout (location = 2) in vec3 vertexNormal;
+            layout (location = 3) in mat4 instanceModel;
+            layout (location = 7) in vec4 instanceColor;
             
             out vec3 position;
             out vec2 uv;
             out vec3 normal;
+            out vec4 vertexColor;
             
             void main() {
-                vec4 pos = model * vec4(vertexPosition, 1.0);
+                mat4 finalModel = model;
+                mat3 finalNormalModel = normalModel;
+                vertexColor = vec4(1.0);
+                if (instanced) {
+                    finalModel = instanceModel;
+                    //instances only use uniform scaling, so the normalize below is enough
+                    finalNormalModel = mat3(instanceModel);
+                    vertexColor = instanceColor;
+                }
+                
+                vec4 pos = finalModel * vec4(vertexPosition, 1.0);
                 
                 position = pos.xyz;
                 uv = vertexUv;
-                normal = normalize(normalModel * vertexNormal);
+                normal = normalize(finalNormalModel * vertexNormal);
                 
                 gl_Position = projectionView * pos;
             }
@@ -219,14 +188,19 @@ public class GeometryProgram {
             #version 330 core
             
             struct PointLight {
-                bool enabled;
-                vec3 position;
-                vec3 ambient;
-                vec3 diffuse;
+                vec4 position;
+                vec4 ambient;
+                vec4 diffuse;
+            };
+            
+            layout (std140) uniform PointLights {
+                ivec4 lightsInfo;
+                PointLight lights[MAX_AMOUNT_OF_LIGHTS];
             };
             
             uniform vec4 color;
-            uniform sampler2D tex;
+            uniform sampler2DArray tex;
+            uniform int textureLayer;
             
             uniform bool lightingEnabled;
             
@@ -234,21 +208,21 @@ public class GeometryProgram {
             uniform vec3 sunAmbient;
             uniform vec3 sunDiffuse;
             
-            uniform PointLight lights[MAX_AMOUNT_OF_LIGHTS];
-            
             in vec3 position;
             in vec2 uv;
             in vec3 normal;
+            in vec4 vertexColor;
             
             layout (location = 0) out vec4 colorOutput;
             
             const float gamma = 2.2;
             
             void main() {
-                vec4 textureColor = texture(tex, uv);
-                colorOutput = textureColor * color;
+                vec4 finalColor = color * vertexColor;
+                vec4 textureColor = texture(tex, vec3(uv, float(textureLayer)));
+                colorOutput = textureColor * finalColor;
                 if (lightingEnabled) {
-                    textureColor.rgb = pow(textureColor.rgb * color.rgb, vec3(gamma));
+                    textureColor.rgb = pow(textureColor.rgb * finalColor.rgb, vec3(gamma));
                     vec3 resultOutput = vec3(0.0);
                     
                     //sun
@@ -256,19 +230,19 @@ public class GeometryProgram {
                     resultOutput += sunAmbient * textureColor.rgb;
                     
                     //point lights
-                    for (int i = 0; i < MAX_AMOUNT_OF_LIGHTS; i++) {
+                    for (int i = 0; i < lightsInfo.x; i++) {
                         PointLight light = lights[i];
-                        if (light.enabled) {
-                            vec3 lightDir = normalize(light.position - position);
-                            float distance = distance(light.position, position);
+                        if (light.position.w != 0.0) {
+                            vec3 lightDir = normalize(light.position.xyz - position);
+                            float distance = distance(light.position.xyz, position);
                             float attenuation = 1.0 / (distance*distance);
                             
-                            resultOutput += light.diffuse * max(dot(normal, lightDir), 0.0) * attenuation * textureColor.rgb;
-                            resultOutput += light.ambient * attenuation * textureColor.rgb;
+                            resultOutput += light.diffuse.rgb * max(dot(normal, lightDir), 0.0) * attenuation * textureColor.rgb;
+                            resultOutput += light.ambient.rgb * attenuation * textureColor.rgb;
                         }
                     }
                     
-                    colorOutput = vec4(pow(resultOutput, vec3(1.0/gamma)), textureColor.a * color.a);
+                    colorOutput = vec4(pow(resultOutput, vec3(1.0/gamma)), textureColor.a * finalColor.a);
                 }
             }
             """,
@@ -278,6 +252,7 @@ public class GeometryProgram {
     );
     
     private static final BetterUniformSetter UNIFORMS = new BetterUniformSetter(SHADER_PROGRAM);
+    private static final int POINT_LIGHTS_UBO_INDEX = glGetUniformBlockIndex(SHADER_PROGRAM, "PointLights");
     
     public static final GeometryProgram INSTANCE = new GeometryProgram();
     
@@ -286,20 +261,29 @@ public class GeometryProgram {
     private final Matrix3f normalModel = new Matrix3f();
     private final Vector4f color = new Vector4f();
     private int textureUnit = 0;
+    private int textureLayer = 0;
     
     private boolean lightingEnabled = false;
+    private boolean instanced = false;
     
     private final Vector3f sunDirection = new Vector3f();
     private final Vector3f sunAmbient = new Vector3f();
     private final Vector3f sunDiffuse = new Vector3f();
     
-    private final PointLightUniforms[] lightsUniforms = new PointLightUniforms[MAX_AMOUNT_OF_LIGHTS];
-    private final List<PointLight> lights = new ArrayList<>();
+    private final PointLightsUBO lightsUbo = PointLightsUBO.create(UBOBindingPoints.POINT_LIGHTS, MAX_AMOUNT_OF_LIGHTS);
+    private final PointLight[] slots = new PointLight[MAX_AMOUNT_OF_LIGHTS];
+    private PointLight[] lights = new PointLight[16];
+    private int amountOfLights = 0;
+    
+    private PointLight[] candidates = new PointLight[16];
+    private float[] candidatesPriority = new float[16];
+    private long lightsFrame = 0;
+    
+    private int lightBudget = DEFAULT_LIGHT_BUDGET;
+    private LightPriority lightPriority = LightPriority.NEAREST;
     
     private GeometryProgram() {
-        for (int i = 0; i < this.lightsUniforms.length; i++) {
-            this.lightsUniforms[i] = new PointLightUniforms(i);
-        }
+        glUniformBlockBinding(SHADER_PROGRAM, POINT_LIGHTS_UBO_INDEX, this.lightsUbo.getBindingPoint());
     }
 
     public void use() {
@@ -322,6 +306,10 @@ public class GeometryProgram {
         return textureUnit;
     }
 
+    public int getTextureLayer() {
+        return textureLayer;
+    }
+
     public Vector4fc getColor() {
         return color;
     }
@@ -338,45 +326,183 @@ public class GeometryProgram {
         return sunDiffuse;
     }
 
-    public List<PointLight> getLights() {
-        return lights;
-    }
-    
-    public void updateLightsUniforms() {
-        int uniformsIndex = 0;
-        int lightsIndex = 0;
-        while (uniformsIndex < this.lightsUniforms.length) {
-            PointLightUniforms uniforms = this.lightsUniforms[uniformsIndex];
-            if (lightsIndex >= this.lights.size()) {
-                uniforms.setEnabled(false);
-                uniformsIndex++;
-                continue;
+    public PointLightsUBO getLightsUBO() {
+        return lightsUbo;
+    }
+    
+    public int getAmountOfLights() {
+        return amountOfLights;
+    }
+    
+    public PointLight getLight(int index) {
+        if (index < 0 || index >= this.amountOfLights) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.lights[index];
+    }
+    
+    public boolean addLight(PointLight light) {
+        if (light.registryIndex != -1) {
+            return false;
+        }
+        if (this.amountOfLights >= this.lights.length) {
+            this.lights = Arrays.copyOf(this.lights, this.lights.length * 2);
+        }
+        light.registryIndex = this.amountOfLights;
+        this.lights[this.amountOfLights] = light;
+        this.amountOfLights++;
+        return true;
+    }
+    
+    public boolean removeLight(PointLight light) {
+        int index = light.registryIndex;
+        if (index == -1 || index >= this.amountOfLights || this.lights[index] != light) {
+            return false;
+        }
+        
+        int last = this.amountOfLights - 1;
+        PointLight lastLight = this.lights[last];
+        this.lights[index] = lastLight;
+        lastLight.registryIndex = index;
+        this.lights[last] = null;
+        this.amountOfLights--;
+        light.registryIndex = -1;
+        
+        if (light.slot != -1) {
+            this.slots[light.slot] = null;
+            this.lightsUbo.disableLight(light.slot);
+            light.slot = -1;
+        }
+        return true;
+    }
+
+    public int getLightBudget() {
+        return lightBudget;
+    }
+
+    public void setLightBudget(int lightBudget) {
+        this.lightBudget = Math.max(0, Math.min(lightBudget, MAX_AMOUNT_OF_LIGHTS));
+    }
+
+    public LightPriority getLightPriority() {
+        return lightPriority;
+    }
+
+    public void setLightPriority(LightPriority lightPriority) {
+        if (lightPriority == null) {
+            lightPriority = LightPriority.NEAREST;
+        }
+        this.lightPriority = lightPriority;
+    }
+    
+    private float priorityOf(PointLight light, Vector3dc cameraPosition) {
+        if (this.lightPriority == LightPriority.BRIGHTEST) {
+            return -light.getBrightness();
+        }
+        Vector3fc p = light.getPosition();
+        return (float) cameraPosition.distanceSquared(p.x(), p.y(), p.z());
+    }
+    
+    public void updateLights(Vector3dc cameraPosition) {
+        if (this.candidates.length < this.amountOfLights) {
+            this.candidates = new PointLight[this.lights.length];
+            this.candidatesPriority = new float[this.lights.length];
+        }
+        
+        int amountOfCandidates = 0;
+        for (int i = 0; i < this.amountOfLights; i++) {
+            PointLight light = this.lights[i];
+            if (light.isEnabled()) {
+                this.candidates[amountOfCandidates] = light;
+                amountOfCandidates++;
             }
-            
-            PointLight light = this.lights.get(lightsIndex);
-            if (light == null || !light.isEnabled()) {
-                lightsIndex++;
-                continue;
+        }
+        
+        if (amountOfCandidates > this.lightBudget) {
+            for (int i = 0; i < amountOfCandidates; i++) {
+                this.candidatesPriority[i] = priorityOf(this.candidates[i], cameraPosition);
+            }
+            //insertion sort, the amount of lights is small
+            for (int i = 1; i < amountOfCandidates; i++) {
+                PointLight light = this.candidates[i];
+                float priority = this.candidatesPriority[i];
+                int j = i - 1;
+                while (j >= 0 && this.candidatesPriority[j] > priority) {
+                    this.candidates[j + 1] = this.candidates[j];
+                    this.candidatesPriority[j + 1] = this.candidatesPriority[j];
+                    j--;
+                }
+                this.candidates[j + 1] = light;
+                this.candidatesPriority[j + 1] = priority;
+            }
+            amountOfCandidates = this.lightBudget;
+        }
+        
+        this.lightsFrame++;
+        for (int i = 0; i < amountOfCandidates; i++) {
+            this.candidates[i].selectedFrame = this.lightsFrame;
+        }
+        
+        //release the slots of lights that were not selected
+        for (int i = 0; i < this.slots.length; i++) {
+            PointLight light = this.slots[i];
+            if (light != null && light.selectedFrame != this.lightsFrame) {
+                this.slots[i] = null;
+                light.slot = -1;
+                this.lightsUbo.disableLight(i);
             }
+        }
+        
+        int freeSlot = 0;
+        for (int i = 0; i < amountOfCandidates; i++) {
+            PointLight light = this.candidates[i];
+            this.candidates[i] = null;
             
-            uniforms.setEnabled(true);
-            uniforms.setPosition(light.getPosition());
-            uniforms.setDiffuse(light.getDiffuse());
-            uniforms.setAmbient(light.getAmbient());
+            if (light.slot == -1) {
+                while (this.slots[freeSlot] != null) {
+                    freeSlot++;
+                }
+                this.slots[freeSlot] = light;
+                light.slot = freeSlot;
+                light.uploadedVersion = light.version - 1;
+            }
             
-            uniformsIndex++;
-            lightsIndex++;
+            if (light.uploadedVersion != light.version) {
+                Vector3fc position = light.getPosition();
+                Vector3fc ambient = light.getAmbient();
+                Vector3fc diffuse = light.getDiffuse();
+                this.lightsUbo.setLight(light.slot,
+                        position.x(), position.y(), position.z(),
+                        ambient.x(), ambient.y(), ambient.z(),
+                        diffuse.x(), diffuse.y(), diffuse.z()
+                );
+                light.uploadedVersion = light.version;
+            }
         }
         
-        for (PointLightUniforms p:this.lightsUniforms) {
-            p.updateUniforms();
+        int usedSlots = 0;
+        for (int i = 0; i < this.slots.length; i++) {
+            if (this.slots[i] != null) {
+                usedSlots = i + 1;
+            }
         }
+        this.lightsUbo.setAmountOfLights(usedSlots);
+        this.lightsUbo.updateUBO();
     }
 
     public boolean isLightingEnabled() {
         return lightingEnabled;
     }
     
+    public boolean isInstanced() {
+        return instanced;
+    }
+    
+    public void setInstanced(boolean instanced) {
+        this.instanced = instanced;
+        glUniform1i(UNIFORMS.locationOf("instanced"), (instanced ? 1 : 0));
+    }
+    
     public void setSunDirection(float x, float y, float z) {
         this.sunDirection.set(x, y, z).normalize();
         glUniform3f(UNIFORMS.locationOf("sunDirection"), this.sunDirection.x(), this.sunDirection.y(), this.sunDirection.z());
@@ -427,6 +553,11 @@ public class GeometryProgram {
         glUniform1i(UNIFORMS.locationOf("tex"), unit);
     }
     
+    public void setTextureLayer(int layer) {
+        this.textureLayer = layer;
+        glUniform1i(UNIFORMS.locationOf("textureLayer"), layer);
+    }
+    
     public void setColor(float r, float g, float b, float a) {
         this.color.set(r, g, b, a);
         glUniform4f(UNIFORMS.locationOf("color"), r, g, b, a);
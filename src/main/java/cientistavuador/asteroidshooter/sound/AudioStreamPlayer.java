@@ -0,0 +1,180 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.sound;
+
+import cientistavuador.asteroidshooter.resources.audio.AudioStream;
+import cientistavuador.asteroidshooter.resources.audio.NativeAudio;
+import java.nio.ShortBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.lwjgl.openal.AL11.*;
+import static org.lwjgl.stb.STBVorbis.*;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * Plays a streamed audio on a source using a small ring of queued buffers,
+ * decoding happens on a background thread and the openal calls on the main
+ * thread.
+ *
+ * @author Cien
+ */
+class AudioStreamPlayer {
+
+    public static final int NUMBER_OF_BUFFERS = 4;
+    public static final int SAMPLES_PER_BUFFER = 8192;
+
+    private static final ExecutorService DECODER = Executors.newSingleThreadExecutor((r) -> {
+        Thread t = new Thread(r, "Audio Stream Decoder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int source;
+    private final int channels;
+    private final int format;
+    private final int sampleRate;
+    private final long decoder;
+
+    private final int[] buffers = new int[NUMBER_OF_BUFFERS];
+    private final int[] idleBuffers = new int[NUMBER_OF_BUFFERS];
+    private int amountOfIdleBuffers = 0;
+
+    //pcm chunks only move between the decoder thread and the main thread through these queues
+    private final ArrayBlockingQueue<ShortBuffer> emptyChunks = new ArrayBlockingQueue<>(NUMBER_OF_BUFFERS);
+    private final ArrayBlockingQueue<ShortBuffer> decodedChunks = new ArrayBlockingQueue<>(NUMBER_OF_BUFFERS);
+    private final AtomicBoolean decoding = new AtomicBoolean(false);
+    private volatile boolean endOfStream = false;
+    private volatile boolean closed = false;
+
+    public AudioStreamPlayer(NativeAudio audio, int source) {
+        AudioStream stream = audio.getStream();
+        this.source = source;
+        this.channels = stream.getChannels();
+        this.format = (this.channels == 1 ? AL_FORMAT_MONO16 : AL_FORMAT_STEREO16);
+        this.sampleRate = stream.getSampleRate();
+        this.decoder = stream.openDecoder();
+
+        for (int i = 0; i < NUMBER_OF_BUFFERS; i++) {
+            this.buffers[i] = alGenBuffers();
+            this.idleBuffers[i] = this.buffers[i];
+            this.emptyChunks.add(MemoryUtil.memAllocShort(SAMPLES_PER_BUFFER * this.channels));
+        }
+        this.amountOfIdleBuffers = NUMBER_OF_BUFFERS;
+    }
+
+    //runs on the decoder thread
+    private void decode(int maxChunks) {
+        try {
+            ShortBuffer chunk;
+            int decoded = 0;
+            while (decoded < maxChunks && !this.closed && !this.endOfStream && (chunk = this.emptyChunks.poll()) != null) {
+                chunk.clear();
+                int samples = stb_vorbis_get_samples_short_interleaved(this.decoder, this.channels, chunk);
+                if (samples <= 0) {
+                    this.endOfStream = true;
+                    this.emptyChunks.add(chunk);
+                    break;
+                }
+                chunk.limit(samples * this.channels);
+                this.decodedChunks.add(chunk);
+                decoded++;
+            }
+        } finally {
+            this.decoding.set(false);
+        }
+    }
+
+    private void scheduleDecode() {
+        if (!this.endOfStream && this.decoding.compareAndSet(false, true)) {
+            DECODER.execute(() -> decode(NUMBER_OF_BUFFERS));
+        }
+    }
+
+    private void queueDecodedChunks() {
+        ShortBuffer chunk;
+        while (this.amountOfIdleBuffers > 0 && (chunk = this.decodedChunks.poll()) != null) {
+            int buffer = this.idleBuffers[--this.amountOfIdleBuffers];
+            alBufferData(buffer, this.format, chunk, this.sampleRate);
+            alSourceQueueBuffers(this.source, buffer);
+            this.emptyChunks.add(chunk);
+        }
+    }
+
+    public void start() {
+        //the first chunk is decoded right away so the sound starts without delay
+        this.decoding.set(true);
+        decode(1);
+        queueDecodedChunks();
+        alSourcePlay(this.source);
+        scheduleDecode();
+    }
+
+    //returns true when the stream finished playing
+    public boolean update() {
+        int processed = alGetSourcei(this.source, AL_BUFFERS_PROCESSED);
+        for (int i = 0; i < processed; i++) {
+            this.idleBuffers[this.amountOfIdleBuffers++] = alSourceUnqueueBuffers(this.source);
+        }
+
+        queueDecodedChunks();
+        scheduleDecode();
+
+        if (alGetSourcei(this.source, AL_SOURCE_STATE) == AL_STOPPED) {
+            if (alGetSourcei(this.source, AL_BUFFERS_QUEUED) > 0) {
+                //buffer underrun, the decoder fell behind
+                alSourcePlay(this.source);
+                return false;
+            }
+            return this.endOfStream && !this.decoding.get() && this.decodedChunks.isEmpty();
+        }
+        return false;
+    }
+
+    public void close() {
+        this.closed = true;
+        alSourceStop(this.source);
+        alSourcei(this.source, AL_BUFFER, 0);
+        for (int buffer : this.buffers) {
+            alDeleteBuffers(buffer);
+        }
+
+        //queued after any running decode, so nothing is using the decoder or the chunks anymore
+        DECODER.execute(() -> {
+            stb_vorbis_close(this.decoder);
+            ShortBuffer chunk;
+            while ((chunk = this.emptyChunks.poll()) != null) {
+                MemoryUtil.memFree(chunk);
+            }
+            while ((chunk = this.decodedChunks.poll()) != null) {
+                MemoryUtil.memFree(chunk);
+            }
+        });
+    }
+
+}
@@ -42,6 +42,9 @@ public class SoundLoader {
     
     public static final boolean DEBUG_OUTPUT = true;
     
+    //audio files above this size in bytes are streamed instead of fully decoded
+    public static final int STREAMING_THRESHOLD = 256 * 1024;
+    
     public static NativeAudio[] load(String[] audioNames) {
         List<Future<NativeAudio>> tasks = new ArrayList<>();
         
@@ -52,7 +55,7 @@ public class SoundLoader {
                 if (DEBUG_OUTPUT) {
                     System.out.println("Loading '"+audioName+"', index "+finalIndex);
                 }
-                NativeAudio audio = AudioResources.load(audioName);
+                NativeAudio audio = AudioResources.load(audioName, STREAMING_THRESHOLD);
                 if (DEBUG_OUTPUT){
                     System.out.println("Finished loading '"+audioName+"', index "+finalIndex);
                 }
@@ -86,6 +89,13 @@ public class SoundLoader {
         
         for (int i = 0; i < audioOutput.length; i++) {
             NativeAudio audio = audioOutput[i];
+            if (audio.isStreamed()) {
+                if (DEBUG_OUTPUT) {
+                    System.out.println("Streaming "+audioNames[i]+", index:"+i+", file size:"+audio.getStream().getFileSize()+", sampleRate:"+audio.getSampleRate()+", duration:"+audio.getDuration()+", channels:"+audio.getChannels());
+                }
+                output[i] = audio;
+                continue;
+            }
             if (DEBUG_OUTPUT) {
                 System.out.println("Creating buffer for "+audioNames[i]+", index:"+i);
             }
@@ -66,6 +66,16 @@ public class Sounds {
         PARTY_WHISTLE = sounds[6];
         SPACESHIP_EXPLOSION = sounds[7];
         GAME_OVER = sounds[8];
+        
+        VoicePool.setConcurrencyLimit(LASER, 8);
+        VoicePool.setConcurrencyLimit(CLICK, 1);
+        VoicePool.setConcurrencyLimit(HIT, 6);
+        VoicePool.setConcurrencyLimit(EXPLOSION, 6);
+        VoicePool.setConcurrencyLimit(ROCK_HIT, 4);
+        VoicePool.setConcurrencyLimit(ALARM, 2);
+        VoicePool.setConcurrencyLimit(PARTY_WHISTLE, 1);
+        VoicePool.setConcurrencyLimit(SPACESHIP_EXPLOSION, 2);
+        VoicePool.setConcurrencyLimit(GAME_OVER, 1);
     }
     
     public static void init() {
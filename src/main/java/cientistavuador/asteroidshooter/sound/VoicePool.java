@@ -0,0 +1,316 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.sound;
+
+import cientistavuador.asteroidshooter.debug.DebugCounter;
+import cientistavuador.asteroidshooter.resources.audio.NativeAudio;
+import java.util.IdentityHashMap;
+import static org.lwjgl.openal.AL11.*;
+
+/**
+ * Fixed set of OpenAL sources shared by every sound effect, replaces
+ * generating and deleting a source for each event.
+ * 
+ * Voices are referenced by handles, a handle becomes invalid once its voice
+ * stops or is stolen, so operations on an old handle are ignored.
+ *
+ * @author Cien
+ */
+public class VoicePool {
+
+    public static final int MAX_VOICES = 32;
+
+    public static enum Priority {
+        LOW, NORMAL, HIGH;
+    }
+
+    private static class Voice {
+
+        private final int slot;
+        private int source = 0;
+        private int generation = 0;
+        private NativeAudio audio = null;
+        private Priority priority = null;
+        private long startOrder = 0;
+        private Runnable onStopped = null;
+        private AudioStreamPlayer stream = null;
+        private int activeIndex = -1;
+
+        public Voice(int slot) {
+            this.slot = slot;
+        }
+
+        public int handle() {
+            return (this.generation << 8) | this.slot;
+        }
+    }
+
+    private static final Voice[] voices = new Voice[MAX_VOICES];
+    private static final Voice[] activeVoices = new Voice[MAX_VOICES];
+    private static int amountOfActiveVoices = 0;
+    private static final IdentityHashMap<NativeAudio, int[]> limits = new IdentityHashMap<>();
+    private static long playOrder = 0;
+    private static long stolen = 0;
+    private static long rejected = 0;
+
+    static {
+        for (int i = 0; i < voices.length; i++) {
+            voices[i] = new Voice(i);
+        }
+    }
+
+    //maximum amount of voices playing the audio at the same time, 0 for no limit
+    public static void setConcurrencyLimit(NativeAudio audio, int limit) {
+        if (limit <= 0) {
+            VoicePool.limits.remove(audio);
+            return;
+        }
+        VoicePool.limits.put(audio, new int[]{limit, 0});
+    }
+
+    public static int getConcurrencyLimit(NativeAudio audio) {
+        int[] limit = VoicePool.limits.get(audio);
+        if (limit == null) {
+            return 0;
+        }
+        return limit[0];
+    }
+
+    private static Voice get(int handle) {
+        if (handle == 0) {
+            return null;
+        }
+        int slot = handle & 0xFF;
+        if (slot >= voices.length) {
+            return null;
+        }
+        Voice v = voices[slot];
+        if (v.activeIndex == -1 || v.handle() != handle) {
+            return null;
+        }
+        return v;
+    }
+
+    private static void release(Voice v, boolean stop) {
+        if (v.stream != null) {
+            v.stream.close();
+            v.stream = null;
+        } else {
+            if (stop) {
+                alSourceStop(v.source);
+            }
+            alSourcei(v.source, AL_BUFFER, 0);
+        }
+
+        int[] limit = VoicePool.limits.get(v.audio);
+        if (limit != null) {
+            limit[1]--;
+        }
+
+        int last = amountOfActiveVoices - 1;
+        Voice lastVoice = activeVoices[last];
+        activeVoices[v.activeIndex] = lastVoice;
+        lastVoice.activeIndex = v.activeIndex;
+        activeVoices[last] = null;
+        amountOfActiveVoices--;
+
+        Runnable callback = v.onStopped;
+        v.activeIndex = -1;
+        v.audio = null;
+        v.priority = null;
+        v.onStopped = null;
+        v.generation = (v.generation + 1) & 0x7FFFFF;
+        if (v.generation == 0) {
+            v.generation = 1;
+        }
+
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    private static Voice findVictim(NativeAudio audio, Priority priority) {
+        int[] limit = VoicePool.limits.get(audio);
+        if (limit != null && limit[1] >= limit[0]) {
+            //cap reached, the oldest voice of the same audio makes room for the new one
+            Voice oldest = null;
+            for (int i = 0; i < amountOfActiveVoices; i++) {
+                Voice v = activeVoices[i];
+                if (v.audio == audio && (oldest == null || v.startOrder < oldest.startOrder)) {
+                    oldest = v;
+                }
+            }
+            return oldest;
+        }
+
+        if (amountOfActiveVoices < voices.length) {
+            return null;
+        }
+
+        //pool is full, steal the oldest voice with the lowest priority not above the new one
+        Voice victim = null;
+        for (int i = 0; i < amountOfActiveVoices; i++) {
+            Voice v = activeVoices[i];
+            if (v.priority.ordinal() > priority.ordinal()) {
+                continue;
+            }
+            if (victim == null
+                    || v.priority.ordinal() < victim.priority.ordinal()
+                    || (v.priority == victim.priority && v.startOrder < victim.startOrder)) {
+                victim = v;
+            }
+        }
+        return victim;
+    }
+
+    //returns the voice handle or 0 if there was no voice available
+    public static int play(NativeAudio audio, Priority priority, float pitch, float x, float y, float z, Runnable onStopped) {
+        if (audio == null) {
+            throw new NullPointerException("Audio is null");
+        }
+        if (priority == null) {
+            throw new NullPointerException("Priority is null");
+        }
+
+        boolean full = amountOfActiveVoices >= voices.length;
+        Voice victim = findVictim(audio, priority);
+        if (victim != null) {
+            release(victim, true);
+            VoicePool.stolen++;
+        } else if (full) {
+            VoicePool.rejected++;
+            return 0;
+        }
+
+        Voice voice = null;
+        for (Voice v : voices) {
+            if (v.activeIndex == -1) {
+                voice = v;
+                break;
+            }
+        }
+        if (voice.source == 0) {
+            voice.source = alGenSources();
+        }
+        if (voice.generation == 0) {
+            voice.generation = 1;
+        }
+
+        voice.audio = audio;
+        voice.priority = priority;
+        voice.startOrder = VoicePool.playOrder++;
+        voice.onStopped = onStopped;
+        voice.activeIndex = amountOfActiveVoices;
+        activeVoices[amountOfActiveVoices] = voice;
+        amountOfActiveVoices++;
+
+        int[] limit = VoicePool.limits.get(audio);
+        if (limit != null) {
+            limit[1]++;
+        }
+
+        int source = voice.source;
+        alSourcef(source, AL_PITCH, pitch);
+        alSource3f(source, AL_POSITION, x, y, z);
+        alSource3f(source, AL_VELOCITY, 0f, 0f, 0f);
+        if (audio.isStreamed()) {
+            voice.stream = new AudioStreamPlayer(audio, source);
+            voice.stream.start();
+        } else {
+            alSourcei(source, AL_BUFFER, audio.getAudioBuffer());
+            alSourcePlay(source);
+        }
+
+        return voice.handle();
+    }
+
+    public static int play(NativeAudio audio, Priority priority, float x, float y, float z) {
+        return play(audio, priority, 1f, x, y, z, null);
+    }
+
+    public static int play(NativeAudio audio, Priority priority) {
+        return play(audio, priority, 1f, 0f, 0f, 0f, null);
+    }
+
+    public static boolean isPlaying(int handle) {
+        return get(handle) != null;
+    }
+
+    public static void setPosition(int handle, float x, float y, float z) {
+        Voice v = get(handle);
+        if (v != null) {
+            alSource3f(v.source, AL_POSITION, x, y, z);
+        }
+    }
+
+    public static void setVelocity(int handle, float x, float y, float z) {
+        Voice v = get(handle);
+        if (v != null) {
+            alSource3f(v.source, AL_VELOCITY, x, y, z);
+        }
+    }
+
+    public static void stop(int handle) {
+        Voice v = get(handle);
+        if (v != null) {
+            release(v, true);
+        }
+    }
+
+    //only the active voices are checked
+    public static void update() {
+        for (int i = 0; i < amountOfActiveVoices;) {
+            Voice v = activeVoices[i];
+            boolean stopped;
+            if (v.stream != null) {
+                stopped = v.stream.update();
+            } else {
+                stopped = alGetSourcei(v.source, AL_SOURCE_STATE) == AL_STOPPED;
+            }
+            if (stopped) {
+                release(v, false);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    public static int getAmountOfActiveVoices() {
+        return amountOfActiveVoices;
+    }
+
+    public static void report(DebugCounter counter) {
+        counter.setValue("Voices in use", amountOfActiveVoices);
+        counter.setValue("Voices stolen", VoicePool.stolen);
+        counter.setValue("Voices rejected", VoicePool.rejected);
+    }
+
+    private VoicePool() {
+
+    }
+
+}
@@ -30,15 +30,17 @@ import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.asteroid.Asteroid;
 import cientistavuador.asteroidshooter.asteroid.AsteroidController;
 import cientistavuador.asteroidshooter.geometry.Geometries;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.shader.GeometryProgram;
 import cientistavuador.asteroidshooter.sound.Sounds;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
+import cientistavuador.asteroidshooter.sound.VoicePool;
+import cientistavuador.asteroidshooter.texture.Textures;
 import cientistavuador.asteroidshooter.util.Aab;
+import cientistavuador.asteroidshooter.util.AabGrid;
+import cientistavuador.asteroidshooter.util.Interpolation;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector3fc;
-import static org.lwjgl.opengl.GL33C.*;
-import static org.lwjgl.openal.AL11.*;
 
 /**
  *
@@ -56,41 +58,72 @@ public class LaserShot implements Aab {
     public static final float LASER_MAX_DAMAGE = 25f;
     public static final float LASER_MAX_DAMAGE_WITH_FALLOFF = 10000f;
 
-    private final Spaceship spaceship;
+    //tests the whole path of the shot against the moving asteroids instead of only the end position
+    public static boolean SWEPT_COLLISION = true;
+
+    private Spaceship spaceship = null;
     private final Vector3f position = new Vector3f();
+    private final Vector3f previousPosition = new Vector3f();
     private final Vector3f direction = new Vector3f();
 
     private final Matrix4f model = new Matrix4f();
 
-    private final float damage = (float) (LASER_MIN_DAMAGE + ((LASER_MAX_DAMAGE - LASER_MIN_DAMAGE) * Math.random()));
+    private float damage = 0f;
 
     private final GeometryProgram.PointLight laserLight = new GeometryProgram.PointLight();
 
-    private int laserShotAudioSource;
+    private final Vector3f sweepMin = new Vector3f();
+    private final Vector3f sweepMax = new Vector3f();
+    private final Vector3f boxMin = new Vector3f();
+    private final Vector3f boxMax = new Vector3f();
+    private final Vector3f asteroidVelocity = new Vector3f();
+    private float sweepDeltaX = 0f;
+    private float sweepDeltaY = 0f;
+    private float sweepLimit = 0f;
+    private final Aab sweepBounds = new Aab() {
+        @Override
+        public void getMin(Vector3f min) {
+            min.set(LaserShot.this.sweepMin);
+        }
+
+        @Override
+        public void getMax(Vector3f max) {
+            max.set(LaserShot.this.sweepMax);
+        }
+    };
+    private final AabGrid.SweepTest<Asteroid> sweepTest = this::sweep;
+
+    private boolean laserLightRegistered = false;
+    private int laserShotVoice = 0;
     private boolean hitAsteroidOrScreen = false;
+    private Asteroid pendingHit = null;
+    private Asteroid hitAsteroid = null;
     private boolean frozen = false;
     private boolean audioEnabled = true;
 
-    protected LaserShot(Spaceship spaceship, Vector3fc position, Vector3fc direction, boolean audioEnabled) {
+    protected LaserShot() {
+        this.laserLight.setAmbient(0.0f, 0.008f, 0.0f);
+        this.laserLight.setDiffuse(0.0f, 0.020f, 0.0f);
+    }
+
+    //called every time the laser shot is taken from the pool
+    protected void reset(Spaceship spaceship, Vector3fc position, Vector3fc direction, boolean audioEnabled) {
         this.spaceship = spaceship;
         this.position.set(position);
+        this.previousPosition.set(position);
         this.direction.set(direction);
+        this.damage = (float) (LASER_MIN_DAMAGE + ((LASER_MAX_DAMAGE - LASER_MIN_DAMAGE) * spaceship.getController().getRandom().nextDouble()));
+        this.hitAsteroidOrScreen = false;
+        this.pendingHit = null;
+        this.hitAsteroid = null;
+        this.frozen = false;
         this.audioEnabled = audioEnabled;
         if (audioEnabled) {
-            this.laserShotAudioSource = alGenSources();
-            alSourcei(this.laserShotAudioSource, AL_BUFFER, Sounds.LASER.getAudioBuffer());
-            alSource3f(this.laserShotAudioSource, AL_POSITION, this.position.x(), this.position.y(), this.position.z());
-            alSourcePlay(this.laserShotAudioSource);
-            ALSourceUtil.deleteWhenStopped(this.laserShotAudioSource, () -> {
-                this.laserShotAudioSource = 0;
-            });
+            this.laserShotVoice = VoicePool.play(Sounds.LASER, VoicePool.Priority.LOW, this.position.x(), this.position.y(), this.position.z());
         } else {
-            this.laserShotAudioSource = 0;
+            this.laserShotVoice = 0;
         }
         this.laserLight.setPosition(position);
-        this.laserLight.setAmbient(0.0f, 0.008f, 0.0f);
-        this.laserLight.setDiffuse(0.0f, 0.020f, 0.0f);
-        GeometryProgram.INSTANCE.getLights().add(this.laserLight);
     }
 
     public boolean isAudioEnabled() {
@@ -117,6 +150,12 @@ public class LaserShot implements Aab {
         return position;
     }
 
+    //the asteroid this shot hit, null if it did not hit any; only valid during the tick of the hit,
+    //asteroids are pooled and a removed one may be reused as a unrelated asteroid afterwards
+    public Asteroid getHitAsteroid() {
+        return hitAsteroid;
+    }
+
     public float getDamage() {
         return damage;
     }
@@ -131,7 +170,12 @@ public class LaserShot implements Aab {
     }
 
     public void onLaserRemoved() {
-        GeometryProgram.INSTANCE.getLights().remove(this.laserLight);
+        this.pendingHit = null;
+        this.hitAsteroid = null;
+        if (this.laserLightRegistered) {
+            GeometryProgram.INSTANCE.removeLight(this.laserLight);
+            this.laserLightRegistered = false;
+        }
     }
 
     public boolean shouldBeRemoved() {
@@ -139,11 +183,15 @@ public class LaserShot implements Aab {
         return this.hitAsteroidOrScreen;
     }
 
-    public void loop(AsteroidController asteroids) {
+    //only touches this shot and reads the grid, may run in parallel with other shots
+    public void move(AsteroidController asteroids) {
+        this.pendingHit = null;
         if (this.hitAsteroidOrScreen) {
             return;
         }
 
+        this.previousPosition.set(this.position);
+
         if (!this.frozen) {
             this.position.add((float) (this.direction.x() * Main.TPF * LASER_SPEED),
                     (float) (this.direction.y() * Main.TPF * LASER_SPEED),
@@ -152,37 +200,121 @@ public class LaserShot implements Aab {
 
             this.laserLight.setPosition(this.position);
 
-            if (this.laserShotAudioSource != 0) {
-                alSource3f(this.laserShotAudioSource, AL_VELOCITY, this.direction.x() * LASER_SPEED, this.direction.y() * LASER_SPEED, 0f);
-                alSource3f(this.laserShotAudioSource, AL_POSITION, this.position.x(), this.position.y(), this.position.z());
+            if (SWEPT_COLLISION) {
+                this.pendingHit = querySwept(asteroids);
+            } else {
+                this.pendingHit = asteroids.getAsteroidsGrid().queryFirst(this, null);
             }
+        }
+    }
 
-            this.model
-                    .identity()
-                    .translate(this.position)
-                    .scale(LASER_RENDER_SCALE);
-
-            for (Asteroid s : asteroids.getAsteroids()) {
-                if (s.testAab2D(this)) {
-                    this.hitAsteroidOrScreen = true;
-                    if (this.audioEnabled) {
-                        int hitAudio = alGenSources();
-                        alSourcei(hitAudio, AL_BUFFER, Sounds.HIT.getAudioBuffer());
-                        alSource3f(hitAudio, AL_POSITION, this.position.x(), this.position.y(), this.position.z());
-                        alSourcePlay(hitAudio);
-                        ALSourceUtil.deleteWhenStopped(hitAudio, null);
-                    }
-                    s.onLaserHit(this);
-                    break;
-                }
+    private Asteroid querySwept(AsteroidController asteroids) {
+        float halfWidth = LASER_WIDTH / 2f;
+        float halfHeight = LASER_HEIGHT / 2f;
+        float startX = this.previousPosition.x();
+        float startY = this.previousPosition.y();
+        this.sweepDeltaX = this.position.x() - startX;
+        this.sweepDeltaY = this.position.y() - startY;
+
+        //the shot is removed once it leaves the screen, hits after that point must not count
+        Vector3f screenMin = this.boxMin;
+        Vector3f screenMax = this.boxMax;
+        Spaceship.SCREEN_AAB.getMin(screenMin);
+        Spaceship.SCREEN_AAB.getMax(screenMax);
+        this.sweepLimit = Aab.sweepExit2D(
+                screenMin.x() - halfWidth, screenMin.y() - halfHeight,
+                screenMax.x() + halfWidth, screenMax.y() + halfHeight,
+                startX, startY, this.sweepDeltaX, this.sweepDeltaY
+        );
+        if (Float.isNaN(this.sweepLimit)) {
+            return null;
+        }
+
+        //the asteroids are going to move after the shots in this tick
+        float margin = (float) (asteroids.getMaxAsteroidSpeed() * Main.TPF);
+        this.sweepMin.set(
+                Math.min(startX, this.position.x()) - halfWidth - margin,
+                Math.min(startY, this.position.y()) - halfHeight - margin,
+                this.position.z()
+        );
+        this.sweepMax.set(
+                Math.max(startX, this.position.x()) + halfWidth + margin,
+                Math.max(startY, this.position.y()) + halfHeight + margin,
+                this.position.z()
+        );
+
+        return asteroids.getAsteroidsGrid().querySweep(this.sweepBounds, null, this.sweepTest);
+    }
+
+    //swept in the frame of the asteroid, so its own movement in this tick is accounted for
+    private float sweep(Asteroid asteroid) {
+        asteroid.getVelocity(this.asteroidVelocity).mul((float) Main.TPF);
+        float deltaX = this.sweepDeltaX - this.asteroidVelocity.x();
+        float deltaY = this.sweepDeltaY - this.asteroidVelocity.y();
+
+        asteroid.getMin(this.boxMin);
+        asteroid.getMax(this.boxMax);
+        float time = Aab.sweepEnter2D(
+                this.boxMin.x() - (LASER_WIDTH / 2f), this.boxMin.y() - (LASER_HEIGHT / 2f),
+                this.boxMax.x() + (LASER_WIDTH / 2f), this.boxMax.y() + (LASER_HEIGHT / 2f),
+                this.previousPosition.x(), this.previousPosition.y(), deltaX, deltaY
+        );
+        if (time > this.sweepLimit) {
+            return -1f;
+        }
+        return time;
+    }
+
+    //audio and hits, must run on the update thread in list order
+    public void resolve() {
+        if (this.hitAsteroidOrScreen || this.frozen) {
+            return;
+        }
+
+        if (this.laserShotVoice != 0) {
+            VoicePool.setVelocity(this.laserShotVoice, this.direction.x() * LASER_SPEED, this.direction.y() * LASER_SPEED, 0f);
+            VoicePool.setPosition(this.laserShotVoice, this.position.x(), this.position.y(), this.position.z());
+        }
+
+        Asteroid s = this.pendingHit;
+        this.pendingHit = null;
+        if (s != null) {
+            this.hitAsteroidOrScreen = true;
+            this.hitAsteroid = s;
+            if (this.audioEnabled) {
+                VoicePool.play(Sounds.HIT, VoicePool.Priority.NORMAL, this.position.x(), this.position.y(), this.position.z());
             }
+            s.onLaserHit(this);
+        }
+    }
+
+    public void render(Matrix4f projectionView) {
+        if (this.hitAsteroidOrScreen) {
+            return;
         }
 
-        GeometryProgram.INSTANCE.setModel(this.model);
-        glDrawElements(GL_TRIANGLES, Geometries.LASER.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
+        if (!this.laserLightRegistered) {
+            GeometryProgram.INSTANCE.addLight(this.laserLight);
+            this.laserLightRegistered = true;
+        }
 
-        Main.NUMBER_OF_DRAWCALLS++;
-        Main.NUMBER_OF_VERTICES += Geometries.LASER.getAmountOfIndices();
+        float alpha = Main.TICK_ALPHA;
+        this.model
+                .identity()
+                .translate(
+                        Interpolation.lerp(this.previousPosition.x(), this.position.x(), alpha),
+                        Interpolation.lerp(this.previousPosition.y(), this.position.y(), alpha),
+                        Interpolation.lerp(this.previousPosition.z(), this.position.z(), alpha)
+                )
+                .scale(LASER_RENDER_SCALE);
+
+        //the laser texture has an alpha channel
+        RenderQueue.INSTANCE.geometry(
+                RenderQueue.Pass.BLENDED, Geometries.LASER,
+                Textures.LASER, Textures.LASER_LAYER, false,
+                projectionView, this.model,
+                1f, 1f, 1f, 1f
+        );
     }
 
     @Override
@@ -30,22 +30,19 @@ import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.asteroid.Asteroid;
 import cientistavuador.asteroidshooter.asteroid.AsteroidController;
 import cientistavuador.asteroidshooter.geometry.Geometries;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.shader.GeometryProgram;
 import cientistavuador.asteroidshooter.sound.Sounds;
+import cientistavuador.asteroidshooter.sound.VoicePool;
 import cientistavuador.asteroidshooter.texture.Textures;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
 import cientistavuador.asteroidshooter.util.Aab;
+import cientistavuador.asteroidshooter.util.Interpolation;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector2fc;
 import org.joml.Vector3f;
 import org.joml.Vector3fc;
 import static org.lwjgl.glfw.GLFW.*;
-import static org.lwjgl.openal.AL10.AL_BUFFER;
-import static org.lwjgl.openal.AL10.alGenSources;
-import static org.lwjgl.openal.AL10.alSourcePlay;
-import static org.lwjgl.openal.AL10.alSourcei;
-import static org.lwjgl.opengl.GL33C.*;
 
 /**
  *
@@ -80,7 +77,9 @@ public class Spaceship implements Aab {
 
     private final Matrix4f model = new Matrix4f();
     private final Vector3f position = new Vector3f();
+    private final Vector3f previousPosition = new Vector3f();
     private final Vector3f direction = new Vector3f();
+    private final Vector3f tempPosition = new Vector3f();
 
     private final SpaceshipController controller;
 
@@ -88,6 +87,9 @@ public class Spaceship implements Aab {
     private float cursorY = 0f;
 
     private float rotation = 0f;
+    private float previousRotation = 0f;
+    private float scaleX = 1f;
+    private float scaleY = 1f;
     private boolean debugEnabled = false;
     private float nextShot = 0f;
     private boolean frozen = false;
@@ -97,6 +99,7 @@ public class Spaceship implements Aab {
     private final GeometryProgram.PointLight deathZoneAlert = new GeometryProgram.PointLight();
     private final GeometryProgram.PointLight deathAsteroidAlarm = new GeometryProgram.PointLight();
     private float deathAsteroidAlarmTime = 0.0f;
+    private boolean lightsRegistered = false;
 
     public Spaceship(SpaceshipController controller) {
         this.controller = controller;
@@ -106,9 +109,6 @@ public class Spaceship implements Aab {
         this.deathZoneAlert.setDiffuse(0.0020f / 2f, 0.0020f / 2f, 0.0f);
 
         this.deathAsteroidAlarm.setEnabled(false);
-
-        GeometryProgram.INSTANCE.getLights().add(this.deathZoneAlert);
-        GeometryProgram.INSTANCE.getLights().add(this.deathAsteroidAlarm);
     }
 
     public SpaceshipController getController() {
@@ -132,18 +132,18 @@ public class Spaceship implements Aab {
     }
 
     public void onSpaceshipRemoved() {
-        GeometryProgram.INSTANCE.getLights().remove(this.deathZoneAlert);
-        GeometryProgram.INSTANCE.getLights().remove(this.deathAsteroidAlarm);
+        if (this.lightsRegistered) {
+            GeometryProgram.INSTANCE.removeLight(this.deathZoneAlert);
+            GeometryProgram.INSTANCE.removeLight(this.deathAsteroidAlarm);
+            this.lightsRegistered = false;
+        }
     }
 
     public void onDeathAsteroidIncoming(Asteroid asteroid) {
         this.deathAsteroidAlarmTime = SPACESHIP_DEATH_ASTEROID_ALARM_TIME;
         this.deathAsteroidAlarm.setEnabled(true);
         if (this.audioEnabled) {
-            int asteroidAlarm = alGenSources();
-            alSourcei(asteroidAlarm, AL_BUFFER, Sounds.ALARM.getAudioBuffer());
-            alSourcePlay(asteroidAlarm);
-            ALSourceUtil.deleteWhenStopped(asteroidAlarm, null);
+            VoicePool.play(Sounds.ALARM, VoicePool.Priority.HIGH);
         }
     }
 
@@ -176,7 +176,19 @@ public class Spaceship implements Aab {
         this.controller.onSpaceshipDestroyed(s);
     }
 
-    public void loop(Matrix4f projectionView, AsteroidController asteroids) {
+    public void checkAsteroidsCollision(AsteroidController asteroids) {
+        Asteroid s = asteroids.getAsteroidsGrid().queryFirst(this, null);
+        if (s != null) {
+            onAsteroidHit(s);
+        }
+    }
+
+    public void update() {
+        SpaceshipInput input = this.controller.getInput();
+
+        this.previousPosition.set(this.position);
+        this.previousRotation = this.rotation;
+
         float scaleX = 1f;
         float scaleY = 1f;
 
@@ -190,10 +202,12 @@ public class Spaceship implements Aab {
                 scaleY = windowWidth / ((float) windowHeight);
             }
         }
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
 
         if (this.testAab2D(AsteroidController.DEATH_ZONE)) {
             this.deathZoneAlert.setEnabled(true);
-            Vector3f pos = new Vector3f()
+            Vector3f pos = this.tempPosition
                     .set(SPACESHIP_DEATH_ZONE_ALERT_OFFSET.x(), SPACESHIP_DEATH_ZONE_ALERT_OFFSET.y(), 0.02f)
                     .rotateZ(this.rotation)
                     .add(this.position);
@@ -203,7 +217,7 @@ public class Spaceship implements Aab {
         }
         
         if (this.deathAsteroidAlarm.isEnabled()) {
-            Vector3f pos = new Vector3f()
+            Vector3f pos = this.tempPosition
                     .set(SPACESHIP_DEATH_ASTEROID_ALARM_OFFSET.x(), SPACESHIP_DEATH_ASTEROID_ALARM_OFFSET.y(), 0.02f)
                     .rotateZ(this.rotation)
                     .add(this.position);
@@ -227,25 +241,25 @@ public class Spaceship implements Aab {
             }
 
             float value = (float) (Main.TPF * SPEED);
-            if (glfwGetKey(Main.WINDOW_POINTER, GLFW_KEY_W) == GLFW_PRESS) {
+            if (input.isKeyPressed(GLFW_KEY_W)) {
                 this.position.add(0, value, 0);
                 if (!this.testAab2D(SCREEN_AAB)) {
                     this.position.add(0, -value, 0);
                 }
             }
-            if (glfwGetKey(Main.WINDOW_POINTER, GLFW_KEY_A) == GLFW_PRESS) {
+            if (input.isKeyPressed(GLFW_KEY_A)) {
                 this.position.add(-value, 0, 0);
                 if (!this.testAab2D(SCREEN_AAB)) {
                     this.position.add(value, 0, 0);
                 }
             }
-            if (glfwGetKey(Main.WINDOW_POINTER, GLFW_KEY_S) == GLFW_PRESS) {
+            if (input.isKeyPressed(GLFW_KEY_S)) {
                 this.position.add(0, -value, 0);
                 if (!this.testAab2D(SCREEN_AAB)) {
                     this.position.add(0, value, 0);
                 }
             }
-            if (glfwGetKey(Main.WINDOW_POINTER, GLFW_KEY_D) == GLFW_PRESS) {
+            if (input.isKeyPressed(GLFW_KEY_D)) {
                 this.position.add(value, 0, 0);
                 if (!this.testAab2D(SCREEN_AAB)) {
                     this.position.add(-value, 0, 0);
@@ -264,13 +278,7 @@ public class Spaceship implements Aab {
             }
             this.rotation = (float) Math.atan2(-this.direction.x(), this.direction.y());
 
-            this.model
-                    .identity()
-                    .translate(this.position)
-                    .scale(SPACESHIP_RENDER_SCALE * scaleX, SPACESHIP_RENDER_SCALE * scaleY, SPACESHIP_RENDER_SCALE) //.rotateZ(this.rotation)
-                    .rotateZ(this.rotation);
-
-            if (glfwGetKey(Main.WINDOW_POINTER, GLFW_KEY_SPACE) == GLFW_PRESS && this.nextShot <= 0f && !this.dead) {
+            if (input.isKeyPressed(GLFW_KEY_SPACE) && this.nextShot <= 0f && !this.dead) {
                 Vector2fc shotSide;
                 if (this.shotLeft) {
                     shotSide = SPACESHIP_SHOT_LEFT_OFFSET;
@@ -280,42 +288,47 @@ public class Spaceship implements Aab {
                 this.shotLeft = !this.shotLeft;
 
                 this.nextShot = SPACESHIP_SHOT_DELAY;
-                LaserShot shot = new LaserShot(this,
-                        new Vector3f()
-                                .add(shotSide.x(), shotSide.y(), 0f)
+                this.controller.fireLaserShot(
+                        this.tempPosition
+                                .set(shotSide.x(), shotSide.y(), 0f)
                                 .rotateZ(this.rotation)
                                 .mul(scaleX, scaleY, 1f)
                                 .add(this.position),
-                        this.direction,
-                        this.audioEnabled
+                        this.direction
                 );
-                shot.setFrozen(this.frozen);
-                this.controller.getLaserShots().add(shot);
             }
 
-            if (glfwGetKey(Main.WINDOW_POINTER, GLFW_KEY_R) == GLFW_PRESS) {
+            if (input.isKeyPressed(GLFW_KEY_R)) {
                 this.dead = true;
             }
         }
+    }
+
+    public void render(Matrix4f projectionView) {
+        if (!this.lightsRegistered) {
+            GeometryProgram.INSTANCE.addLight(this.deathZoneAlert);
+            GeometryProgram.INSTANCE.addLight(this.deathAsteroidAlarm);
+            this.lightsRegistered = true;
+        }
+
+        float alpha = Main.TICK_ALPHA;
+        this.model
+                .identity()
+                .translate(
+                        Interpolation.lerp(this.previousPosition.x(), this.position.x(), alpha),
+                        Interpolation.lerp(this.previousPosition.y(), this.position.y(), alpha),
+                        Interpolation.lerp(this.previousPosition.z(), this.position.z(), alpha)
+                )
+                .scale(SPACESHIP_RENDER_SCALE * this.scaleX, SPACESHIP_RENDER_SCALE * this.scaleY, SPACESHIP_RENDER_SCALE)
+                .rotateZ(Interpolation.lerpAngle(this.previousRotation, this.rotation, alpha));
 
         //spaceship
-        GeometryProgram.INSTANCE.use();
-        GeometryProgram.INSTANCE.setProjectionView(projectionView);
-        GeometryProgram.INSTANCE.setTextureUnit(0);
-        GeometryProgram.INSTANCE.setColor(1f, 1f, 1f, 1f);
-
-        glActiveTexture(GL_TEXTURE0);
-
-        GeometryProgram.INSTANCE.setLightingEnabled(true);
-        glBindVertexArray(Geometries.SPACESHIP.getVAO());
-        glBindTexture(GL_TEXTURE_2D, Textures.SPACESHIP);
-        GeometryProgram.INSTANCE.setModel(this.model);
-        glDrawElements(GL_TRIANGLES, Geometries.SPACESHIP.getAmountOfIndices(), GL_UNSIGNED_INT, 0);
-        glBindVertexArray(0);
-        Main.NUMBER_OF_DRAWCALLS++;
-        Main.NUMBER_OF_VERTICES += Geometries.SPACESHIP.getAmountOfIndices();
-
-        glUseProgram(0);
+        RenderQueue.INSTANCE.geometry(
+                RenderQueue.Pass.OPAQUE, Geometries.SPACESHIP,
+                Textures.SPACESHIP, Textures.SPACESHIP_LAYER, true,
+                projectionView, this.model,
+                1f, 1f, 1f, 1f
+        );
 
         if (this.debugEnabled) {
             this.queueAabRender();
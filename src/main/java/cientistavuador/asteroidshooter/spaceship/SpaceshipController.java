@@ -31,20 +31,23 @@ import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.asteroid.Asteroid;
 import cientistavuador.asteroidshooter.asteroid.AsteroidController;
 import cientistavuador.asteroidshooter.geometry.Geometries;
+import cientistavuador.asteroidshooter.geometry.RenderQueue;
 import cientistavuador.asteroidshooter.menus.Score;
+import cientistavuador.asteroidshooter.resources.mesh.MeshData;
 import cientistavuador.asteroidshooter.shader.GUIProgram;
-import cientistavuador.asteroidshooter.shader.GeometryProgram;
 import cientistavuador.asteroidshooter.sound.Sounds;
+import cientistavuador.asteroidshooter.sound.VoicePool;
 import cientistavuador.asteroidshooter.texture.Textures;
-import cientistavuador.asteroidshooter.util.ALSourceUtil;
 import cientistavuador.asteroidshooter.util.Cursors;
+import cientistavuador.asteroidshooter.util.DebrisParticles;
+import cientistavuador.asteroidshooter.util.ObjectPool;
+import cientistavuador.asteroidshooter.util.ParallelUpdate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 import org.joml.Vector3fc;
-import static org.lwjgl.openal.AL10.*;
-import static org.lwjgl.opengl.GL33C.*;
 
 /**
  *
@@ -52,12 +55,50 @@ import static org.lwjgl.opengl.GL33C.*;
  */
 public class SpaceshipController {
 
+    public static enum DebrisType {
+        BODY,
+        COCKPIT,
+        LEFTWING,
+        RIGHTWING
+        ;
+
+        public MeshData mesh() {
+            return switch (this) {
+                case BODY ->
+                    Geometries.DEBRIS_BODY;
+                case COCKPIT ->
+                    Geometries.DEBRIS_COCKPIT;
+                case LEFTWING ->
+                    Geometries.DEBRIS_LEFTWING;
+                case RIGHTWING ->
+                    Geometries.DEBRIS_RIGHTWING;
+            };
+        }
+        
+    }
+
     public static final float SPAWN_DELAY = 3f;
     public static final int AMOUNT_OF_LIVES = 4;
 
+    public static final float SPACESHIP_DEBRIS_SPEED = 0.4f;
+    public static final float SPACESHIP_DEBRIS_RENDER_SCALE = 0.02f;
+    public static final float SPACESHIP_DEBRIS_FADE_TIME = 3f;
+
+    private static final DebrisType[] DEBRIS_TYPES = DebrisType.values();
+
     private Spaceship spaceship = null;
+    private SpaceshipInput input = SpaceshipInput.GLFW_INPUT;
     private final List<LaserShot> laserShots = new ArrayList<>();
-    private final List<SpaceshipDebris> spaceshipDebris = new ArrayList<>();
+    private final ObjectPool<LaserShot> laserShotsPool = new ObjectPool<>("Laser Shots", LaserShot::new);
+    private AsteroidController movingAsteroids = null;
+    private final ParallelUpdate.RangeTask moveLaserShotsTask = (start, end) -> {
+        for (int i = start; i < end; i++) {
+            this.laserShots.get(i).move(this.movingAsteroids);
+        }
+    };
+    private final SplittableRandom random;
+    private final DebrisParticles spaceshipDebris;
+    private final Matrix4f spaceshipDebrisModel = new Matrix4f();
     private boolean audioEnabled = true;
     private boolean debugEnabled = false;
     private boolean frozen = false;
@@ -66,8 +107,10 @@ public class SpaceshipController {
     private int lives = 4;
     private boolean gameover = false;
 
-    public SpaceshipController(Score score) {
+    public SpaceshipController(Score score, long seed) {
         this.score = score;
+        this.random = new SplittableRandom(seed);
+        this.spaceshipDebris = new DebrisParticles("Spaceship Debris", this.random, SPACESHIP_DEBRIS_SPEED, SPACESHIP_DEBRIS_RENDER_SCALE, SPACESHIP_DEBRIS_FADE_TIME);
     }
 
     private void createSpaceship() {
@@ -81,6 +124,22 @@ public class SpaceshipController {
         return score;
     }
 
+    //only used from the serial part of the update
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public SpaceshipInput getInput() {
+        return input;
+    }
+
+    public void setInput(SpaceshipInput input) {
+        if (input == null) {
+            input = SpaceshipInput.NO_INPUT;
+        }
+        this.input = input;
+    }
+
     public boolean isAudioEnabled() {
         return audioEnabled;
     }
@@ -107,9 +166,7 @@ public class SpaceshipController {
         for (LaserShot s : this.laserShots) {
             s.setFrozen(frozen);
         }
-        for (SpaceshipDebris s : this.spaceshipDebris) {
-            s.setFrozen(frozen);
-        }
+        this.spaceshipDebris.setFrozen(frozen);
     }
 
     public boolean isDebugEnabled() {
@@ -127,6 +184,25 @@ public class SpaceshipController {
         return laserShots;
     }
 
+    public ObjectPool<LaserShot> getLaserShotsPool() {
+        return laserShotsPool;
+    }
+
+    public LaserShot fireLaserShot(Vector3fc position, Vector3fc direction) {
+        if (this.spaceship == null) {
+            throw new IllegalStateException("No spaceship to fire from.");
+        }
+        LaserShot shot = this.laserShotsPool.obtain();
+        shot.reset(this.spaceship, position, direction, this.audioEnabled);
+        shot.setFrozen(this.frozen);
+        this.laserShots.add(shot);
+        return shot;
+    }
+
+    public DebrisParticles getSpaceshipDebris() {
+        return spaceshipDebris;
+    }
+
     public Spaceship getSpaceship() {
         return spaceship;
     }
@@ -157,31 +233,24 @@ public class SpaceshipController {
                 .normalize();
         Vector3f randomDebrisDirection = new Vector3f();
 
-        SpaceshipDebris.DebrisType[] debrisTypes = SpaceshipDebris.DebrisType.values();
-        for (int i = 0; i < debrisTypes.length; i++) {
+        for (int i = 0; i < DEBRIS_TYPES.length; i++) {
             randomDebrisDirection
                     .set(debrisDirection)
-                    .rotateZ((float) Math.toRadians((Math.random() * randomRotation) - (randomRotation / 2f)))
+                    .rotateZ((float) Math.toRadians((this.random.nextDouble() * randomRotation) - (randomRotation / 2f)))
                     .normalize();
             this.spaceshipDebris.add(
-                    new SpaceshipDebris(
-                            debrisTypes[i],
-                            this,
-                            position.x(), position.y(), position.z(),
-                            randomDebrisDirection.x(), randomDebrisDirection.y(), randomDebrisDirection.z()
-                    ));
+                    position.x(), position.y(), position.z(),
+                    randomDebrisDirection.x(), randomDebrisDirection.y(), randomDebrisDirection.z(),
+                    DEBRIS_TYPES[i].ordinal()
+            );
         }
 
         if (this.audioEnabled) {
-            int explosionAudio = alGenSources();
-            alSourcei(explosionAudio, AL_BUFFER, Sounds.SPACESHIP_EXPLOSION.getAudioBuffer());
-            alSource3f(explosionAudio, AL_POSITION, position.x(), position.y(), position.z());
-            alSourcePlay(explosionAudio);
-            ALSourceUtil.deleteWhenStopped(explosionAudio, null);
+            VoicePool.play(Sounds.SPACESHIP_EXPLOSION, VoicePool.Priority.HIGH, position.x(), position.y(), position.z());
         }
     }
 
-    public void loop(Matrix4f projectionView, AsteroidController asteroids) {
+    public void update(AsteroidController asteroids) {
         if (!this.frozen) {
             this.spawnDelayCounter -= Main.TPF;
             if (this.spawnDelayCounter <= 0f) {
@@ -195,14 +264,10 @@ public class SpaceshipController {
                     }
                 }
             }
-
-            if (isSpaceshipAlive()) {
-                Cursors.setCursor(Cursors.StandardCursor.CROSSHAIR);
-            }
         }
 
         if (isSpaceshipAlive()) {
-            this.spaceship.loop(projectionView, asteroids);
+            this.spaceship.update();
             if (this.spaceship.shouldBeRemoved()) {
                 this.spaceship.onSpaceshipRemoved();
                 this.spaceship = null;
@@ -210,49 +275,61 @@ public class SpaceshipController {
             }
         }
 
-        //laser shots
-        GeometryProgram.INSTANCE.use();
-        GeometryProgram.INSTANCE.setProjectionView(projectionView);
-        GeometryProgram.INSTANCE.setTextureUnit(0);
-        GeometryProgram.INSTANCE.setColor(1f, 1f, 1f, 1f);
-
-        glActiveTexture(GL_TEXTURE0);
-
-        GeometryProgram.INSTANCE.setLightingEnabled(false);
-        List<LaserShot> copy = new ArrayList<>(this.laserShots);
-        glBindVertexArray(Geometries.LASER.getVAO());
-        glBindTexture(GL_TEXTURE_2D, Textures.LASER);
-        for (LaserShot s : copy) {
+        int kept = 0;
+        for (int i = 0; i < this.laserShots.size(); i++) {
+            LaserShot s = this.laserShots.get(i);
             if (s.shouldBeRemoved()) {
-                this.laserShots.remove(s);
                 s.onLaserRemoved();
+                this.laserShotsPool.free(s);
                 continue;
             }
-            s.loop(asteroids);
-            if (isDebugEnabled()) {
-                s.queueAabRender();
-            }
+            this.laserShots.set(kept, s);
+            kept++;
+        }
+        while (this.laserShots.size() > kept) {
+            this.laserShots.remove(this.laserShots.size() - 1);
         }
-        glBindVertexArray(0);
 
-        //spaceship debris
-        GeometryProgram.INSTANCE.setLightingEnabled(true);
-        GeometryProgram.INSTANCE.setProjectionView(projectionView);
-        GeometryProgram.INSTANCE.setTextureUnit(0);
+        //shots move in parallel, hits are resolved in list order
+        this.movingAsteroids = asteroids;
+        ParallelUpdate.forEach(this.laserShots.size(), this.moveLaserShotsTask);
+        this.movingAsteroids = null;
+        for (int i = 0; i < this.laserShots.size(); i++) {
+            this.laserShots.get(i).resolve();
+        }
 
-        glActiveTexture(GL_TEXTURE0);
-        glBindTexture(GL_TEXTURE_2D, Textures.SPACESHIP);
+        this.spaceshipDebris.update();
 
-        List<SpaceshipDebris> debrisCopy = new ArrayList<>(this.spaceshipDebris);
-        for (SpaceshipDebris debris : debrisCopy) {
-            if (debris.shouldBeRemoved()) {
-                this.spaceshipDebris.remove(debris);
-                continue;
+        this.laserShotsPool.report(Main.POOLS_COUNTER);
+        this.spaceshipDebris.report(Main.POOLS_COUNTER);
+    }
+
+    public void render(Matrix4f projectionView) {
+        if (isSpaceshipAlive()) {
+            if (!this.frozen) {
+                Cursors.setCursor(Cursors.StandardCursor.CROSSHAIR);
             }
-            debris.loop();
+            this.spaceship.render(projectionView);
         }
 
-        glUseProgram(0);
+        //laser shots
+        for (LaserShot s : this.laserShots) {
+            s.render(projectionView);
+            if (isDebugEnabled()) {
+                s.queueAabRender();
+            }
+        }
+
+        //spaceship debris
+        float alpha = Main.TICK_ALPHA;
+        for (int i = 0; i < this.spaceshipDebris.size(); i++) {
+            RenderQueue.INSTANCE.geometry(
+                    RenderQueue.Pass.BLENDED, DEBRIS_TYPES[this.spaceshipDebris.getType(i)].mesh(),
+                    Textures.SPACESHIP, Textures.SPACESHIP_LAYER, true,
+                    projectionView, this.spaceshipDebris.getModel(i, alpha, this.spaceshipDebrisModel),
+                    1f, 1f, 1f, this.spaceshipDebris.getOpacity(i)
+            );
+        }
     }
 
     public void mouseCursorMoved(double x, double y) {
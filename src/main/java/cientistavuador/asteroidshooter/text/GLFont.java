@@ -37,11 +37,13 @@ public class GLFont {
     private final Font font;
     private final int atlasTexture;
     private final int atlasBoundsTexture;
+    private final int layer;
 
-    protected GLFont(Font font, int atlasTexture, int atlasBoundsTexture) {
+    protected GLFont(Font font, int atlasTexture, int atlasBoundsTexture, int layer) {
         this.font = font;
         this.atlasTexture = atlasTexture;
         this.atlasBoundsTexture = atlasBoundsTexture;
+        this.layer = layer;
     }
 
     public Font getFont() {
@@ -55,6 +57,10 @@ public class GLFont {
     public int getAtlasBoundsTexture() {
         return this.atlasBoundsTexture;
     }
+
+    public int getLayer() {
+        return this.layer;
+    }
     
     public String getName() {
         return this.font.getName();
@@ -0,0 +1,154 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.text;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.resources.font.Font;
+import cientistavuador.asteroidshooter.resources.font.FontCharacter;
+
+/**
+ * Glyph placement shared by the renderer and the text runs, it has no OpenGL
+ * calls so it can run without a context.
+ *
+ * @author Cien
+ */
+public class GLFontLayout {
+
+    static interface GlyphConsumer {
+
+        public void push(
+                int unicodeIndex, float pxRange, float originX, float originY,
+                float size, float weight, int layer, int color
+        );
+    }
+
+    public static float lineSize(GLFontSpecification spec, String text) {
+        GLFont font = spec.getFont();
+        Font rawFont = font.getFont();
+
+        float fontSize = spec.getSize();
+        float spaceAdvance = font.getAdvance(font.getIndexOfUnicode(' '));
+
+        float size = 0f;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int unicode = text.codePointAt(i);
+            int unicodeIndex = font.getIndexOfUnicode(unicode);
+            FontCharacter rawCharacter = rawFont.getCharacter(unicodeIndex);
+            float advance = rawCharacter.getAdvance();
+
+            boolean skipPush = false;
+            
+            switch (unicode) {
+                case '\r' -> {
+                    skipPush = true;
+                }
+                case '\n' -> {
+                    skipPush = true;
+                }
+                case ' ' -> {
+                    size += (fontSize * spaceAdvance);
+                    skipPush = true;
+                }
+                case '\t' -> {
+                    size += (fontSize * spaceAdvance * 4);
+                    skipPush = true;
+                }
+            }
+            
+            if (!skipPush) {
+                size += (fontSize * advance);
+            }
+        }
+        
+        return size;
+    }
+
+    //cursor is {x, y}, it is read and written back so that layouts can continue across specifications
+    static void layout(float cursorReturnX, float[] cursor, GLFontSpecification spec, String text, GlyphConsumer consumer) {
+        GLFont font = spec.getFont();
+        Font rawFont = font.getFont();
+
+        float fontSize = spec.getSize();
+        float fontWeight = spec.getWeight();
+        int fontLayer = font.getLayer();
+        int fontColor = spec.getPackedColor();
+        float spaceAdvance = font.getAdvance(font.getIndexOfUnicode(' '));
+
+        float x = cursor[0];
+        float y = cursor[1];
+
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int unicode = text.codePointAt(i);
+            int unicodeIndex = font.getIndexOfUnicode(unicode);
+            FontCharacter rawCharacter = rawFont.getCharacter(unicodeIndex);
+            float advance = rawCharacter.getAdvance();
+
+            boolean skipPush = false;
+
+            switch (unicode) {
+                case '\r' -> {
+                    skipPush = true;
+                }
+                case '\n' -> {
+                    y -= fontSize;
+                    x = cursorReturnX;
+                    skipPush = true;
+                }
+                case ' ' -> {
+                    x += (fontSize * spaceAdvance);
+                    skipPush = true;
+                }
+                case '\t' -> {
+                    x += (fontSize * spaceAdvance * 4);
+                    skipPush = true;
+                }
+            }
+
+            if (!skipPush) {
+                float charWidth = rawCharacter.getAtlasBoundsRight() - rawCharacter.getAtlasBoundsLeft();
+                float charHeight = rawCharacter.getAtlasBoundsTop() - rawCharacter.getAtlasBoundsBottom();
+                float quadWidth = ((rawCharacter.getPlaneBoundsRight() - rawCharacter.getPlaneBoundsLeft()) * fontSize) * Main.WIDTH;
+                float quadHeight = ((rawCharacter.getPlaneBoundsTop() - rawCharacter.getPlaneBoundsBottom()) * fontSize) * Main.HEIGHT;
+
+                float pxRange = (((quadWidth / charWidth) * 4f) + ((quadHeight / charHeight) * 4f)) / 2f;
+
+                consumer.push(unicodeIndex, pxRange, x, y, fontSize, fontWeight, fontLayer, fontColor);
+                x += (fontSize * advance);
+            }
+        }
+
+        cursor[0] = x;
+        cursor[1] = y;
+    }
+
+    private GLFontLayout() {
+
+    }
+
+}
@@ -33,6 +33,8 @@ import static java.lang.Math.ceil;
 import static java.lang.Math.log;
 import static java.lang.Math.pow;
 import static java.lang.Math.sqrt;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayDeque;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -78,23 +80,29 @@ public class GLFontLoader {
             }
         }
 
+        //every font is a layer of the same array textures, so any mix of fonts can be drawn at once
+        int atlasWidth = 1;
+        int atlasHeight = 1;
+        int atlasBoundsSize = 1;
+        for (Font font : result) {
+            atlasWidth = Math.max(atlasWidth, font.getAtlasImage().getWidth());
+            atlasHeight = Math.max(atlasHeight, font.getAtlasImage().getHeight());
+            atlasBoundsSize = Math.max(atlasBoundsSize, (int) pow(2.0, ceil(log(sqrt(font.getCharactersLength() * 2)) / log(2.0))));
+        }
+
         ArrayDeque<Future<float[]>> futureFontAtlasBoundsDeque = new ArrayDeque<>();
-        int[] fontAtlasBoundsSizes = new int[result.length];
 
-        index = 0;
         for (Font font : result) {
             if (DEBUG_OUTPUT) {
                 System.out.println("Generating font atlas bounds of '" + font.getName() + "'");
             }
             final Font finalFont = font;
-            final int finalIndex = index;
+            final float finalAtlasWidth = atlasWidth;
+            final float finalAtlasHeight = atlasHeight;
+            final int finalAtlasBoundsSize = atlasBoundsSize;
             futureFontAtlasBoundsDeque.add(CompletableFuture.supplyAsync(() -> {
-                int fontAtlasBoundsSize = (int) pow(2.0, ceil(log(sqrt(finalFont.getCharactersLength() * 2)) / log(2.0)));
-                float[] data = new float[(fontAtlasBoundsSize * fontAtlasBoundsSize) * 4];
-                fontAtlasBoundsSizes[finalIndex] = fontAtlasBoundsSize;
+                float[] data = new float[(finalAtlasBoundsSize * finalAtlasBoundsSize) * 4];
 
-                float atlasWidth = finalFont.getAtlasImage().getWidth();
-                float atlasHeight = finalFont.getAtlasImage().getHeight();
                 for (int i = 0; i < finalFont.getCharactersLength(); i++) {
                     FontCharacter character = finalFont.getCharacter(i);
                     int dataIndex = i * 2 * 4;
@@ -103,78 +111,99 @@ public class GLFontLoader {
                     data[dataIndex + 2] = character.getPlaneBoundsBottom();
                     data[dataIndex + 3] = character.getPlaneBoundsTop();
 
-                    data[dataIndex + 4] = character.getAtlasBoundsLeft() / atlasWidth;
-                    data[dataIndex + 5] = character.getAtlasBoundsRight() / atlasWidth;
-                    data[dataIndex + 6] = character.getAtlasBoundsBottom() / atlasHeight;
-                    data[dataIndex + 7] = character.getAtlasBoundsTop() / atlasHeight;
+                    data[dataIndex + 4] = character.getAtlasBoundsLeft() / finalAtlasWidth;
+                    data[dataIndex + 5] = character.getAtlasBoundsRight() / finalAtlasWidth;
+                    data[dataIndex + 6] = character.getAtlasBoundsBottom() / finalAtlasHeight;
+                    data[dataIndex + 7] = character.getAtlasBoundsTop() / finalAtlasHeight;
                 }
 
                 if (DEBUG_OUTPUT) {
-                    System.out.println("Finished generating font atlas bounds of '" + font.getName() + "'");
+                    System.out.println("Finished generating font atlas bounds of '" + finalFont.getName() + "'");
                 }
                 return data;
             }));
-            index++;
         }
 
-        int[] fontAtlasTextures = new int[result.length];
+        if (DEBUG_OUTPUT) {
+            System.out.println("Uploading " + result.length + " atlas images to the GPU. (" + atlasWidth + "x" + atlasHeight + ")");
+        }
 
-        index = 0;
-        for (Font font : result) {
-            if (DEBUG_OUTPUT) {
-                System.out.println("Uploading atlas image of '" + font.getName() + "' to the GPU.");
-            }
-            int texture = glGenTextures();
-            fontAtlasTextures[index] = texture;
-            index++;
+        int atlasTexture = glGenTextures();
 
-            glActiveTexture(GL_TEXTURE0);
-            glBindTexture(GL_TEXTURE_2D, texture);
+        glActiveTexture(GL_TEXTURE0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, atlasTexture);
 
-            glTexImage2D(
-                    GL_TEXTURE_2D,
+        glTexImage3D(
+                GL_TEXTURE_2D_ARRAY,
+                0,
+                GL_RGBA8,
+                atlasWidth,
+                atlasHeight,
+                result.length,
+                0,
+                GL_RGBA,
+                GL_UNSIGNED_BYTE,
+                (ByteBuffer) null
+        );
+
+        index = 0;
+        for (Font font : result) {
+            glTexSubImage3D(
+                    GL_TEXTURE_2D_ARRAY,
                     0,
-                    GL_RGBA8,
+                    0, 0, index,
                     font.getAtlasImage().getWidth(),
                     font.getAtlasImage().getHeight(),
-                    0,
+                    1,
                     GL_RGBA,
                     GL_UNSIGNED_BYTE,
                     font.getAtlasImage().getData()
             );
+            index++;
+        }
 
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
 
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
 
-            glBindTexture(GL_TEXTURE_2D, 0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
 
-            if (DEBUG_OUTPUT) {
-                System.out.println("Finished uploading atlas image of '" + font.getName() + "' to the GPU.");
-            }
+        if (DEBUG_OUTPUT) {
+            System.out.println("Finished uploading " + result.length + " atlas images to the GPU. (" + atlasWidth + "x" + atlasHeight + ")");
         }
 
-        int[] fontAtlasBoundsTextures = new int[result.length];
+        int atlasBoundsTexture = glGenTextures();
+
+        glActiveTexture(GL_TEXTURE0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, atlasBoundsTexture);
+
+        glTexImage3D(
+                GL_TEXTURE_2D_ARRAY,
+                0,
+                GL_RGBA32F,
+                atlasBoundsSize,
+                atlasBoundsSize,
+                result.length,
+                0,
+                GL_RGBA,
+                GL_FLOAT,
+                (FloatBuffer) null
+        );
 
         Future<float[]> futureFontAtlasData;
         index = 0;
         while ((futureFontAtlasData = futureFontAtlasBoundsDeque.poll()) != null) {
             Font font = result[index];
-            int size;
-            
+
             float[] data;
             try {
                 data = futureFontAtlasData.get();
-                size = fontAtlasBoundsSizes[index];
             } catch (InterruptedException | ExecutionException ex) {
-                for (int i = 0; i < index; i++) {
-                    glDeleteTextures(fontAtlasBoundsTextures[i]);
-                }
-                for (int i = 0; i < fontAtlasTextures.length; i++) {
-                    glDeleteTextures(fontAtlasTextures[i]);
-                }
+                glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+                glDeleteTextures(atlasBoundsTexture);
+                glDeleteTextures(atlasTexture);
                 for (Font f : result) {
                     f.getAtlasImage().free();
                 }
@@ -182,55 +211,46 @@ public class GLFontLoader {
             }
 
             if (DEBUG_OUTPUT) {
-                System.out.println("Uploading atlas bounds image of '" + font.getName() + "' to the GPU. ("+size+"x"+size+")");
+                System.out.println("Uploading atlas bounds image of '" + font.getName() + "' to the GPU. (" + atlasBoundsSize + "x" + atlasBoundsSize + ")");
             }
-            
-            int texture = glGenTextures();
-            fontAtlasBoundsTextures[index] = texture;
-            index++;
-
-            glActiveTexture(GL_TEXTURE0);
-            glBindTexture(GL_TEXTURE_2D, texture);
 
-            glTexImage2D(
-                    GL_TEXTURE_2D,
-                    0,
-                    GL_RGBA32F,
-                    size,
-                    size,
+            glTexSubImage3D(
+                    GL_TEXTURE_2D_ARRAY,
                     0,
+                    0, 0, index,
+                    atlasBoundsSize,
+                    atlasBoundsSize,
+                    1,
                     GL_RGBA,
                     GL_FLOAT,
                     data
             );
-
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-
-            glTexParameterfv(GL_TEXTURE_2D, GL_TEXTURE_BORDER_COLOR, new float[] {0f, 0f, 0f, 0f});
-            
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_BORDER);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_BORDER);
-            
-            glBindTexture(GL_TEXTURE_2D, 0);
+            index++;
 
             if (DEBUG_OUTPUT) {
-                System.out.println("Finished uploading atlas bounds image of '" + font.getName() + "' to the GPU. ("+size+"x"+size+")");
+                System.out.println("Finished uploading atlas bounds image of '" + font.getName() + "' to the GPU. (" + atlasBoundsSize + "x" + atlasBoundsSize + ")");
             }
         }
-        
+
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+
+        glTexParameterfv(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_BORDER_COLOR, new float[] {0f, 0f, 0f, 0f});
+
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_BORDER);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_BORDER);
+
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+
         GLFont[] finalOutput = new GLFont[result.length];
         
         for (int i = 0; i < result.length; i++) {
             Font font = result[i];
             
-            int atlasTexture = fontAtlasTextures[i];
-            int atlasBoundsTexture = fontAtlasBoundsTextures[i];
-            
-            finalOutput[i] = new GLFont(font, atlasTexture, atlasBoundsTexture);
+            finalOutput[i] = new GLFont(font, atlasTexture, atlasBoundsTexture, i);
             
             if (DEBUG_OUTPUT) {
-                System.out.println("Finished Loading GLFont "+font.getName()+", atlas "+font.getAtlasImage().getWidth()+"x"+font.getAtlasImage().getHeight()+", atlas bounds "+fontAtlasBoundsSizes[i]+"x"+fontAtlasBoundsSizes[i]+", characters "+font.getCharactersLength());
+                System.out.println("Finished Loading GLFont "+font.getName()+", layer "+i+", atlas "+font.getAtlasImage().getWidth()+"x"+font.getAtlasImage().getHeight()+", characters "+font.getCharactersLength());
             }
         }
         
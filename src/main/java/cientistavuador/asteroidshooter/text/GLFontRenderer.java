@@ -27,12 +27,10 @@
 package cientistavuador.asteroidshooter.text;
 
 import cientistavuador.asteroidshooter.Main;
-import cientistavuador.asteroidshooter.resources.font.Font;
-import cientistavuador.asteroidshooter.resources.font.FontCharacter;
 import cientistavuador.asteroidshooter.ubo.FontTextUBO;
+import cientistavuador.asteroidshooter.ubo.UBOBindingPoints;
 import cientistavuador.asteroidshooter.util.ProgramCompiler;
 import java.util.HashMap;
-import java.util.regex.Pattern;
 import static org.lwjgl.opengl.GL33C.*;
 
 /**
@@ -45,13 +43,18 @@ public class GLFontRenderer {
             = """
             #version 330 core
             
-            uniform sampler2D atlasBounds;
-            uniform float size;
+            uniform sampler2DArray atlasBounds;
+            uniform vec2 offset;
+            uniform int instanceOffset;
             
             struct UnicodePoint {
                 int unicodeIndex;
                 float pxRange;
                 vec2 origin;
+                float size;
+                float weight;
+                int layer;
+                uint color;
             };
             
             layout (std140) uniform FontTextUBO {
@@ -63,22 +66,29 @@ public class GLFontRenderer {
             
             out vec2 texCoords;
             flat out float pxRange;
+            flat out float weight;
+            flat out int layer;
+            flat out vec4 color;
             
             void main() {
-                UnicodePoint point = text[gl_InstanceID];
+                UnicodePoint point = text[gl_InstanceID + instanceOffset];
                 
-                vec2 translation = point.origin;
+                vec2 translation = point.origin + offset;
                 int unicodeIndex = point.unicodeIndex;
+                float size = point.size;
                 
                 int atlasBoundsSize = textureSize(atlasBounds, 0).x;
-                ivec2 atlasBoundsPixel = ivec2((unicodeIndex * 2) % atlasBoundsSize, (unicodeIndex * 2) / atlasBoundsSize);
+                ivec3 atlasBoundsPixel = ivec3((unicodeIndex * 2) % atlasBoundsSize, (unicodeIndex * 2) / atlasBoundsSize, point.layer);
                 
                 vec4 planeBounds = texelFetch(atlasBounds, atlasBoundsPixel, 0);
-                vec4 atlasBounds = texelFetch(atlasBounds, atlasBoundsPixel + ivec2(1, 0), 0);
+                vec4 atlasBounds = texelFetch(atlasBounds, atlasBoundsPixel + ivec3(1, 0, 0), 0);
                 
                 gl_Position = vec4((planeBounds[leftRight] * size) + translation.x, (planeBounds[2 + bottomTop] * size) + translation.y, -1.0, 1.0);
                 texCoords = vec2(atlasBounds[leftRight], atlasBounds[2 + bottomTop]);
                 pxRange = point.pxRange;
+                weight = point.weight;
+                layer = point.layer;
+                color = vec4((uvec4(point.color) >> uvec4(0u, 8u, 16u, 24u)) & uvec4(0xFFu)) / 255.0;
             }
             """;
 
@@ -86,12 +96,13 @@ public class GLFontRenderer {
             = """
             #version 330 core
             
-            uniform sampler2D atlas;
-            uniform vec4 color;
-            uniform float weight;
+            uniform sampler2DArray atlas;
             
             in vec2 texCoords;
             flat in float pxRange;
+            flat in float weight;
+            flat in int layer;
+            flat in vec4 color;
             
             layout (location = 0) out vec4 fragColor;
             
@@ -100,7 +111,7 @@ public class GLFontRenderer {
             }
             
             void main() {
-                vec3 sdfColor = texture(atlas, texCoords).rgb;
+                vec3 sdfColor = texture(atlas, vec3(texCoords, layer)).rgb;
                 float distance = median(sdfColor.r, sdfColor.g, sdfColor.b);
                 float inverseWeight = 1.0 - weight;
                 float screenPxDistance = pxRange * (distance - inverseWeight);
@@ -119,9 +130,8 @@ public class GLFontRenderer {
     });
     private static final int ATLAS_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "atlas");
     private static final int ATLAS_BOUNDS_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "atlasBounds");
-    private static final int SIZE_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "size");
-    private static final int WEIGHT_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "weight");
-    private static final int COLOR_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "color");
+    private static final int OFFSET_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "offset");
+    private static final int INSTANCE_OFFSET_LOCATION = glGetUniformLocation(SHADER_PROGRAM, "instanceOffset");
     private static final int FONT_TEXT_UBO_INDEX = glGetUniformBlockIndex(SHADER_PROGRAM, "FontTextUBO");
 
     private static final int VAO;
@@ -153,58 +163,66 @@ public class GLFontRenderer {
         glBindVertexArray(0);
     }
 
+    public static int getVAO() {
+        return VAO;
+    }
+
+    //the queue draws text runs, see RenderQueue.text
+    public static void use() {
+        glUseProgram(SHADER_PROGRAM);
+    }
+
+    //atlas on unit 0, atlas bounds on unit 1 and the run blocks on UBOBindingPoints.TEXT_RUN
+    public static void setTextRunUniforms() {
+        glUniform1i(ATLAS_LOCATION, 0);
+        glUniform1i(ATLAS_BOUNDS_LOCATION, 1);
+        glUniformBlockBinding(SHADER_PROGRAM, FONT_TEXT_UBO_INDEX, UBOBindingPoints.TEXT_RUN);
+    }
+
+    public static void setOffset(float x, float y) {
+        glUniform2f(OFFSET_LOCATION, x, y);
+    }
+
+    public static void setInstanceOffset(int offset) {
+        glUniform1i(INSTANCE_OFFSET_LOCATION, offset);
+    }
+
     public static float lineSize(GLFontSpecification spec, String text) {
-        GLFont font = spec.getFont();
-        Font rawFont = font.getFont();
+        return GLFontLayout.lineSize(spec, text);
+    }
 
-        float fontSize = spec.getSize();
-        float spaceAdvance = font.getAdvance(font.getIndexOfUnicode(' '));
+    private static void bindTextures(int atlasTexture, int atlasBoundsTexture) {
+        glActiveTexture(GL_TEXTURE0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, atlasTexture);
 
-        float size = 0f;
-        int length = text.length();
-        for (int i = 0; i < length; i++) {
-            int unicode = text.codePointAt(i);
-            int unicodeIndex = font.getIndexOfUnicode(unicode);
-            FontCharacter rawCharacter = rawFont.getCharacter(unicodeIndex);
-            float advance = rawCharacter.getAdvance();
+        glActiveTexture(GL_TEXTURE1);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, atlasBoundsTexture);
+    }
 
-            boolean skipPush = false;
-            
-            switch (unicode) {
-                case '\r' -> {
-                    skipPush = true;
-                }
-                case '\n' -> {
-                    skipPush = true;
-                }
-                case ' ' -> {
-                    size += (fontSize * spaceAdvance);
-                    skipPush = true;
-                }
-                case '\t' -> {
-                    size += (fontSize * spaceAdvance * 4);
-                    skipPush = true;
-                }
-            }
-            
-            if (!skipPush) {
-                size += (fontSize * advance);
-            }
+    private static void drawInstances(int amount) {
+        glDrawArraysInstanced(GL_TRIANGLES, 0, 6, amount);
+        Main.NUMBER_OF_DRAWCALLS++;
+        Main.NUMBER_OF_VERTICES += 6 * amount;
+    }
+
+    private static void flush(FontTextUBO ubo) {
+        if (ubo.getIndex() != 0) {
+            ubo.flipAndUpdate();
+            drawInstances(ubo.getLength());
         }
-        
-        return size;
     }
 
     public static void render(float x, float y, GLFontSpecification font, String text) {
         render(x, y, new GLFontSpecification[]{font}, new String[]{text});
     }
 
+    //drawn immediately, frame text goes through RenderQueue.text so it is drawn in order
     public static void render(float x, float y, GLFontSpecification[] fonts, String[] texts) {
         if (fonts.length != texts.length) {
             throw new RuntimeException("Fonts and Texts must have the same length.");
         }
 
-        float cursorReturnX = x;
+        float[] cursor = {x, y};
 
         FontTextUBO ubo = FontTextUBO.DEFAULT;
 
@@ -213,77 +231,34 @@ public class GLFontRenderer {
 
         glUniform1i(ATLAS_LOCATION, 0);
         glUniform1i(ATLAS_BOUNDS_LOCATION, 1);
+        glUniform2f(OFFSET_LOCATION, 0f, 0f);
+        glUniform1i(INSTANCE_OFFSET_LOCATION, 0);
 
         glUniformBlockBinding(SHADER_PROGRAM, FONT_TEXT_UBO_INDEX, ubo.getBindingPoint());
 
-        for (int i = 0; i < fonts.length; i++) {
-            GLFontSpecification spec = fonts[i];
-            GLFont font = spec.getFont();
-            Font rawFont = font.getFont();
-
-            float fontSize = spec.getSize();
-            float spaceAdvance = font.getAdvance(font.getIndexOfUnicode(' '));
-
-            glActiveTexture(GL_TEXTURE0);
-            glBindTexture(GL_TEXTURE_2D, font.getAtlasTexture());
-
-            glActiveTexture(GL_TEXTURE1);
-            glBindTexture(GL_TEXTURE_2D, font.getAtlasBoundsTexture());
-
-            glUniform1f(SIZE_LOCATION, fontSize);
-            glUniform4f(COLOR_LOCATION, spec.getColorRed(), spec.getColorGreen(), spec.getColorBlue(), spec.getColorAlpha());
-            glUniform1f(WEIGHT_LOCATION, spec.getWeight());
-
-            String text = texts[i];
-
-            int length = text.length();
-            for (int j = 0; j < length; j++) {
-                int unicode = text.codePointAt(j);
-                int unicodeIndex = font.getIndexOfUnicode(unicode);
-                FontCharacter rawCharacter = rawFont.getCharacter(unicodeIndex);
-                float advance = rawCharacter.getAdvance();
-
-                boolean skipPush = false;
-
-                switch (unicode) {
-                    case '\r' -> {
-                        skipPush = true;
-                    }
-                    case '\n' -> {
-                        y -= fontSize;
-                        x = cursorReturnX;
-                        skipPush = true;
-                    }
-                    case ' ' -> {
-                        x += (fontSize * spaceAdvance);
-                        skipPush = true;
-                    }
-                    case '\t' -> {
-                        x += (fontSize * spaceAdvance * 4);
-                        skipPush = true;
-                    }
-                }
-
-                if (!skipPush) {
-                    float charWidth = rawCharacter.getAtlasBoundsRight() - rawCharacter.getAtlasBoundsLeft();
-                    float charHeight = rawCharacter.getAtlasBoundsTop() - rawCharacter.getAtlasBoundsBottom();
-                    float quadWidth = ((rawCharacter.getPlaneBoundsRight() - rawCharacter.getPlaneBoundsLeft()) * fontSize) * Main.WIDTH;
-                    float quadHeight = ((rawCharacter.getPlaneBoundsTop() - rawCharacter.getPlaneBoundsBottom()) * fontSize) * Main.HEIGHT;
-
-                    float pxRange = (((quadWidth / charWidth) * 4f) + ((quadHeight / charHeight) * 4f)) / 2f;
+        GLFontLayout.GlyphConsumer consumer = (unicodeIndex, pxRange, originX, originY, size, weight, layer, color) -> {
+            ubo.push(unicodeIndex, pxRange, originX, originY, size, weight, layer, color);
+            if (!ubo.canPush()) {
+                flush(ubo);
+            }
+        };
 
-                    ubo.push(unicodeIndex, pxRange, x, y);
-                    x += (fontSize * advance);
-                }
+        //size, color and weight travel with every glyph, only a different set of font textures breaks the batch
+        int boundAtlas = 0;
+        int boundAtlasBounds = 0;
+        for (int i = 0; i < fonts.length; i++) {
+            GLFont font = fonts[i].getFont();
 
-                if (!ubo.canPush() || (j >= length - 1)) {
-                    ubo.flipAndUpdate();
-                    glDrawArraysInstanced(GL_TRIANGLES, 0, 6, ubo.getLength());
-                    Main.NUMBER_OF_DRAWCALLS++;
-                    Main.NUMBER_OF_VERTICES += 6 * ubo.getLength();
-                }
+            if (font.getAtlasTexture() != boundAtlas || font.getAtlasBoundsTexture() != boundAtlasBounds) {
+                flush(ubo);
+                boundAtlas = font.getAtlasTexture();
+                boundAtlasBounds = font.getAtlasBoundsTexture();
+                bindTextures(boundAtlas, boundAtlasBounds);
             }
+
+            GLFontLayout.layout(x, cursor, fonts[i], texts[i], consumer);
         }
+        flush(ubo);
 
         glBindVertexArray(0);
         glUseProgram(0);
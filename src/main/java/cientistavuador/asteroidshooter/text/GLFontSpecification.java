@@ -48,6 +48,11 @@ public class GLFontSpecification {
     private final float colorGreen;
     private final float colorBlue;
     private final float colorAlpha;
+    private final int packedColor;
+
+    private static int packColorComponent(float component) {
+        return Math.round(Math.min(Math.max(component, 0f), 1f) * 255f);
+    }
 
     public GLFontSpecification(GLFont font, float size, float weight, float colorRed, float colorGreen, float colorBlue, float colorAlpha) {
         this.font = font;
@@ -57,6 +62,11 @@ public class GLFontSpecification {
         this.colorGreen = colorGreen;
         this.colorBlue = colorBlue;
         this.colorAlpha = colorAlpha;
+        //rgba8, red in the lowest byte
+        this.packedColor = packColorComponent(colorRed)
+                | (packColorComponent(colorGreen) << 8)
+                | (packColorComponent(colorBlue) << 16)
+                | (packColorComponent(colorAlpha) << 24);
     }
 
     public GLFontSpecification(GLFont font, float size) {
@@ -90,6 +100,10 @@ public class GLFontSpecification {
     public float getColorAlpha() {
         return colorAlpha;
     }
+
+    public int getPackedColor() {
+        return packedColor;
+    }
     
     public void getColor(Vector4f rec) {
         rec.set(this.colorRed, this.colorGreen, this.colorBlue, this.colorAlpha);
@@ -122,5 +136,42 @@ public class GLFontSpecification {
     public GLFontSpecification withColor(Vector4fc color) {
         return withColor(color.x(), color.y(), color.z(), color.w());
     }
-    
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 53 * hash + System.identityHashCode(this.font);
+        hash = 53 * hash + Float.floatToIntBits(this.size);
+        hash = 53 * hash + Float.floatToIntBits(this.weight);
+        hash = 53 * hash + this.packedColor;
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final GLFontSpecification other = (GLFontSpecification) obj;
+        if (this.font != other.font) {
+            return false;
+        }
+        if (Float.floatToIntBits(this.size) != Float.floatToIntBits(other.size)) {
+            return false;
+        }
+        if (Float.floatToIntBits(this.weight) != Float.floatToIntBits(other.weight)) {
+            return false;
+        }
+        return Float.floatToIntBits(this.colorRed) == Float.floatToIntBits(other.colorRed)
+                && Float.floatToIntBits(this.colorGreen) == Float.floatToIntBits(other.colorGreen)
+                && Float.floatToIntBits(this.colorBlue) == Float.floatToIntBits(other.colorBlue)
+                && Float.floatToIntBits(this.colorAlpha) == Float.floatToIntBits(other.colorAlpha);
+    }
+
 }
@@ -0,0 +1,230 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.text;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.ubo.FontTextUBO;
+import cientistavuador.asteroidshooter.util.ObjectCleaner;
+import java.util.Arrays;
+import static org.lwjgl.opengl.GL33C.*;
+
+/**
+ *
+ * @author Cien
+ */
+public class TextRun {
+
+    public static TextRun create() {
+        int ubo = glGenBuffers();
+        TextRun run = new TextRun(ubo);
+        ObjectCleaner.get().register(run, () -> {
+            Main.MAIN_TASKS.add(() -> {
+                glDeleteBuffers(ubo);
+            });
+        });
+        return run;
+    }
+
+    //glyph data is kept in blocks of FontTextUBO.SIZE so that every block can be bound as a whole uniform block
+    private static final int BLOCK_COMPONENTS = FontTextUBO.SIZE * FontTextUBO.NUMBER_OF_COMPONENTS;
+
+    //offset, length, atlas texture, atlas bounds texture
+    private static final int BATCH_SIZE = 4;
+
+    private final int ubo;
+
+    //null positions means that every text continues where the previous one stopped
+    private float[] positions = null;
+    private GLFontSpecification[] specifications = new GLFontSpecification[0];
+    private String[] texts = new String[0];
+
+    private int[] data = new int[BLOCK_COMPONENTS];
+    private int length = 0;
+    private int[] batches = new int[0];
+    private int amountOfBatches = 0;
+
+    private int uploadedCapacity = 0;
+    private boolean layoutRequired = true;
+    private int layoutWidth = -1;
+    private int layoutHeight = -1;
+    private int amountOfLayouts = 0;
+
+    public TextRun(int ubo) {
+        this.ubo = ubo;
+    }
+
+    public int getUBO() {
+        return ubo;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getAmountOfLayouts() {
+        return amountOfLayouts;
+    }
+
+    public GLFontSpecification[] getSpecifications() {
+        return specifications.clone();
+    }
+
+    public String[] getTexts() {
+        return texts.clone();
+    }
+
+    public int getAmountOfBatches() {
+        return amountOfBatches;
+    }
+
+    public int getBatchOffset(int batch) {
+        return this.batches[(batch * BATCH_SIZE) + 0];
+    }
+
+    public int getBatchLength(int batch) {
+        return this.batches[(batch * BATCH_SIZE) + 1];
+    }
+
+    public int getBatchAtlasTexture(int batch) {
+        return this.batches[(batch * BATCH_SIZE) + 2];
+    }
+
+    public int getBatchAtlasBoundsTexture(int batch) {
+        return this.batches[(batch * BATCH_SIZE) + 3];
+    }
+
+    public void set(GLFontSpecification spec, String text) {
+        if (this.positions == null
+                && this.specifications.length == 1
+                && this.specifications[0].equals(spec)
+                && this.texts[0].equals(text)) {
+            return;
+        }
+        set(null, new GLFontSpecification[]{spec}, new String[]{text});
+    }
+
+    public void set(GLFontSpecification[] specs, String[] texts) {
+        set(null, specs, texts);
+    }
+
+    //positions are x and y pairs, one for each text, relative to where the run is rendered
+    public void set(float[] positions, GLFontSpecification[] specs, String[] texts) {
+        if (specs.length != texts.length) {
+            throw new RuntimeException("Fonts and Texts must have the same length.");
+        }
+        if (positions != null && positions.length != specs.length * 2) {
+            throw new RuntimeException("Positions must have two components for each text.");
+        }
+
+        if (Arrays.equals(this.positions, positions)
+                && Arrays.equals(this.specifications, specs)
+                && Arrays.equals(this.texts, texts)) {
+            return;
+        }
+
+        this.positions = (positions == null ? null : positions.clone());
+        this.specifications = specs.clone();
+        this.texts = texts.clone();
+        this.layoutRequired = true;
+    }
+
+    private void push(
+            int unicodeIndex, float pxRange, float originX, float originY,
+            float size, float weight, int layer, int color
+    ) {
+        if ((this.length * FontTextUBO.NUMBER_OF_COMPONENTS) >= this.data.length) {
+            this.data = Arrays.copyOf(this.data, this.data.length + BLOCK_COMPONENTS);
+        }
+        int offset = this.length * FontTextUBO.NUMBER_OF_COMPONENTS;
+        this.data[offset + 0] = unicodeIndex;
+        this.data[offset + 1] = Float.floatToRawIntBits(pxRange);
+        this.data[offset + 2] = Float.floatToRawIntBits(originX);
+        this.data[offset + 3] = Float.floatToRawIntBits(originY);
+        this.data[offset + 4] = Float.floatToRawIntBits(size);
+        this.data[offset + 5] = Float.floatToRawIntBits(weight);
+        this.data[offset + 6] = layer;
+        this.data[offset + 7] = color;
+        this.length++;
+    }
+
+    public void validate() {
+        //pxRange depends on the window size
+        if (!this.layoutRequired && this.layoutWidth == Main.WIDTH && this.layoutHeight == Main.HEIGHT) {
+            return;
+        }
+
+        this.length = 0;
+        this.amountOfBatches = 0;
+        if (this.batches.length < this.specifications.length * BATCH_SIZE) {
+            this.batches = new int[this.specifications.length * BATCH_SIZE];
+        }
+
+        float[] cursor = {0f, 0f};
+        float cursorReturnX = 0f;
+        for (int i = 0; i < this.specifications.length; i++) {
+            GLFont font = this.specifications[i].getFont();
+
+            //all texts share one batch while their fonts share the same array textures
+            int last = (this.amountOfBatches - 1) * BATCH_SIZE;
+            if (this.amountOfBatches == 0
+                    || this.batches[last + 2] != font.getAtlasTexture()
+                    || this.batches[last + 3] != font.getAtlasBoundsTexture()) {
+                int next = this.amountOfBatches * BATCH_SIZE;
+                this.batches[next + 0] = this.length;
+                this.batches[next + 1] = 0;
+                this.batches[next + 2] = font.getAtlasTexture();
+                this.batches[next + 3] = font.getAtlasBoundsTexture();
+                this.amountOfBatches++;
+            }
+
+            if (this.positions != null) {
+                cursorReturnX = this.positions[(i * 2) + 0];
+                cursor[0] = cursorReturnX;
+                cursor[1] = this.positions[(i * 2) + 1];
+            }
+
+            int start = this.length;
+            GLFontLayout.layout(cursorReturnX, cursor, this.specifications[i], this.texts[i], this::push);
+            this.batches[((this.amountOfBatches - 1) * BATCH_SIZE) + 1] += this.length - start;
+        }
+
+        glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
+        if (this.uploadedCapacity != this.data.length) {
+            glBufferData(GL_UNIFORM_BUFFER, this.data, GL_STATIC_DRAW);
+            this.uploadedCapacity = this.data.length;
+        } else {
+            glBufferSubData(GL_UNIFORM_BUFFER, 0, this.data);
+        }
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+
+        this.layoutRequired = false;
+        this.layoutWidth = Main.WIDTH;
+        this.layoutHeight = Main.HEIGHT;
+        this.amountOfLayouts++;
+    }
+
+}
@@ -26,10 +26,9 @@
  */
 package cientistavuador.asteroidshooter.texture;
 
-import static org.lwjgl.opengl.GL33C.*;
-
 /**
- *
+ * every texture is a GL_TEXTURE_2D_ARRAY, sampled at its layer
+ * 
  * @author Cien
  */
 public class Textures {
@@ -47,21 +46,50 @@ public class Textures {
     public static final int SPACESHIP_ICON;
     public static final int SPACESHIP_ICON_DESTROYED;
     
+    public static final int STONE_LAYER;
+    public static final int SPACESHIP_LAYER;
+    public static final int LASER_LAYER;
+    public static final int AUDIO_OFF_LAYER;
+    public static final int AUDIO_ON_LAYER;
+    public static final int BUTTON_LAYER;
+    public static final int CONTROLS_LAYER;
+    public static final int TITLE_LAYER;
+    public static final int BUTTON_HOVER_LAYER;
+    public static final int PLANET_BACKGROUND_LAYER;
+    public static final int SPACESHIP_ICON_LAYER;
+    public static final int SPACESHIP_ICON_DESTROYED_LAYER;
+    
     static {
-        int[] textures = TexturesLoader.load(
-                "stone.png",
-                "spaceship.png",
-                "laser.png",
-                "audio_off.png",
-                "audio_on.png",
-                "button.png",
-                "controls.png",
-                "title.png",
-                "button_hover.png",
-                "planet_background.png",
-                "spaceship_icon.png",
-                "spaceship_icon_destroyed.png"
-        );
+        String[] names = {
+            "stone.png",
+            "spaceship.png",
+            "laser.png",
+            "audio_off.png",
+            "audio_on.png",
+            "button.png",
+            "controls.png",
+            "title.png",
+            "button_hover.png",
+            "planet_background.png",
+            "spaceship_icon.png",
+            "spaceship_icon_destroyed.png"
+        };
+        boolean[] nearest = {
+            false,
+            false,
+            false,
+            false,
+            false,
+            true,
+            true,
+            false,
+            true,
+            true,
+            true,
+            true
+        };
+        int[] layers = new int[names.length];
+        int[] textures = TexturesLoader.load(names, nearest, layers);
         
         STONE = textures[0];
         SPACESHIP = textures[1];
@@ -76,27 +104,18 @@ public class Textures {
         SPACESHIP_ICON = textures[10];
         SPACESHIP_ICON_DESTROYED = textures[11];
         
-        glActiveTexture(GL_TEXTURE0);
-        
-        glBindTexture(GL_TEXTURE_2D, BUTTON);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        
-        glBindTexture(GL_TEXTURE_2D, BUTTON_HOVER);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        
-        glBindTexture(GL_TEXTURE_2D, CONTROLS);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        
-        glBindTexture(GL_TEXTURE_2D, PLANET_BACKGROUND);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        
-        glBindTexture(GL_TEXTURE_2D, SPACESHIP_ICON);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        
-        glBindTexture(GL_TEXTURE_2D, SPACESHIP_ICON_DESTROYED);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        
-        glBindTexture(GL_TEXTURE_2D, 0);
+        STONE_LAYER = layers[0];
+        SPACESHIP_LAYER = layers[1];
+        LASER_LAYER = layers[2];
+        AUDIO_OFF_LAYER = layers[3];
+        AUDIO_ON_LAYER = layers[4];
+        BUTTON_LAYER = layers[5];
+        CONTROLS_LAYER = layers[6];
+        TITLE_LAYER = layers[7];
+        BUTTON_HOVER_LAYER = layers[8];
+        PLANET_BACKGROUND_LAYER = layers[9];
+        SPACESHIP_ICON_LAYER = layers[10];
+        SPACESHIP_ICON_DESTROYED_LAYER = layers[11];
     }
     
     public static void init() {
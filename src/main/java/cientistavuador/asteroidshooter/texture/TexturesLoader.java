@@ -28,14 +28,17 @@ package cientistavuador.asteroidshooter.texture;
 
 import cientistavuador.asteroidshooter.resources.image.ImageResources;
 import cientistavuador.asteroidshooter.resources.image.NativeImage;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import static org.lwjgl.opengl.EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT;
 import static org.lwjgl.opengl.EXTTextureFilterAnisotropic.GL_TEXTURE_MAX_ANISOTROPY_EXT;
 import org.lwjgl.opengl.GL;
 import static org.lwjgl.opengl.GL33C.*;
+import static org.lwjgl.system.MemoryUtil.*;
 
 /**
  *
@@ -46,97 +49,280 @@ public class TexturesLoader {
     public static final boolean USE_ANISOTROPIC_FILTERING = true;
     public static final boolean DEBUG_OUTPUT = true;
     
-    public static int[] load(String... names) {
+    //textures with the same size and filtering become layers of the same array
+    public static final boolean PACK_TEXTURE_ARRAYS = true;
+    
+    //decode workers write into mapped pixel buffers instead of client memory
+    public static final boolean USE_PIXEL_BUFFERS = true;
+    
+    private static long uploadedBytes = 0;
+    private static long uploadTime = 0;
+
+    public static long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    public static long getUploadTime() {
+        return uploadTime;
+    }
+    
+    private static void setupArray(boolean nearestMagFilter) {
+        glGenerateMipmap(GL_TEXTURE_2D_ARRAY);
+
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, (nearestMagFilter ? GL_NEAREST : GL_LINEAR));
+
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_REPEAT);
+
+        if (USE_ANISOTROPIC_FILTERING && GL.getCapabilities().GL_EXT_texture_filter_anisotropic) {
+            glTexParameterf(
+                    GL_TEXTURE_2D_ARRAY,
+                    GL_TEXTURE_MAX_ANISOTROPY_EXT,
+                    glGetFloat(GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT)
+            );
+        }
+    }
+    
+    //returns the GL_TEXTURE_2D_ARRAY of each texture and writes its layer into layers
+    public static int[] load(String[] names, boolean[] nearestMagFilter, int[] layers) {
         if (names.length == 0) {
             if (DEBUG_OUTPUT) {
                 System.out.println("No textures to load.");
             }
             return new int[0];
         }
+        if (nearestMagFilter.length != names.length || layers.length != names.length) {
+            throw new IllegalArgumentException("Names, filters and layers must have the same length.");
+        }
 
         if (DEBUG_OUTPUT) {
             System.out.println("Loading textures...");
         }
-
-        ArrayDeque<Future<NativeImage>> futureDatas = new ArrayDeque<>();
-        NativeImage[] images = new NativeImage[names.length];
-
-        for (int i = 0; i < images.length; i++) {
+        
+        final int length = names.length;
+        
+        //read the files and their sizes, decoding only starts once the arrays exist
+        ByteBuffer[] files = new ByteBuffer[length];
+        int[] widths = new int[length];
+        int[] heights = new int[length];
+        ArrayDeque<Future<?>> futureFiles = new ArrayDeque<>();
+        for (int i = 0; i < length; i++) {
             final int index = i;
-            if (DEBUG_OUTPUT) {
-                System.out.println("Loading texture '" + names[index] + "' with index " + index);
-            }
-            futureDatas.add(CompletableFuture.supplyAsync(() -> {
-                NativeImage e = ImageResources.load(names[index], 4);
-                if (DEBUG_OUTPUT) {
-                    System.out.println("Finished loading texture '" + names[index] + "' with index " + index+", "+e.getWidth()+"x"+e.getHeight());
-                }
-                return e;
+            futureFiles.add(CompletableFuture.runAsync(() -> {
+                ByteBuffer file = ImageResources.read(names[index]);
+                files[index] = file;
+                int[] size = ImageResources.size(names[index], file);
+                widths[index] = size[0];
+                heights[index] = size[1];
             }));
         }
-
-        Future<NativeImage> future;
-        int index = 0;
+        
+        Future<?> future;
         RuntimeException exception = null;
-        while ((future = futureDatas.poll()) != null) {
+        while ((future = futureFiles.poll()) != null) {
             try {
-                images[index] = future.get();
-                index++;
+                future.get();
             } catch (InterruptedException | ExecutionException ex) {
                 exception = new RuntimeException(ex);
             }
         }
         if (exception != null) {
-            for (NativeImage image : images) {
-                if (image == null) {
-                    continue;
+            for (ByteBuffer file : files) {
+                if (file != null) {
+                    memFree(file);
                 }
-                image.free();
             }
             throw exception;
         }
         
-        int[] textures = new int[images.length];
+        //group the images into arrays, in order of first appearance
+        int[] group = new int[length];
+        int amountOfGroups = 0;
+        for (int i = 0; i < length; i++) {
+            group[i] = -1;
+            if (PACK_TEXTURE_ARRAYS) {
+                for (int j = 0; j < i; j++) {
+                    if (widths[j] == widths[i]
+                            && heights[j] == heights[i]
+                            && nearestMagFilter[j] == nearestMagFilter[i]) {
+                        group[i] = group[j];
+                        break;
+                    }
+                }
+            }
+            if (group[i] == -1) {
+                group[i] = amountOfGroups++;
+            }
+        }
+        
+        int[] textures = new int[length];
+        int[] groupTextures = new int[amountOfGroups];
+        int[] groupFirst = new int[amountOfGroups];
+        int[] groupRemaining = new int[amountOfGroups];
+        int[] groupPixelBuffers = new int[amountOfGroups];
+        ByteBuffer[] groupMapped = new ByteBuffer[amountOfGroups];
+        long bytes = 0;
+        long upload = 0;
+        long totalStart = System.nanoTime();
         
         glActiveTexture(GL_TEXTURE0);
-        for (int i = 0; i < textures.length; i++) {
-            if (DEBUG_OUTPUT) {
-                System.out.println("Sending texture '" + names[i] + "', index " + i + " to the gpu.");
+        for (int g = 0; g < amountOfGroups; g++) {
+            groupFirst[g] = -1;
+            for (int i = 0; i < length; i++) {
+                if (group[i] == g) {
+                    if (groupFirst[g] == -1) {
+                        groupFirst[g] = i;
+                    }
+                    layers[i] = groupRemaining[g]++;
+                }
             }
-            NativeImage image = images[i];
+            int width = widths[groupFirst[g]];
+            int height = heights[groupFirst[g]];
             
             int texture = glGenTextures();
-            glBindTexture(GL_TEXTURE_2D, texture);
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, image.getWidth(), image.getHeight(), 0, GL_RGBA, GL_UNSIGNED_BYTE, image.getData());
+            glBindTexture(GL_TEXTURE_2D_ARRAY, texture);
+            glTexImage3D(GL_TEXTURE_2D_ARRAY, 0, GL_RGBA8, width, height, groupRemaining[g], 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+            groupTextures[g] = texture;
             
-            glGenerateMipmap(GL_TEXTURE_2D);
+            if (USE_PIXEL_BUFFERS) {
+                long size = ((long) width) * height * 4 * groupRemaining[g];
+                int pixelBuffer = glGenBuffers();
+                glBindBuffer(GL_PIXEL_UNPACK_BUFFER, pixelBuffer);
+                glBufferData(GL_PIXEL_UNPACK_BUFFER, size, GL_STREAM_DRAW);
+                groupMapped[g] = glMapBufferRange(GL_PIXEL_UNPACK_BUFFER, 0, size, GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT);
+                groupPixelBuffers[g] = pixelBuffer;
+                if (groupMapped[g] == null) {
+                    throw new RuntimeException("Failed to map pixel buffer of " + size + " bytes.");
+                }
+            }
+        }
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+        upload += System.nanoTime() - totalStart;
+        
+        //decode in parallel, each finished texture is uploaded by the main thread while the others still decode
+        NativeImage[] images = new NativeImage[length];
+        RuntimeException[] failures = new RuntimeException[length];
+        long[] decodeTimes = new long[length];
+        LinkedBlockingQueue<Integer> decoded = new LinkedBlockingQueue<>();
+        for (int i = 0; i < length; i++) {
+            final int index = i;
+            final ByteBuffer mapped = groupMapped[group[i]];
+            CompletableFuture.runAsync(() -> {
+                try {
+                    long start = System.nanoTime();
+                    NativeImage image = ImageResources.decode(names[index], files[index], 4);
+                    if (mapped != null) {
+                        //workers write straight into the mapped staging buffer
+                        long layerSize = ((long) widths[index]) * heights[index] * 4;
+                        memCopy(memAddress(image.getData()), memAddress(mapped) + (layerSize * layers[index]), layerSize);
+                        image.free();
+                    } else {
+                        images[index] = image;
+                    }
+                    decodeTimes[index] = System.nanoTime() - start;
+                } catch (RuntimeException ex) {
+                    failures[index] = ex;
+                } finally {
+                    memFree(files[index]);
+                    decoded.add(index);
+                }
+            });
+        }
+        
+        for (int received = 0; received < length; received++) {
+            int index;
+            try {
+                index = decoded.take();
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            if (failures[index] != null) {
+                if (exception == null) {
+                    exception = failures[index];
+                }
+                continue;
+            }
+            if (exception != null) {
+                if (images[index] != null) {
+                    images[index].free();
+                }
+                continue;
+            }
             
-            image.free();
-
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
+            int g = group[index];
+            int width = widths[index];
+            int height = heights[index];
+            textures[index] = groupTextures[g];
+            groupRemaining[g]--;
             
-            if (USE_ANISOTROPIC_FILTERING && GL.getCapabilities().GL_EXT_texture_filter_anisotropic) {
-                glTexParameterf(
-                        GL_TEXTURE_2D,
-                        GL_TEXTURE_MAX_ANISOTROPY_EXT,
-                        glGetFloat(GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT)
-                );
+            glBindTexture(GL_TEXTURE_2D_ARRAY, groupTextures[g]);
+            if (!USE_PIXEL_BUFFERS) {
+                long start = System.nanoTime();
+                glTexSubImage3D(GL_TEXTURE_2D_ARRAY, 0, 0, 0, layers[index], width, height, 1, GL_RGBA, GL_UNSIGNED_BYTE, images[index].getData());
+                images[index].free();
+                images[index] = null;
+                bytes += ((long) width) * height * 4;
+                long elapsed = System.nanoTime() - start;
+                upload += elapsed;
+                if (DEBUG_OUTPUT) {
+                    System.out.println("Texture '" + names[index] + "', index " + index + ", " + width + "x" + height + ": decoded in " + String.format("%.3f", decodeTimes[index] / 1E6d) + "ms, uploaded to layer " + layers[index] + " in " + String.format("%.3f", elapsed / 1E6d) + "ms");
+                }
+            } else if (DEBUG_OUTPUT) {
+                System.out.println("Texture '" + names[index] + "', index " + index + ", " + width + "x" + height + ": decoded in " + String.format("%.3f", decodeTimes[index] / 1E6d) + "ms");
             }
             
-            glBindTexture(GL_TEXTURE_2D, 0);
-            
-            textures[i] = texture;
-            if (DEBUG_OUTPUT) {
-                System.out.println("Finished sending texture '" + names[i] + "', index " + i + " to the gpu with object id "+texture+".");
+            if (groupRemaining[g] == 0) {
+                long start = System.nanoTime();
+                if (USE_PIXEL_BUFFERS) {
+                    //every layer is in the staging buffer, the copies of the whole array are issued at once
+                    glBindBuffer(GL_PIXEL_UNPACK_BUFFER, groupPixelBuffers[g]);
+                    glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+                    groupMapped[g] = null;
+                    long layerSize = ((long) width) * height * 4;
+                    for (int i = 0; i < length; i++) {
+                        if (group[i] == g) {
+                            glTexSubImage3D(GL_TEXTURE_2D_ARRAY, 0, 0, 0, layers[i], width, height, 1, GL_RGBA, GL_UNSIGNED_BYTE, layerSize * layers[i]);
+                            bytes += layerSize;
+                        }
+                    }
+                    glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+                    glDeleteBuffers(groupPixelBuffers[g]);
+                    groupPixelBuffers[g] = 0;
+                }
+                setupArray(nearestMagFilter[groupFirst[g]]);
+                long elapsed = System.nanoTime() - start;
+                upload += elapsed;
+                if (DEBUG_OUTPUT) {
+                    System.out.println("Texture array " + g + " of " + width + "x" + height + " with object id " + groupTextures[g] + " is ready, uploaded in " + String.format("%.3f", elapsed / 1E6d) + "ms");
+                }
             }
+            glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
         }
         
+        if (exception != null) {
+            for (int g = 0; g < amountOfGroups; g++) {
+                if (groupPixelBuffers[g] != 0) {
+                    glBindBuffer(GL_PIXEL_UNPACK_BUFFER, groupPixelBuffers[g]);
+                    if (groupMapped[g] != null) {
+                        glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER);
+                    }
+                    glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+                    glDeleteBuffers(groupPixelBuffers[g]);
+                }
+                glDeleteTextures(groupTextures[g]);
+            }
+            throw exception;
+        }
+        
+        //time taken by the driver to accept the data, the transfer may still be in progress
+        TexturesLoader.uploadedBytes += bytes;
+        TexturesLoader.uploadTime += upload;
+        
         if (DEBUG_OUTPUT) {
-            System.out.println("Finished loading textures.");
+            long total = System.nanoTime() - totalStart;
+            System.out.println("Finished loading textures, " + length + " texture(s) in " + amountOfGroups + " array(s), uploaded " + bytes + " bytes in " + String.format("%.3f", upload / 1E6d) + "ms of main thread time, " + String.format("%.3f", total / 1E6d) + "ms in total.");
         }
         return textures;
     }
@@ -28,22 +28,32 @@ package cientistavuador.asteroidshooter.ubo;
 
 import cientistavuador.asteroidshooter.Main;
 import cientistavuador.asteroidshooter.util.ObjectCleaner;
+import java.nio.IntBuffer;
 import static org.lwjgl.opengl.GL33C.*;
+import org.lwjgl.system.MemoryUtil;
 
 /**
+ * Streamed glyph block, every update orphans the buffer storage and uploads
+ * only the pushed glyphs, so the driver never waits for the previous draw.
+ * <p>
+ * A glyph is two std140 vec4s (unicode index, pxRange, origin x, origin y,
+ * size, weight, font layer, rgba8 color), 512 glyphs fill the 16 KB that
+ * every implementation guarantees for a uniform block.
  *
  * @author Cien
  */
 public class FontTextUBO {
     
     public static final FontTextUBO DEFAULT = create(UBOBindingPoints.FONT_TEXT);
-    public static final int SIZE = 1024;
-    public static final int NUMBER_OF_COMPONENTS = 4;
+    public static final int SIZE = 512;
+    public static final int NUMBER_OF_COMPONENTS = 8;
 
     public static FontTextUBO create(int bindingPoint) {
         int ubo = glGenBuffers();
-        FontTextUBO fontTextUbo = new FontTextUBO(bindingPoint, ubo);
+        IntBuffer data = MemoryUtil.memCallocInt(SIZE * NUMBER_OF_COMPONENTS);
+        FontTextUBO fontTextUbo = new FontTextUBO(bindingPoint, ubo, data);
         ObjectCleaner.get().register(fontTextUbo, () -> {
+            MemoryUtil.memFree(data);
             Main.MAIN_TASKS.add(() -> {
                 glDeleteBuffers(ubo);
             });
@@ -54,16 +64,19 @@ public class FontTextUBO {
     private final int ubo;
     private final int bindingPoint;
     
-    private final int[] data = new int[SIZE * 4];
+    private final IntBuffer data;
     private int index = 0;
     private int length = 0;
+    
+    private long uploadedBytes = 0;
 
-    public FontTextUBO(int bindingPoint, int ubo) {
+    private FontTextUBO(int bindingPoint, int ubo, IntBuffer data) {
         this.bindingPoint = bindingPoint;
         this.ubo = ubo;
+        this.data = data;
         
         glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
-        glBufferData(GL_UNIFORM_BUFFER, this.data, GL_STATIC_DRAW);
+        glBufferData(GL_UNIFORM_BUFFER, this.data, GL_STREAM_DRAW);
         glBindBuffer(GL_UNIFORM_BUFFER, 0);
 
         glBindBufferBase(GL_UNIFORM_BUFFER, bindingPoint, this.ubo);
@@ -84,16 +97,29 @@ public class FontTextUBO {
     public int getUBO() {
         return ubo;
     }
+
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
     
     public boolean canPush() {
-        return this.index < this.data.length;
+        return this.index < SIZE;
     }
     
-    public void push(int unicodeIndex, float pxRange, float originX, float originY) {
-        this.data[(this.index * 4) + 0] = unicodeIndex;
-        this.data[(this.index * 4) + 1] = Float.floatToRawIntBits(pxRange);
-        this.data[(this.index * 4) + 2] = Float.floatToRawIntBits(originX);
-        this.data[(this.index * 4) + 3] = Float.floatToRawIntBits(originY);
+    public void push(
+            int unicodeIndex, float pxRange, float originX, float originY,
+            float size, float weight, int layer, int color
+    ) {
+        int offset = this.index * NUMBER_OF_COMPONENTS;
+        this.data
+                .put(offset + 0, unicodeIndex)
+                .put(offset + 1, Float.floatToRawIntBits(pxRange))
+                .put(offset + 2, Float.floatToRawIntBits(originX))
+                .put(offset + 3, Float.floatToRawIntBits(originY))
+                .put(offset + 4, Float.floatToRawIntBits(size))
+                .put(offset + 5, Float.floatToRawIntBits(weight))
+                .put(offset + 6, layer)
+                .put(offset + 7, color);
         
         this.index++;
     }
@@ -102,9 +128,21 @@ public class FontTextUBO {
         this.length = this.index;
         this.index = 0;
         
+        if (this.length == 0) {
+            return;
+        }
+        
+        int components = this.length * NUMBER_OF_COMPONENTS;
+        
         glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
-        glBufferData(GL_UNIFORM_BUFFER, this.data, GL_STATIC_DRAW);
+        //orphan the old storage, a draw still reading it keeps its own copy
+        glBufferData(GL_UNIFORM_BUFFER, ((long) this.data.capacity()) * Integer.BYTES, GL_STREAM_DRAW);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, this.data.limit(components));
         glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        
+        this.data.limit(this.data.capacity());
+        
+        this.uploadedBytes += ((long) components) * Integer.BYTES;
     }
     
 }
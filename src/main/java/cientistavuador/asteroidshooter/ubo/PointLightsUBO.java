@@ -0,0 +1,173 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.ubo;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.util.ObjectCleaner;
+import java.nio.FloatBuffer;
+import static org.lwjgl.opengl.GL33C.*;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * std140 point lights block, a header (ivec4, x is the amount of slots in
+ * use) followed by an array of lights (vec4 position with w as the enabled
+ * flag, vec4 ambient, vec4 diffuse); only the modified range is uploaded.
+ *
+ * @author Cien
+ */
+public class PointLightsUBO {
+
+    public static final int HEADER_SIZE = 4;
+    public static final int LIGHT_SIZE = 4 + 4 + 4;
+
+    public static PointLightsUBO create(int bindingPoint, int capacity) {
+        int ubo = glGenBuffers();
+        FloatBuffer data = MemoryUtil.memCallocFloat(HEADER_SIZE + (capacity * LIGHT_SIZE));
+        PointLightsUBO pointLightsUbo = new PointLightsUBO(bindingPoint, ubo, capacity, data);
+        ObjectCleaner.get().register(pointLightsUbo, () -> {
+            MemoryUtil.memFree(data);
+            Main.MAIN_TASKS.add(() -> {
+                glDeleteBuffers(ubo);
+            });
+        });
+        return pointLightsUbo;
+    }
+
+    private final int bindingPoint;
+    private final int ubo;
+    private final int capacity;
+    private final FloatBuffer data;
+
+    private int amountOfLights = 0;
+
+    //dirty range, in floats
+    private int dirtyStart = Integer.MAX_VALUE;
+    private int dirtyEnd = 0;
+
+    private long uploadedBytes = 0;
+
+    private PointLightsUBO(int bindingPoint, int ubo, int capacity, FloatBuffer data) {
+        this.bindingPoint = bindingPoint;
+        this.ubo = ubo;
+        this.capacity = capacity;
+        this.data = data;
+
+        glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
+        glBufferData(GL_UNIFORM_BUFFER, this.data, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+
+        glBindBufferBase(GL_UNIFORM_BUFFER, this.bindingPoint, this.ubo);
+    }
+
+    public int getBindingPoint() {
+        return bindingPoint;
+    }
+
+    public int getUBO() {
+        return ubo;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getAmountOfLights() {
+        return amountOfLights;
+    }
+
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    private void markDirty(int start, int end) {
+        this.dirtyStart = Math.min(this.dirtyStart, start);
+        this.dirtyEnd = Math.max(this.dirtyEnd, end);
+    }
+
+    public void setAmountOfLights(int amountOfLights) {
+        if (amountOfLights < 0 || amountOfLights > this.capacity) {
+            throw new IllegalArgumentException("Amount of lights out of bounds: " + amountOfLights);
+        }
+        if (this.amountOfLights == amountOfLights) {
+            return;
+        }
+        this.amountOfLights = amountOfLights;
+        this.data.put(0, Float.intBitsToFloat(amountOfLights));
+        markDirty(0, 1);
+    }
+
+    public void setLight(int slot,
+            float x, float y, float z,
+            float ambientR, float ambientG, float ambientB,
+            float diffuseR, float diffuseG, float diffuseB
+    ) {
+        if (slot < 0 || slot >= this.capacity) {
+            throw new IllegalArgumentException("Slot out of bounds: " + slot);
+        }
+        int offset = HEADER_SIZE + (slot * LIGHT_SIZE);
+        this.data
+                .put(offset + 0, x)
+                .put(offset + 1, y)
+                .put(offset + 2, z)
+                .put(offset + 3, 1f)
+                .put(offset + 4, ambientR)
+                .put(offset + 5, ambientG)
+                .put(offset + 6, ambientB)
+                .put(offset + 8, diffuseR)
+                .put(offset + 9, diffuseG)
+                .put(offset + 10, diffuseB);
+        markDirty(offset, offset + LIGHT_SIZE);
+    }
+
+    public void disableLight(int slot) {
+        if (slot < 0 || slot >= this.capacity) {
+            throw new IllegalArgumentException("Slot out of bounds: " + slot);
+        }
+        int offset = HEADER_SIZE + (slot * LIGHT_SIZE);
+        this.data.put(offset + 3, 0f);
+        markDirty(offset + 3, offset + 4);
+    }
+
+    public void updateUBO() {
+        if (this.dirtyStart >= this.dirtyEnd) {
+            return;
+        }
+
+        long offset = ((long) this.dirtyStart) * Float.BYTES;
+        long size = ((long) (this.dirtyEnd - this.dirtyStart)) * Float.BYTES;
+
+        glBindBuffer(GL_UNIFORM_BUFFER, this.ubo);
+        nglBufferSubData(GL_UNIFORM_BUFFER, offset, size, MemoryUtil.memAddress(this.data) + offset);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+
+        this.uploadedBytes += size;
+
+        this.dirtyStart = Integer.MAX_VALUE;
+        this.dirtyEnd = 0;
+    }
+
+}
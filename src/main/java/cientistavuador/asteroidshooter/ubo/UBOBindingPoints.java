@@ -36,6 +36,8 @@ public class UBOBindingPoints {
     
     public static final int PLAYER_CAMERA = 0;
     public static final int FONT_TEXT = 1;
+    public static final int POINT_LIGHTS = 2;
+    public static final int TEXT_RUN = 3;
     
     private UBOBindingPoints() {
         
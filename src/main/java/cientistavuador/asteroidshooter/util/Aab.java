@@ -35,44 +35,106 @@ import org.joml.Vector3f;
  * @author Cien
  */
 public interface Aab { 
-    public default boolean testAab3D(Aab other) {
-        Vector3f thisMin = new Vector3f();
-        Vector3f thisMax = new Vector3f();
-        getMin(thisMin);
-        getMax(thisMax);
+    
+    static final class Scratch {
+        private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
         
-        Vector3f otherMin = new Vector3f();
-        Vector3f otherMax = new Vector3f();
-        other.getMin(otherMin);
-        other.getMax(otherMax);
+        private final Vector3f aMin = new Vector3f();
+        private final Vector3f aMax = new Vector3f();
+        private final Vector3f bMin = new Vector3f();
+        private final Vector3f bMax = new Vector3f();
         
-        return Intersectionf.testAabAab(thisMin, thisMax, otherMin, otherMax);
+        private Scratch() {
+            
+        }
     }
-    public default boolean testAab2D(Aab other) {
-        Vector3f thisMin = new Vector3f();
-        Vector3f thisMax = new Vector3f();
-        getMin(thisMin);
-        getMax(thisMax);
-        thisMin.setComponent(2, 0f);
-        thisMax.setComponent(2, 0f);
+    
+    public static boolean test3D(Aab a, Aab b) {
+        Scratch s = Scratch.LOCAL.get();
+        a.getMin(s.aMin);
+        a.getMax(s.aMax);
+        b.getMin(s.bMin);
+        b.getMax(s.bMax);
+        
+        return Intersectionf.testAabAab(s.aMin, s.aMax, s.bMin, s.bMax);
+    }
+    
+    public static boolean test2D(Aab a, Aab b) {
+        Scratch s = Scratch.LOCAL.get();
+        a.getMin(s.aMin);
+        a.getMax(s.aMax);
+        b.getMin(s.bMin);
+        b.getMax(s.bMax);
+        
+        return s.aMax.x() >= s.bMin.x() && s.aMax.y() >= s.bMin.y()
+                && s.aMin.x() <= s.bMax.x() && s.aMin.y() <= s.bMax.y();
+    }
+    
+    private static float sweep2D(
+            float minX, float minY, float maxX, float maxY,
+            float x, float y, float dx, float dy,
+            boolean exit
+    ) {
+        float enter = 0f;
+        float leave = 1f;
+        
+        if (dx == 0f) {
+            if (x < minX || x > maxX) {
+                return Float.NaN;
+            }
+        } else {
+            float t0 = (minX - x) / dx;
+            float t1 = (maxX - x) / dx;
+            enter = Math.max(enter, Math.min(t0, t1));
+            leave = Math.min(leave, Math.max(t0, t1));
+        }
         
-        Vector3f otherMin = new Vector3f();
-        Vector3f otherMax = new Vector3f();
-        other.getMin(otherMin);
-        other.getMax(otherMax);
-        otherMin.setComponent(2, 0f);
-        otherMax.setComponent(2, 0f);
+        if (dy == 0f) {
+            if (y < minY || y > maxY) {
+                return Float.NaN;
+            }
+        } else {
+            float t0 = (minY - y) / dy;
+            float t1 = (maxY - y) / dy;
+            enter = Math.max(enter, Math.min(t0, t1));
+            leave = Math.min(leave, Math.max(t0, t1));
+        }
         
-        return Intersectionf.testAabAab(thisMin, thisMax, otherMin, otherMax);
+        if (enter > leave) {
+            return Float.NaN;
+        }
+        return (exit ? leave : enter);
+    }
+    
+    //time in [0, 1] where a point moving from (x, y) by (dx, dy) enters the box, NaN if it never does
+    public static float sweepEnter2D(
+            float minX, float minY, float maxX, float maxY,
+            float x, float y, float dx, float dy
+    ) {
+        return sweep2D(minX, minY, maxX, maxY, x, y, dx, dy, false);
+    }
+    
+    //time in [0, 1] where a point moving from (x, y) by (dx, dy) leaves the box, 1 if it is still inside at the end, NaN if it is never inside
+    public static float sweepExit2D(
+            float minX, float minY, float maxX, float maxY,
+            float x, float y, float dx, float dy
+    ) {
+        return sweep2D(minX, minY, maxX, maxY, x, y, dx, dy, true);
+    }
+    
+    public default boolean testAab3D(Aab other) {
+        return test3D(this, other);
+    }
+    public default boolean testAab2D(Aab other) {
+        return test2D(this, other);
     }
     public default void queueAabRender() {
-        Vector3f thisMin = new Vector3f();
-        Vector3f thisMax = new Vector3f();
-        getMin(thisMin);
-        getMax(thisMax);
+        Scratch s = Scratch.LOCAL.get();
+        getMin(s.aMin);
+        getMax(s.aMax);
         AabRender.queueRender(
-                thisMin.x(), thisMin.y(), thisMin.z(),
-                thisMax.x(), thisMax.y(), thisMax.z()
+                s.aMin.x(), s.aMin.y(), s.aMin.z(),
+                s.aMax.x(), s.aMax.y(), s.aMax.z()
         );
     }
     public void getMin(Vector3f min);
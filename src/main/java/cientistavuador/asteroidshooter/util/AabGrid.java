@@ -0,0 +1,303 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.joml.Vector3f;
+
+/**
+ * Uniform grid broadphase for 2D Aab queries.
+ * <p>
+ * Objects outside of the grid bounds are clamped to the border cells, so
+ * queries are always correct, they only get slower if too many objects live
+ * outside of the bounds.
+ * <p>
+ * Queries may run from many threads at once as long as nothing is added to
+ * the grid and the objects do not move while they run.
+ *
+ * @author Cien
+ * @param <T> the type of the objects stored in the grid
+ */
+public class AabGrid<T extends Aab> {
+
+    private static final class Scratch {
+
+        private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+
+        private final Vector3f queryMin = new Vector3f();
+        private final Vector3f queryMax = new Vector3f();
+        private final Vector3f objectMin = new Vector3f();
+        private final Vector3f objectMax = new Vector3f();
+
+        private Scratch() {
+
+        }
+    }
+
+    private final float minX;
+    private final float minY;
+    private final float cellSize;
+    private final int cellsX;
+    private final int cellsY;
+
+    private final int[] cellsHead;
+
+    private Object[] objects = new Object[64];
+    private int objectsLength = 0;
+
+    private int[] nodesObject = new int[256];
+    private int[] nodesNext = new int[256];
+    private int nodesLength = 0;
+
+    private final LongAdder numberOfTests = new LongAdder();
+
+    public AabGrid(float minX, float minY, float maxX, float maxY, float cellSize) {
+        if (cellSize <= 0f) {
+            throw new IllegalArgumentException("Cell size must be larger than zero.");
+        }
+        if (maxX <= minX || maxY <= minY) {
+            throw new IllegalArgumentException("Invalid grid bounds.");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.cellsX = (int) Math.ceil((maxX - minX) / cellSize);
+        this.cellsY = (int) Math.ceil((maxY - minY) / cellSize);
+        this.cellsHead = new int[this.cellsX * this.cellsY];
+        Arrays.fill(this.cellsHead, -1);
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getCellsX() {
+        return cellsX;
+    }
+
+    public int getCellsY() {
+        return cellsY;
+    }
+
+    public int size() {
+        return this.objectsLength;
+    }
+
+    public long getNumberOfTests() {
+        return this.numberOfTests.sum();
+    }
+
+    public void resetNumberOfTests() {
+        this.numberOfTests.reset();
+    }
+
+    private int cellX(float x) {
+        int cell = (int) Math.floor((x - this.minX) / this.cellSize);
+        return Math.min(Math.max(cell, 0), this.cellsX - 1);
+    }
+
+    private int cellY(float y) {
+        int cell = (int) Math.floor((y - this.minY) / this.cellSize);
+        return Math.min(Math.max(cell, 0), this.cellsY - 1);
+    }
+
+    public void clear() {
+        Arrays.fill(this.objects, 0, this.objectsLength, null);
+        this.objectsLength = 0;
+        this.nodesLength = 0;
+        Arrays.fill(this.cellsHead, -1);
+    }
+
+    public void add(T object) {
+        if (this.objectsLength >= this.objects.length) {
+            this.objects = Arrays.copyOf(this.objects, this.objects.length * 2);
+        }
+        int objectIndex = this.objectsLength;
+        this.objects[objectIndex] = object;
+        this.objectsLength++;
+
+        Scratch s = Scratch.LOCAL.get();
+        object.getMin(s.objectMin);
+        object.getMax(s.objectMax);
+
+        int startX = cellX(s.objectMin.x());
+        int startY = cellY(s.objectMin.y());
+        int endX = cellX(s.objectMax.x());
+        int endY = cellY(s.objectMax.y());
+
+        for (int y = startY; y <= endY; y++) {
+            for (int x = startX; x <= endX; x++) {
+                if (this.nodesLength >= this.nodesObject.length) {
+                    this.nodesObject = Arrays.copyOf(this.nodesObject, this.nodesObject.length * 2);
+                    this.nodesNext = Arrays.copyOf(this.nodesNext, this.nodesNext.length * 2);
+                }
+                int cell = x + (y * this.cellsX);
+                int node = this.nodesLength;
+                this.nodesObject[node] = objectIndex;
+                this.nodesNext[node] = this.cellsHead[cell];
+                this.cellsHead[cell] = node;
+                this.nodesLength++;
+            }
+        }
+    }
+
+    public void rebuild(List<? extends T> objects) {
+        clear();
+        for (int i = 0; i < objects.size(); i++) {
+            add(objects.get(i));
+        }
+    }
+
+    private boolean testObject(Scratch s, int objectIndex) {
+        Aab object = (Aab) this.objects[objectIndex];
+        object.getMin(s.objectMin);
+        object.getMax(s.objectMax);
+        return s.queryMin.x() <= s.objectMax.x() && s.queryMax.x() >= s.objectMin.x()
+                && s.queryMin.y() <= s.objectMax.y() && s.queryMax.y() >= s.objectMin.y();
+    }
+
+    /**
+     * Finds the first object (in insertion order) that intersects with the
+     * given aab in 2D.
+     *
+     * @param aab the aab to test
+     * @param exclude an object to ignore, usually the aab itself, may be null
+     * @return the first intersecting object or null if none was found
+     */
+    @SuppressWarnings("unchecked")
+    public T queryFirst(Aab aab, Object exclude) {
+        Scratch s = Scratch.LOCAL.get();
+        aab.getMin(s.queryMin);
+        aab.getMax(s.queryMax);
+
+        int startX = cellX(s.queryMin.x());
+        int startY = cellY(s.queryMin.y());
+        int endX = cellX(s.queryMax.x());
+        int endY = cellY(s.queryMax.y());
+
+        int tests = 0;
+        int first = Integer.MAX_VALUE;
+        for (int y = startY; y <= endY; y++) {
+            for (int x = startX; x <= endX; x++) {
+                int node = this.cellsHead[x + (y * this.cellsX)];
+                while (node != -1) {
+                    int objectIndex = this.nodesObject[node];
+                    node = this.nodesNext[node];
+                    if (objectIndex >= first || this.objects[objectIndex] == exclude) {
+                        continue;
+                    }
+                    tests++;
+                    if (testObject(s, objectIndex)) {
+                        first = objectIndex;
+                    }
+                }
+            }
+        }
+        this.numberOfTests.add(tests);
+
+        if (first == Integer.MAX_VALUE) {
+            return null;
+        }
+        return (T) this.objects[first];
+    }
+
+    public static interface SweepTest<T> {
+
+        //time of impact in [0, 1] or a negative value (or NaN) if the object is not hit
+        public float test(T object);
+    }
+
+    /**
+     * Finds the object with the earliest time of impact among the objects
+     * intersecting the given aab in 2D, ties are broken by insertion order.
+     *
+     * @param bounds the aab containing the whole swept path
+     * @param exclude an object to ignore, may be null
+     * @param test the narrow phase test
+     * @return the earliest hit object or null if none was hit
+     */
+    @SuppressWarnings("unchecked")
+    public T querySweep(Aab bounds, Object exclude, SweepTest<? super T> test) {
+        Scratch s = Scratch.LOCAL.get();
+        bounds.getMin(s.queryMin);
+        bounds.getMax(s.queryMax);
+
+        int startX = cellX(s.queryMin.x());
+        int startY = cellY(s.queryMin.y());
+        int endX = cellX(s.queryMax.x());
+        int endY = cellY(s.queryMax.y());
+
+        int tests = 0;
+        int first = Integer.MAX_VALUE;
+        float firstTime = Float.POSITIVE_INFINITY;
+        for (int y = startY; y <= endY; y++) {
+            for (int x = startX; x <= endX; x++) {
+                int node = this.cellsHead[x + (y * this.cellsX)];
+                while (node != -1) {
+                    int objectIndex = this.nodesObject[node];
+                    node = this.nodesNext[node];
+                    if (objectIndex == first || this.objects[objectIndex] == exclude) {
+                        continue;
+                    }
+                    tests++;
+                    if (!testObject(s, objectIndex)) {
+                        continue;
+                    }
+                    float time = test.test((T) this.objects[objectIndex]);
+                    if (!(time >= 0f)) {
+                        continue;
+                    }
+                    if (time < firstTime || (time == firstTime && objectIndex < first)) {
+                        first = objectIndex;
+                        firstTime = time;
+                    }
+                }
+            }
+        }
+        this.numberOfTests.add(tests);
+
+        if (first == Integer.MAX_VALUE) {
+            return null;
+        }
+        return (T) this.objects[first];
+    }
+
+    public boolean testAny(Aab aab, Object exclude) {
+        return queryFirst(aab, exclude) != null;
+    }
+
+}
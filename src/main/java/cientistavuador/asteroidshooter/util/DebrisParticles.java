@@ -0,0 +1,281 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import cientistavuador.asteroidshooter.Main;
+import cientistavuador.asteroidshooter.debug.DebugCounter;
+import cientistavuador.asteroidshooter.geometry.GeometryInstances;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.joml.Matrix4f;
+
+/**
+ * Structure of arrays store for debris particles, dead particles are removed
+ * by swapping the last particle into their place.
+ *
+ * @author Cien
+ */
+public class DebrisParticles {
+
+    public static final int INITIAL_CAPACITY = 64;
+    public static final float ROTATION_SPEED = 2f;
+
+    private static final float TWO_PI = (float) (Math.PI * 2.0);
+
+    private final String name;
+    private final float speed;
+    private final float renderScale;
+    private final float fadeTime;
+
+    private final String sizeName;
+    private final String capacityName;
+    private final String missesName;
+
+    private final SplittableRandom random;
+    private final Matrix4f model = new Matrix4f();
+    private final ParallelUpdate.RangeTask integrateTask = this::integrate;
+
+    private int capacity = INITIAL_CAPACITY;
+    private int size = 0;
+    private long misses = 0;
+
+    //x, y, z
+    private float[] positions = new float[INITIAL_CAPACITY * 3];
+    private float[] previousPositions = new float[INITIAL_CAPACITY * 3];
+    private float[] directions = new float[INITIAL_CAPACITY * 3];
+    private float[] rotations = new float[INITIAL_CAPACITY * 3];
+
+    private float[] previousRotationsZ = new float[INITIAL_CAPACITY];
+    private float[] fades = new float[INITIAL_CAPACITY];
+    private int[] types = new int[INITIAL_CAPACITY];
+
+    private boolean frozen = false;
+
+    public DebrisParticles(String name, SplittableRandom random, float speed, float renderScale, float fadeTime) {
+        this.random = random;
+        this.name = name;
+        this.speed = speed;
+        this.renderScale = renderScale;
+        this.fadeTime = fadeTime;
+        this.sizeName = name + " in use";
+        this.capacityName = name + " capacity";
+        this.missesName = name + " misses";
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    public float getFadeTime() {
+        return fadeTime;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public void setFrozen(boolean frozen) {
+        this.frozen = frozen;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    private void grow() {
+        this.misses++;
+        this.capacity *= 2;
+        this.positions = Arrays.copyOf(this.positions, this.capacity * 3);
+        this.previousPositions = Arrays.copyOf(this.previousPositions, this.capacity * 3);
+        this.directions = Arrays.copyOf(this.directions, this.capacity * 3);
+        this.rotations = Arrays.copyOf(this.rotations, this.capacity * 3);
+        this.previousRotationsZ = Arrays.copyOf(this.previousRotationsZ, this.capacity);
+        this.fades = Arrays.copyOf(this.fades, this.capacity);
+        this.types = Arrays.copyOf(this.types, this.capacity);
+    }
+
+    public int add(float x, float y, float z, float dirX, float dirY, float dirZ, int type) {
+        if (this.size == this.capacity) {
+            grow();
+        }
+        int i = this.size;
+        int i3 = i * 3;
+
+        this.positions[i3 + 0] = x;
+        this.positions[i3 + 1] = y;
+        this.positions[i3 + 2] = z;
+        this.previousPositions[i3 + 0] = x;
+        this.previousPositions[i3 + 1] = y;
+        this.previousPositions[i3 + 2] = z;
+        this.directions[i3 + 0] = dirX;
+        this.directions[i3 + 1] = dirY;
+        this.directions[i3 + 2] = dirZ;
+        this.rotations[i3 + 0] = (float) Math.toRadians(this.random.nextDouble() * 360f);
+        this.rotations[i3 + 1] = (float) Math.toRadians(this.random.nextDouble() * 360f);
+        this.rotations[i3 + 2] = 0f;
+        this.previousRotationsZ[i] = 0f;
+        this.fades[i] = this.fadeTime;
+        this.types[i] = type;
+
+        this.size++;
+        return i;
+    }
+
+    //random direction on the xy plane
+    public int add(float x, float y, float z, int type) {
+        float dirX = (float) ((this.random.nextDouble() * 2.0) - 1.0);
+        float dirY = (float) ((this.random.nextDouble() * 2.0) - 1.0);
+        float length = (float) Math.sqrt((dirX * dirX) + (dirY * dirY));
+        if (length == 0f) {
+            dirX = 0f;
+            dirY = 1f;
+        } else {
+            dirX /= length;
+            dirY /= length;
+        }
+        return add(x, y, z, dirX, dirY, 0f, type);
+    }
+
+    private void remove(int i) {
+        int last = this.size - 1;
+        if (i != last) {
+            int i3 = i * 3;
+            int last3 = last * 3;
+            System.arraycopy(this.positions, last3, this.positions, i3, 3);
+            System.arraycopy(this.previousPositions, last3, this.previousPositions, i3, 3);
+            System.arraycopy(this.directions, last3, this.directions, i3, 3);
+            System.arraycopy(this.rotations, last3, this.rotations, i3, 3);
+            this.previousRotationsZ[i] = this.previousRotationsZ[last];
+            this.fades[i] = this.fades[last];
+            this.types[i] = this.types[last];
+        }
+        this.size--;
+    }
+
+    public void update() {
+        for (int i = 0; i < this.size; i++) {
+            if (this.fades[i] <= 0f) {
+                remove(i);
+                i--;
+            }
+        }
+
+        ParallelUpdate.forEach(this.size, this.integrateTask);
+    }
+
+    private void integrate(int start, int end) {
+        float tpf = (float) Main.TPF;
+        float step = this.speed * tpf;
+        float rotationStep = ROTATION_SPEED * tpf;
+
+        for (int i = start; i < end; i++) {
+            int i3 = i * 3;
+
+            this.previousPositions[i3 + 0] = this.positions[i3 + 0];
+            this.previousPositions[i3 + 1] = this.positions[i3 + 1];
+            this.previousPositions[i3 + 2] = this.positions[i3 + 2];
+            this.previousRotationsZ[i] = this.rotations[i3 + 2];
+
+            if (this.frozen) {
+                continue;
+            }
+
+            this.fades[i] -= tpf;
+
+            this.positions[i3 + 0] += this.directions[i3 + 0] * step;
+            this.positions[i3 + 1] += this.directions[i3 + 1] * step;
+            this.positions[i3 + 2] += this.directions[i3 + 2] * step;
+
+            float rotationZ = this.rotations[i3 + 2] + rotationStep;
+            if (rotationZ > TWO_PI) {
+                rotationZ = 0f;
+            }
+            this.rotations[i3 + 2] = rotationZ;
+        }
+    }
+
+    public int getType(int i) {
+        return this.types[i];
+    }
+
+    public float getOpacity(int i) {
+        return this.fades[i] / this.fadeTime;
+    }
+
+    public Matrix4f getModel(int i, float alpha, Matrix4f model) {
+        int i3 = i * 3;
+        return model
+                .translation(
+                        Interpolation.lerp(this.previousPositions[i3 + 0], this.positions[i3 + 0], alpha),
+                        Interpolation.lerp(this.previousPositions[i3 + 1], this.positions[i3 + 1], alpha),
+                        Interpolation.lerp(this.previousPositions[i3 + 2], this.positions[i3 + 2], alpha)
+                )
+                .scale(this.renderScale)
+                .rotateX(this.rotations[i3 + 0])
+                .rotateY(this.rotations[i3 + 1])
+                .rotateZ(Interpolation.lerpAngle(this.previousRotationsZ[i], this.rotations[i3 + 2], alpha));
+    }
+
+    public void report(DebugCounter counter) {
+        counter.setValue(this.sizeName, this.size);
+        counter.setValue(this.capacityName, this.capacity);
+        counter.setValue(this.missesName, this.misses);
+    }
+
+    public void render(GeometryInstances instances) {
+        float alpha = Main.TICK_ALPHA;
+        for (int i = 0; i < this.size; i++) {
+            float opacity = getOpacity(i);
+            instances.add(getModel(i, alpha, this.model), 1f, 1f, 1f, opacity);
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import cientistavuador.asteroidshooter.debug.DebugCounter;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Keeps freed objects for reuse, objects must be reset by the caller after
+ * being obtained.
+ *
+ * @author Cien
+ */
+public class ObjectPool<T> {
+
+    public static final int INITIAL_CAPACITY = 16;
+
+    private final String name;
+    private final Supplier<T> factory;
+
+    private final String inUseName;
+    private final String freeName;
+    private final String missesName;
+
+    private Object[] freeObjects = new Object[INITIAL_CAPACITY];
+    private int amountFree = 0;
+    private int amountInUse = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    public ObjectPool(String name, Supplier<T> factory) {
+        this.name = name;
+        this.factory = factory;
+        this.inUseName = name + " in use";
+        this.freeName = name + " free";
+        this.missesName = name + " misses";
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAmountFree() {
+        return amountFree;
+    }
+
+    public int getAmountInUse() {
+        return amountInUse;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        T object;
+        if (this.amountFree > 0) {
+            this.amountFree--;
+            object = (T) this.freeObjects[this.amountFree];
+            this.freeObjects[this.amountFree] = null;
+            this.hits++;
+        } else {
+            object = this.factory.get();
+            this.misses++;
+        }
+        this.amountInUse++;
+        return object;
+    }
+
+    public void free(T object) {
+        if (object == null) {
+            throw new NullPointerException("Object is null.");
+        }
+        if (this.amountFree >= this.freeObjects.length) {
+            this.freeObjects = Arrays.copyOf(this.freeObjects, this.freeObjects.length * 2);
+        }
+        this.freeObjects[this.amountFree] = object;
+        this.amountFree++;
+        this.amountInUse--;
+    }
+
+    public void report(DebugCounter counter) {
+        counter.setValue(this.inUseName, this.amountInUse);
+        counter.setValue(this.freeName, this.amountFree);
+        counter.setValue(this.missesName, this.misses);
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs index ranges of entity updates on a fork-join pool.
+ * <p>
+ * Range tasks must only write to the entities inside of their own range,
+ * anything that touches shared state (audio, scores, pools, spawning debris)
+ * belongs to the serial phase that follows, which runs in index order so the
+ * results do not depend on the amount of threads.
+ * <p>
+ * The amount of threads comes from the "asteroidshooter.threads" system
+ * property and defaults to the amount of available processors, one thread
+ * runs everything on the caller.
+ *
+ * @author Cien
+ */
+public class ParallelUpdate {
+
+    public static final String THREADS_PROPERTY = "asteroidshooter.threads";
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    public static interface RangeTask {
+
+        public void run(int start, int end);
+    }
+
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int start;
+        private final int end;
+        private final int chunkSize;
+
+        public RangeAction(RangeTask task, int start, int end, int chunkSize) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if ((this.end - this.start) <= this.chunkSize) {
+                this.task.run(this.start, this.end);
+                return;
+            }
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(
+                    new RangeAction(this.task, this.start, middle, this.chunkSize),
+                    new RangeAction(this.task, middle, this.end, this.chunkSize)
+            );
+        }
+    }
+
+    private static int threads = 0;
+    private static volatile ForkJoinPool pool = null;
+
+    static {
+        int defaultThreads = Runtime.getRuntime().availableProcessors();
+        setThreads(Integer.getInteger(THREADS_PROPERTY, defaultThreads));
+    }
+
+    public static synchronized int getThreads() {
+        return threads;
+    }
+
+    public static synchronized void setThreads(int amount) {
+        if (amount < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        if (amount == threads) {
+            return;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        threads = amount;
+        if (amount > 1) {
+            pool = new ForkJoinPool(amount, (p) -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("Update Worker " + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+    }
+
+    public static void forEach(int size, RangeTask task) {
+        forEach(size, DEFAULT_CHUNK_SIZE, task);
+    }
+
+    public static void forEach(int size, int chunkSize, RangeTask task) {
+        if (size <= 0) {
+            return;
+        }
+        ForkJoinPool currentPool = pool;
+        if (currentPool == null || size <= chunkSize) {
+            task.run(0, size);
+            return;
+        }
+        currentPool.invoke(new RangeAction(task, 0, size, chunkSize));
+    }
+
+    private ParallelUpdate() {
+
+    }
+
+}
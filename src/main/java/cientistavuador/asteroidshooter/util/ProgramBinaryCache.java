@@ -0,0 +1,349 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ *
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ *
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * For more information, please refer to <https://unlicense.org>
+ */
+package cientistavuador.asteroidshooter.util;
+
+import cientistavuador.asteroidshooter.Main;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import org.lwjgl.opengl.GL;
+import static org.lwjgl.opengl.ARBGetProgramBinary.*;
+import static org.lwjgl.opengl.GL33C.*;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+/**
+ * On disk cache of linked program binaries, keyed by the sources, the
+ * replacements and the driver strings. Only used when the driver supports
+ * GL_ARB_get_program_binary; a binary the driver rejects is deleted,
+ * recompiled from source and replaced. Binaries written by a different
+ * driver are deleted the first time a program is stored.
+ *
+ * @author Cien
+ */
+public class ProgramBinaryCache {
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "asteroidshooter.programcache";
+    public static final String DEFAULT_CACHE_DIRECTORY = "cache/program";
+    public static final String EXTENSION = ".bin";
+
+    //"PROG" in ascii, a different byte order reads as a different magic
+    public static final int MAGIC = 0x50524F47;
+    public static final int VERSION = 2;
+    public static final int KEY_SIZE = 32;
+
+    //magic, version, binary format, binary length, driver, key, payload checksum
+    public static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + KEY_SIZE + 8;
+    public static final int DRIVER_OFFSET = 16;
+    public static final int KEY_OFFSET = DRIVER_OFFSET + 8;
+    public static final int CHECKSUM_OFFSET = KEY_OFFSET + KEY_SIZE;
+
+    public static boolean ENABLED = true;
+
+    private static int[] binaryFormats = null;
+    private static Long driver = null;
+    private static boolean pruned = false;
+
+    public static Path getCacheDirectory() {
+        return Path.of(System.getProperty(CACHE_DIRECTORY_PROPERTY, DEFAULT_CACHE_DIRECTORY));
+    }
+
+    public static boolean isSupported() {
+        if (!ENABLED || !GL.getCapabilities().GL_ARB_get_program_binary) {
+            return false;
+        }
+        return glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS) > 0;
+    }
+
+    private static boolean isFormatSupported(int binaryFormat) {
+        if (binaryFormats == null) {
+            int[] formats = new int[glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS)];
+            if (formats.length > 0) {
+                glGetIntegerv(GL_PROGRAM_BINARY_FORMATS, formats);
+            }
+            binaryFormats = formats;
+        }
+        for (int format : binaryFormats) {
+            if (format == binaryFormat) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    //fingerprint of the driver strings, files with a different one are stale
+    private static long driver() {
+        if (driver == null) {
+            MessageDigest digest = sha256();
+            update(digest, glGetString(GL_VENDOR));
+            update(digest, glGetString(GL_RENDERER));
+            update(digest, glGetString(GL_VERSION));
+            driver = ByteBuffer.wrap(digest.digest()).getLong(0);
+        }
+        return driver;
+    }
+
+    public static byte[] key(String vertexSource, String geometrySource, String fragmentSource, Map<String, String> replacements) {
+        MessageDigest digest = sha256();
+        String[] parts = {
+            glGetString(GL_VENDOR),
+            glGetString(GL_RENDERER),
+            glGetString(GL_VERSION),
+            vertexSource,
+            geometrySource,
+            fragmentSource
+        };
+        for (String part : parts) {
+            update(digest, part);
+        }
+        if (replacements != null) {
+            for (Map.Entry<String, String> e : new TreeMap<>(replacements).entrySet()) {
+                update(digest, e.getKey());
+                update(digest, e.getValue());
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        if (s == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(4).putInt(0, bytes.length));
+        digest.update(bytes);
+    }
+
+    private static Path file(byte[] key) {
+        StringBuilder b = new StringBuilder();
+        for (byte e : key) {
+            b.append(String.format("%02x", e & 0xFF));
+        }
+        return getCacheDirectory().resolve(b.append(EXTENSION).toString());
+    }
+
+    //a rejected binary would be rejected again on every launch
+    private static int reject(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to delete program cache '" + file + "'");
+            ex.printStackTrace(System.out);
+        }
+        return 0;
+    }
+
+    //returns a linked program or 0 if not cached or rejected by the driver
+    public static int load(byte[] key) {
+        Path file = file(key);
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+
+        ByteBuffer data;
+        try {
+            data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.nativeOrder());
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to read program cache '" + file + "'");
+            ex.printStackTrace(System.out);
+            return 0;
+        }
+
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            return reject(file);
+        }
+        int binaryFormat = data.getInt(8);
+        int binaryLength = data.getInt(12);
+        if (binaryLength < 0 || HEADER_SIZE + binaryLength != data.capacity()) {
+            return reject(file);
+        }
+        if (data.getLong(DRIVER_OFFSET) != driver()) {
+            return reject(file);
+        }
+        for (int i = 0; i < KEY_SIZE; i++) {
+            if (data.get(KEY_OFFSET + i) != key[i]) {
+                return reject(file);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), HEADER_SIZE, binaryLength);
+        if (crc.getValue() != data.getLong(CHECKSUM_OFFSET)) {
+            return reject(file);
+        }
+        //the format is not covered by the checksum
+        if (!isFormatSupported(binaryFormat)) {
+            return reject(file);
+        }
+
+        ByteBuffer binary = MemoryUtil.memAlloc(binaryLength);
+        try {
+            binary.put(0, data, HEADER_SIZE, binaryLength);
+
+            int program = glCreateProgram();
+
+            //errors raised before this point are reported, only the ones from glProgramBinary are expected
+            Main.checkGLError();
+            glProgramBinary(program, binaryFormat, binary);
+            while (glGetError() != GL_NO_ERROR) {
+                //a rejected binary may raise an error, it must not reach Main.checkGLError
+            }
+            if (glGetProgrami(program, GL_LINK_STATUS) != GL_TRUE) {
+                //binary not compatible anymore
+                glDeleteProgram(program);
+                return reject(file);
+            }
+            return program;
+        } finally {
+            MemoryUtil.memFree(binary);
+        }
+    }
+
+    //must be called before linking, so the driver keeps the binary around
+    public static void prepare(int program) {
+        glProgramParameteri(program, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+    }
+
+    public static void store(byte[] key, int program) {
+        int binaryLength = glGetProgrami(program, GL_PROGRAM_BINARY_LENGTH);
+        if (binaryLength <= 0) {
+            return;
+        }
+
+        ByteBuffer data = ByteBuffer
+                .allocate(HEADER_SIZE + binaryLength)
+                .order(ByteOrder.nativeOrder());
+
+        ByteBuffer binary = MemoryUtil.memAlloc(binaryLength);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer length = stack.mallocInt(1);
+            IntBuffer binaryFormat = stack.mallocInt(1);
+            glGetProgramBinary(program, length, binaryFormat, binary);
+
+            data
+                    .putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putInt(8, binaryFormat.get(0))
+                    .putInt(12, length.get(0))
+                    .putLong(DRIVER_OFFSET, driver())
+                    .put(KEY_OFFSET, key)
+                    .put(HEADER_SIZE, binary, 0, length.get(0));
+            binaryLength = length.get(0);
+        } finally {
+            MemoryUtil.memFree(binary);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), HEADER_SIZE, binaryLength);
+        data.putLong(CHECKSUM_OFFSET, crc.getValue());
+        data.limit(HEADER_SIZE + binaryLength);
+        data.position(0);
+
+        Path file = file(key);
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to write program cache '" + file + "'");
+            ex.printStackTrace(System.out);
+        }
+
+        if (!pruned) {
+            pruned = true;
+            prune(file.toAbsolutePath().getParent());
+        }
+    }
+
+    //deletes binaries from other drivers or older cache versions
+    private static void prune(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long currentDriver = driver();
+        ByteBuffer header = ByteBuffer.allocate(KEY_OFFSET).order(ByteOrder.nativeOrder());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                header.clear();
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    while (header.hasRemaining()) {
+                        if (channel.read(header) < 0) {
+                            break;
+                        }
+                    }
+                }
+                if (header.hasRemaining()
+                        || header.getInt(0) != MAGIC
+                        || header.getInt(4) != VERSION
+                        || header.getLong(DRIVER_OFFSET) != currentDriver) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("Warning: Failed to prune program cache '" + directory + "'");
+            ex.printStackTrace(System.out);
+        }
+    }
+
+    private ProgramBinaryCache() {
+
+    }
+
+}
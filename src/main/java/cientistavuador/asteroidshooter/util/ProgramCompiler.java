@@ -41,6 +41,11 @@ public class ProgramCompiler {
 
     private static final boolean ONLY_OUTPUT_ERRORS = false;
 
+    private static int coldPrograms = 0;
+    private static long coldTime = 0;
+    private static int warmPrograms = 0;
+    private static long warmTime = 0;
+
     public static int compile(String vertexSource, String fragmentSource) {
         return compile(vertexSource, null, fragmentSource);
     }
@@ -60,21 +65,34 @@ public class ProgramCompiler {
         return s;
     }
 
+    //info logs are only queried when they are going to be printed
+    private static void printLog(String title, int shaderOrProgram, boolean program) {
+        if (ONLY_OUTPUT_ERRORS) {
+            return;
+        }
+        String log = (program ? glGetProgramInfoLog(shaderOrProgram) : glGetShaderInfoLog(shaderOrProgram));
+        if (!log.isBlank()) {
+            System.out.println(title + " Debug Output -> \n" + log + "\n-end-");
+        }
+    }
+
+    private static void label(int program, String shaderName) {
+        if (Main.DEBUG_ENABLED && shaderName != null && GL.getCapabilities().GL_KHR_debug) {
+            KHRDebug.glObjectLabel(KHRDebug.GL_PROGRAM, program, "Program_"+shaderName);
+        }
+    }
+
     public static int compile(String vertexSource, String geometrySource, String fragmentSource, Map<String, String> replacements) {
+        long start = System.nanoTime();
+        
         String shaderName = null;
-        if (!ONLY_OUTPUT_ERRORS) {
-            StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-            for (int i = 0; i < stackTrace.length; i++) {
-                if (i == 0) {
-                    continue;
-                }
-                StackTraceElement e = stackTrace[i];
-                if (!e.getClassName().contains(ProgramCompiler.class.getName())) {
-                    shaderName = e.toString();
-                    System.out.println("Compiling shader in " + shaderName);
-                    break;
-                }
-            }
+        if (!ONLY_OUTPUT_ERRORS || Main.DEBUG_ENABLED) {
+            shaderName = StackWalker.getInstance().walk((frames) -> frames
+                    .filter((f) -> !f.getClassName().equals(ProgramCompiler.class.getName()))
+                    .findFirst()
+                    .map(Object::toString)
+                    .orElse(null)
+            );
         }
         
         if (replacements != null) {
@@ -84,16 +102,36 @@ public class ProgramCompiler {
                 geometrySource = replace(geometrySource, replacements);
             }
         }
+        
+        boolean binaryCache = ProgramBinaryCache.isSupported();
+        byte[] key = null;
+        if (binaryCache) {
+            key = ProgramBinaryCache.key(vertexSource, geometrySource, fragmentSource, replacements);
+            int program = ProgramBinaryCache.load(key);
+            if (program != 0) {
+                label(program, shaderName);
+                long time = System.nanoTime() - start;
+                ProgramCompiler.warmPrograms++;
+                ProgramCompiler.warmTime += time;
+                if (!ONLY_OUTPUT_ERRORS) {
+                    System.out.println("Loaded cached program binary in " + shaderName + " ("+String.format("%.3f", time / 1E6d)+"ms)");
+                }
+                return program;
+            }
+        }
+        
+        if (!ONLY_OUTPUT_ERRORS) {
+            System.out.println("Compiling shader in " + shaderName);
+        }
         int vertexShader = glCreateShader(GL_VERTEX_SHADER);
         glShaderSource(vertexShader, vertexSource);
         glCompileShader(vertexShader);
 
         boolean vertexShaderFailed = glGetShaderi(vertexShader, GL_COMPILE_STATUS) != GL_TRUE;
-        if (!ONLY_OUTPUT_ERRORS && !vertexShaderFailed) {
-            System.out.println("Vertex Shader Debug Output -> \n" + glGetShaderInfoLog(vertexShader) + "\n-end-");
-        } else if (vertexShaderFailed) {
+        if (vertexShaderFailed) {
             throw new RuntimeException("Vertex Shader Compilation Failed! -> \n" + glGetShaderInfoLog(vertexShader) + "\n-end-");
         }
+        printLog("Vertex Shader", vertexShader, false);
 
         int geometryShader = 0;
         if (geometrySource != null) {
@@ -102,11 +140,10 @@ public class ProgramCompiler {
             glCompileShader(geometryShader);
 
             boolean geometryShaderFailed = glGetShaderi(geometryShader, GL_COMPILE_STATUS) != GL_TRUE;
-            if (!ONLY_OUTPUT_ERRORS && !geometryShaderFailed) {
-                System.out.println("Geometry Shader Debug Output -> \n" + glGetShaderInfoLog(geometryShader) + "\n-end-");
-            } else if (geometryShaderFailed) {
+            if (geometryShaderFailed) {
                 throw new RuntimeException("Geometry Shader Compilation Failed! -> \n" + glGetShaderInfoLog(geometryShader) + "\n-end-");
             }
+            printLog("Geometry Shader", geometryShader, false);
         }
 
         int fragmentShader = glCreateShader(GL_FRAGMENT_SHADER);
@@ -114,11 +151,10 @@ public class ProgramCompiler {
         glCompileShader(fragmentShader);
 
         boolean fragmentShaderFailed = glGetShaderi(fragmentShader, GL_COMPILE_STATUS) != GL_TRUE;
-        if (!ONLY_OUTPUT_ERRORS && !fragmentShaderFailed) {
-            System.out.println("Fragment Shader Debug Output -> \n" + glGetShaderInfoLog(fragmentShader) + "\n-end-");
-        } else if (fragmentShaderFailed) {
+        if (fragmentShaderFailed) {
             throw new RuntimeException("Fragment Shader Compilation Failed! -> \n" + glGetShaderInfoLog(fragmentShader) + "\n-end-");
         }
+        printLog("Fragment Shader", fragmentShader, false);
         
         int program = glCreateProgram();
 
@@ -128,14 +164,16 @@ public class ProgramCompiler {
         }
         glAttachShader(program, fragmentShader);
 
+        if (binaryCache) {
+            ProgramBinaryCache.prepare(program);
+        }
         glLinkProgram(program);
 
         boolean programLinkFailed = glGetProgrami(program, GL_LINK_STATUS) != GL_TRUE;
-        if (!ONLY_OUTPUT_ERRORS && !programLinkFailed) {
-            System.out.println("Program Debug Output -> \n" + glGetProgramInfoLog(program) + "\n-end-");
-        } else if (programLinkFailed) {
+        if (programLinkFailed) {
             throw new RuntimeException("Program Link Failed! -> \n" + glGetProgramInfoLog(program) + "\n-end-");
         }
+        printLog("Program", program, true);
 
         glDeleteShader(vertexShader);
         if (geometryShader != 0) {
@@ -143,13 +181,40 @@ public class ProgramCompiler {
         }
         glDeleteShader(fragmentShader);
         
-        if (Main.DEBUG_ENABLED && shaderName != null && GL.getCapabilities().GL_KHR_debug) {
-            KHRDebug.glObjectLabel(KHRDebug.GL_PROGRAM, program, "Program_"+shaderName);
+        label(program, shaderName);
+        
+        if (binaryCache) {
+            ProgramBinaryCache.store(key, program);
         }
+        
+        ProgramCompiler.coldPrograms++;
+        ProgramCompiler.coldTime += System.nanoTime() - start;
 
         return program;
     }
 
+    public static int getColdPrograms() {
+        return coldPrograms;
+    }
+
+    public static long getColdTime() {
+        return coldTime;
+    }
+
+    public static int getWarmPrograms() {
+        return warmPrograms;
+    }
+
+    public static long getWarmTime() {
+        return warmTime;
+    }
+    
+    //cold programs were compiled from source, warm ones loaded from the binary cache
+    public static void printStatistics() {
+        System.out.println("Programs compiled from source: " + coldPrograms + " in " + String.format("%.3f", coldTime / 1E6d) + "ms");
+        System.out.println("Programs loaded from binary cache: " + warmPrograms + " in " + String.format("%.3f", warmTime / 1E6d) + "ms");
+    }
+
     private ProgramCompiler() {
 
     }